@@ -0,0 +1,52 @@
+/*
+ *    File: CardBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the <code>Card</code> operations.  The cards are compared in a shuffled order, so that
+ * the results cannot be folded into constants by the compiler.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CardBenchmark {
+    private final Card[] _cards = new Card[Card.NUM_CARDS];
+    private int _next;
+
+    @Setup
+    public void setUp() {
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(0));
+        d.shuffle();
+        for (int i = 0; i < _cards.length; i++) {
+            _cards[i] = d.dealOneCard();
+        }
+    }
+
+    @Benchmark
+    public int compareTo() {
+        int i = _next;
+        _next = (i + 1) % Card.NUM_CARDS;
+        return _cards[i].compareTo(_cards[(i + 1) % Card.NUM_CARDS]);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *    File: CardOrderingBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of <code>CardOrdering</code> against comparators that compare the <code>Rank</code> and
+ * <code>Suit</code> enums, like the <code>Comparator</code> lambda that <code>Deck</code> used to sort with.  The
+ * cards are dealt into 13 four-card tricks from a shuffled deck, and played with spades as trumps.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CardOrderingBenchmark {
+
+    private static final int TRICK_SIZE = 4;
+    private static final int NUM_TRICKS = Card.NUM_CARDS / TRICK_SIZE;
+
+    /**
+     * Orders cards by suit and then by rank, with two enum comparisons.
+     */
+    private static final Comparator<Card> ENUM_COMPARATOR = (c1, c2) -> {
+        int result = c1.getSuit().compareTo(c2.getSuit());
+        return result != 0 ? result : c1.getRank().compareTo(c2.getRank());
+    };
+
+    private final Card[][] _tricks = new Card[NUM_TRICKS][TRICK_SIZE];
+    private final Card[] _cards = new Card[Card.NUM_CARDS];
+    private int _next;
+
+    @Setup
+    public void setUp() {
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(0));
+        d.shuffle();
+        for (int i = 0; i < _cards.length; i++) {
+            _cards[i] = d.dealOneCard();
+            _tricks[i / TRICK_SIZE][i % TRICK_SIZE] = _cards[i];
+        }
+    }
+
+    /**
+     * Compares cards with enum comparisons, as a trick-taking game would without a strength table: trumps first,
+     * then the led suit, then aces high.
+     */
+    private static int compareWithEnums(final Card c1, final Card c2, final Suit trump, final Suit led) {
+        boolean trump1 = c1.getSuit() == trump;
+        boolean trump2 = c2.getSuit() == trump;
+        if (trump1 != trump2) {
+            return trump1 ? 1 : -1;
+        }
+        boolean led1 = c1.getSuit() == led;
+        boolean led2 = c2.getSuit() == led;
+        if (led1 != led2) {
+            return led1 ? 1 : -1;
+        }
+        if (c1.getRank() == c2.getRank()) {
+            return 0;
+        }
+        if (c1.getRank() == Rank.ACE || c2.getRank() == Rank.ACE) {
+            return c1.getRank() == Rank.ACE ? 1 : -1;
+        }
+        return c1.getRank().compareTo(c2.getRank());
+    }
+
+    @Benchmark
+    public int compareEnumComparator() {
+        int i = _next;
+        _next = (i + 1) % Card.NUM_CARDS;
+        return ENUM_COMPARATOR.compare(_cards[i], _cards[(i + 1) % Card.NUM_CARDS]);
+    }
+
+    @Benchmark
+    public int compareTrumpEnums() {
+        int i = _next;
+        _next = (i + 1) % Card.NUM_CARDS;
+        return CardOrderingBenchmark.compareWithEnums(_cards[i], _cards[(i + 1) % Card.NUM_CARDS],
+                Suit.SPADES, Suit.HEARTS);
+    }
+
+    @Benchmark
+    public int compareTrumpTable() {
+        int i = _next;
+        _next = (i + 1) % Card.NUM_CARDS;
+        return CardOrdering.SPADES.withLed(Suit.HEARTS).compare(_cards[i], _cards[(i + 1) % Card.NUM_CARDS]);
+    }
+
+    @Benchmark
+    public int trickWinnersEnums() {
+        int sum = 0;
+        for (Card[] trick : _tricks) {
+            Suit led = trick[0].getSuit();
+            int winner = 0;
+            for (int i = 1; i < trick.length; i++) {
+                if (CardOrderingBenchmark.compareWithEnums(trick[i], trick[winner], Suit.SPADES, led) > 0) {
+                    winner = i;
+                }
+            }
+            sum += winner;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int trickWinnersTable() {
+        int sum = 0;
+        for (Card[] trick : _tricks) {
+            sum += CardOrdering.SPADES.trickWinner(trick);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *    File: CombinationEnumeratorBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for <code>CombinationEnumerator</code>, reporting the time to enumerate all 1,712,304 five-card
+ * boards left after two players' hole cards, with a visitor that only folds the boards together (so the cost is
+ * that of the enumeration).
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CombinationEnumeratorBenchmark {
+
+    /**
+     * Visitor that folds the boards together.
+     */
+    private static final class Fold implements CombinationEnumerator.Visitor {
+        private long _fold;
+
+        @Override
+        public void visit(final long mask) {
+            _fold = _fold * 31 + mask;
+        }
+    }
+
+    private CombinationEnumerator _boards;
+
+    @Setup
+    public void setUp() {
+        CardSet holeCards = CardSet.of(Card.of(Rank.ACE, Suit.SPADES), Card.of(Rank.ACE, Suit.HEARTS),
+                Card.of(Rank.KING, Suit.CLUBS), Card.of(Rank.KING, Suit.DIAMONDS));
+        _boards = new CombinationEnumerator(holeCards.complement(), 5);
+    }
+
+    @Benchmark
+    public long forEach() {
+        Fold fold = new Fold();
+        _boards.forEach(fold);
+        return fold._fold;
+    }
+
+    @Benchmark
+    public long forEachParallel() {
+        long fold = 0L;
+        for (Fold f : _boards.forEachParallel(Fold::new)) {
+            fold ^= f._fold;
+        }
+        return fold;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *    File: ConcurrentDeckBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH contention benchmark for a deck shared by several dealer threads.  Compares the lock-free
+ * <code>ConcurrentDeck</code> with a <code>Deck</code> behind <code>synchronized</code> methods.
+ * Every thread deals from the same deck; the thread that finds the deck empty resets and shuffles it.
+ * Run <code>main()</code> to measure 1 to 64 threads; the results are written to
+ * <code>out/jmh/jmh-concurrent-deck-N-threads.json</code>.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentDeckBenchmark {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    /**
+     * <code>Deck</code> with every operation guarded by the deck's monitor.
+     */
+    static final class SynchronizedDeck implements IDeck {
+        private final Deck _deck = new Deck(RandomGenerators.xoshiro256StarStar(0));
+
+        @Override
+        public synchronized void shuffle() {
+            _deck.shuffle();
+        }
+
+        @Override
+        public synchronized Card dealOneCard() {
+            return _deck.dealOneCard();
+        }
+
+        @Override
+        public synchronized void reset() {
+            _deck.reset();
+        }
+
+        @Override
+        public synchronized int getSize() {
+            return _deck.getSize();
+        }
+
+        @Override
+        public synchronized boolean contains(final Card c) {
+            return _deck.contains(c);
+        }
+
+        @Override
+        public synchronized boolean remove(final Card c) {
+            return _deck.remove(c);
+        }
+    }
+
+    private ConcurrentDeck _concurrentDeck;
+    private SynchronizedDeck _synchronizedDeck;
+
+    @Setup
+    public void setUp() {
+        _concurrentDeck = new ConcurrentDeck(RandomGenerators.xoshiro256StarStar(0));
+        _concurrentDeck.shuffle();
+        _synchronizedDeck = new SynchronizedDeck();
+        _synchronizedDeck.shuffle();
+    }
+
+    private static Card deal(final IDeck d) {
+        Card c = d.dealOneCard();
+        if (c == null) {
+            d.reset();
+            d.shuffle();
+        }
+        return c;
+    }
+
+    @Benchmark
+    public Card dealOneCard_concurrentDeck() {
+        return ConcurrentDeckBenchmark.deal(_concurrentDeck);
+    }
+
+    @Benchmark
+    public Card dealOneCard_synchronizedDeck() {
+        return ConcurrentDeckBenchmark.deal(_synchronizedDeck);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        for (int threads : ConcurrentDeckBenchmark.THREAD_COUNTS) {
+            Options opts = new OptionsBuilder()
+                    .include(ConcurrentDeckBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("out/jmh/jmh-concurrent-deck-" + threads + "-threads.json")
+                    .build();
+            new Runner(opts).run();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *    File: DealJournalBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for <code>DealJournal</code>, reporting the number of records written per second (segment
+ * rotation included).  Run with <code>-prof gc</code> to confirm that recording does not allocate.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DealJournalBenchmark {
+
+    private Path _directory;
+    private DealJournal _journal;
+    private Card[] _cards;
+    private int _next;
+    private long _epoch;
+
+    @Setup
+    public void setUp() throws IOException {
+        _directory = Files.createTempDirectory("journal");
+        _journal = new DealJournal(_directory, "bench");
+        _cards = new Card[Card.NUM_CARDS];
+        for (int i = 0; i < _cards.length; i++) {
+            _cards[i] = Card.fromIndex(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        _journal.close();
+        for (Path p : DealJournal.segments(_directory, "bench")) {
+            Files.delete(p);
+        }
+        Files.delete(_directory);
+    }
+
+    /**
+     * Records one dealt card, and a shuffle every 52 cards.
+     */
+    @Benchmark
+    public void recordDeal() throws IOException {
+        if (_next == _cards.length) {
+            _next = 0;
+            _journal.recordShuffle(1, ++_epoch, _epoch);
+        }
+        _journal.recordDeal(1, _epoch, _cards[_next++]);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ *    File: DeckBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the <code>Deck</code> operations: construction, shuffle, sort, reset, dealing out
+ * the whole deck, and <code>hashCode()</code>/<code>equals()</code>.  Each benchmark is run for a single deck
+ * and for 6- and 8-deck 'shoes'.  The state is per thread, so running with <code>-t</code> greater than 1
+ * measures independent decks on several threads at once.
+ * Run with <code>-prof gc</code> to check that shuffling, resetting, dealing, removing cards, hashing,
+ * comparing, and <code>appendTo()</code> do not allocate (0 B/op).  The other benchmarks do: <code>construct()</code>
+ * allocates a deck, <code>shuffleAndSort()</code> the count array of <code>sort()</code>, and
+ * <code>deckToString()</code> its <code>String</code>.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+
+    /**
+     * Deck that holds several sets of 52 cards, built with the <code>populateDeck()</code> extension point.
+     */
+    static class MultiDeck extends Deck {
+        private static final long serialVersionUID = 1L;
+        private final int _deckCount;
+
+        MultiDeck(final IRandomGenerator rand, final int deckCount) {
+            super(rand);
+            _deckCount = deckCount;
+            for (int i = 1; i < _deckCount; i++) {
+                this.populateDeck();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            for (int i = 1; i < _deckCount; i++) {
+                this.populateDeck();
+            }
+        }
+
+        /**
+         * The hash code as computed before the Zobrist hash, by <code>List.hashCode()</code>.
+         */
+        int listHashCode() {
+            return this.getCards().hashCode();
+        }
+
+        /**
+         * Removes cards as before <code>remove()</code>, by <code>List.remove()</code>.
+         */
+        void listRemoveAll(final CardSet cards) {
+            List<Card> list = this.getCards();
+            for (Card c : cards) {
+                list.remove(c);
+            }
+        }
+
+        /**
+         * Equality as computed before the Zobrist hash, by <code>List.equals()</code>.
+         */
+        boolean listEquals(final MultiDeck d) {
+            return this.getCards().equals(d.getCards());
+        }
+    }
+
+    private static final CardSet DEAD_CARDS = CardSet.of(Card.of(Rank.ACE, Suit.SPADES),
+            Card.of(Rank.ACE, Suit.HEARTS), Card.of(Rank.KING, Suit.CLUBS), Card.of(Rank.KING, Suit.DIAMONDS));
+
+    @Param({"1", "6", "8"})
+    private int _deckCount;
+
+    private MultiDeck _deck;
+    private MultiDeck _equalDeck;
+    private StringBuilder _builder;
+
+    @Setup
+    public void setUp() {
+        _deck = new MultiDeck(RandomGenerators.xoshiro256StarStar(0), _deckCount);
+        _equalDeck = new MultiDeck(RandomGenerators.xoshiro256StarStar(0), _deckCount);
+        _builder = new StringBuilder();
+    }
+
+    @Benchmark
+    public Deck construct() {
+        return new MultiDeck(RandomGenerators.defaultGenerator(), _deckCount);
+    }
+
+    @Benchmark
+    public void shuffle() {
+        _deck.shuffle();
+    }
+
+    /**
+     * Shuffles and then sorts the deck, since sorting an already sorted deck is not representative.
+     * The cost of the sort is the difference between this benchmark and <code>shuffle()</code>.
+     */
+    @Benchmark
+    public void shuffleAndSort() {
+        _deck.shuffle();
+        _deck.sort();
+    }
+
+    @Benchmark
+    public void reset() {
+        _deck.reset();
+    }
+
+    /**
+     * Shuffles the deck lazily, removes the hole cards of two players (known to be out of play), and deals a
+     * board, as in an equity simulation.  The removal does not disturb the lazy shuffle.
+     */
+    @Benchmark
+    public void dealBoardWithDeadCards(final Blackhole bh) {
+        _deck.reset();
+        _deck.shuffleLazily();
+        _deck.removeAll(DeckBenchmark.DEAD_CARDS);
+        for (int i = 0; i < EquitySimulator.BOARD_SIZE; i++) {
+            bh.consume(_deck.dealOneCard());
+        }
+    }
+
+    /**
+     * As <code>dealBoardWithDeadCards()</code>, but removing the cards with <code>List.remove()</code>, which
+     * shifts the list (and, because the list is exposed, completes the lazy shuffle first).
+     */
+    @Benchmark
+    public void dealBoardWithDeadCardsList(final Blackhole bh) {
+        _deck.reset();
+        _deck.shuffleLazily();
+        _deck.listRemoveAll(DeckBenchmark.DEAD_CARDS);
+        for (int i = 0; i < EquitySimulator.BOARD_SIZE; i++) {
+            bh.consume(_deck.dealOneCard());
+        }
+    }
+
+    @Benchmark
+    public void resetAndDealOut(final Blackhole bh) {
+        _deck.reset();
+        for (int i = _deck.getSize(); i > 0; i--) {
+            bh.consume(_deck.dealOneCard());
+        }
+    }
+
+    @Benchmark
+    public int deckHashCode() {
+        return _deck.hashCode();
+    }
+
+    /**
+     * Compares two equal decks, which is the worst case for <code>equals()</code>.
+     */
+    @Benchmark
+    public boolean deckEquals() {
+        return _deck.equals(_equalDeck);
+    }
+
+    @Benchmark
+    public boolean listEquals() {
+        return _deck.listEquals(_equalDeck);
+    }
+
+    /**
+     * Deals a card and then hashes the deck, as when a deck is used as a cache key during a deal.  The hash code
+     * is updated incrementally.
+     */
+    @Benchmark
+    public int dealAndHashCode() {
+        this.dealOrReshuffle();
+        return _deck.hashCode();
+    }
+
+    /**
+     * As <code>dealAndHashCode()</code>, but hashing every card with <code>List.hashCode()</code>.
+     */
+    @Benchmark
+    public int dealAndListHashCode() {
+        this.dealOrReshuffle();
+        return _deck.listHashCode();
+    }
+
+    private void dealOrReshuffle() {
+        if (_deck.getSize() == 0) {
+            _deck.reset();
+            _deck.shuffle();
+        }
+        _deck.dealOneCard();
+    }
+
+    @Benchmark
+    public String deckToString() {
+        return _deck.toString();
+    }
+
+    /**
+     * Renders the deck into a reused builder, which allocates nothing once the builder has grown.
+     */
+    @Benchmark
+    public int appendTo() {
+        _builder.setLength(0);
+        return _deck.appendTo(_builder).length();
+    }
+
+    @Benchmark
+    public void shuffleAndDealOut(final Blackhole bh) {
+        _deck.reset();
+        _deck.shuffle();
+        for (int i = _deck.getSize(); i > 0; i--) {
+            bh.consume(_deck.dealOneCard());
+        }
+    }
+}
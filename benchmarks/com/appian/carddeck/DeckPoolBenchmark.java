@@ -0,0 +1,61 @@
+/*
+ *    File: DeckPoolBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of a hold'em game (a shuffle and 9 cards dealt) on a new deck, against one on a deck borrowed
+ * from a <code>DeckPool</code>, as on a table server.  Run with <code>-prof gc</code>
+ * to compare the allocation (and so garbage collection) rates.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class DeckPoolBenchmark {
+
+    private static final int HOLDEM_CARDS = 9;
+
+    private final DeckPool<Deck> _pool = new DeckPool<>(Deck::new, 64);
+
+    @Benchmark
+    public void newDeckPerGame(final Blackhole bh) {
+        Deck d = new Deck();
+        DeckPoolBenchmark.playHand(d, bh);
+    }
+
+    @Benchmark
+    public void pooledDeckPerGame(final Blackhole bh) {
+        Deck d = _pool.borrow();
+        DeckPoolBenchmark.playHand(d, bh);
+        _pool.release(d);
+    }
+
+    private static void playHand(final Deck d, final Blackhole bh) {
+        d.shuffleLazily();
+        for (int i = 0; i < DeckPoolBenchmark.HOLDEM_CARDS; i++) {
+            bh.consume(d.dealOneCard());
+        }
+    }
+}
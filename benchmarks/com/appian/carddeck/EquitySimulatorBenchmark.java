@@ -0,0 +1,83 @@
+/*
+ *    File: EquitySimulatorBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for <code>EquitySimulator</code>, reporting the time per trial.  The simulator runs on the common
+ * fork/join pool, so its scaling is measured by repeating the benchmark with different pool sizes, e.g.:
+ * <pre>
+ *     ant benchmark -Djmh.args="EquitySimulatorBenchmark -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=4"
+ * </pre>
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EquitySimulatorBenchmark {
+
+    private static final int NUM_TRIALS = 1000000;
+
+    private EquitySimulator _preflop;
+    private EquitySimulator _flop;
+    private long _seed;
+
+    @Setup
+    public void setUp() {
+        CardSet aces = CardSet.of(Card.of(Rank.ACE, Suit.SPADES), Card.of(Rank.ACE, Suit.HEARTS));
+        CardSet kings = CardSet.of(Card.of(Rank.KING, Suit.CLUBS), Card.of(Rank.KING, Suit.DIAMONDS));
+        CardSet connectors = CardSet.of(Card.of(Rank.NINE, Suit.HEARTS), Card.of(Rank.EIGHT, Suit.HEARTS));
+        _preflop = new EquitySimulator(Arrays.asList(aces, kings), CardSet.EMPTY);
+        _flop = new EquitySimulator(Arrays.asList(aces, kings, connectors),
+                CardSet.of(Card.of(Rank.TEN, Suit.HEARTS), Card.of(Rank.SEVEN, Suit.CLUBS),
+                        Card.of(Rank.TWO, Suit.HEARTS)));
+    }
+
+    /**
+     * Two players before the flop: five board cards per trial.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EquitySimulatorBenchmark.NUM_TRIALS)
+    public EquityResult preflopHeadsUp() {
+        return _preflop.run(EquitySimulatorBenchmark.NUM_TRIALS, _seed++);
+    }
+
+    /**
+     * Three players after the flop: two board cards per trial.
+     */
+    @Benchmark
+    @OperationsPerInvocation(EquitySimulatorBenchmark.NUM_TRIALS)
+    public EquityResult flopThreeWay() {
+        return _flop.run(EquitySimulatorBenchmark.NUM_TRIALS, _seed++);
+    }
+
+    /**
+     * Two players before the flop, evaluating all 1,712,304 boards; reported per board.
+     */
+    @Benchmark
+    @OperationsPerInvocation(1712304)
+    public EquityResult preflopHeadsUpExact() {
+        return _preflop.enumerate();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *    File: HandEvaluatorBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for <code>HandEvaluator</code>.  Each invocation evaluates a fixed set of random hands, so the
+ * score is the average time of one evaluation.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandEvaluatorBenchmark {
+
+    private static final int NUM_HANDS = 1024;
+
+    private long[] _fiveCardHands;
+    private long[] _sevenCardHands;
+    private Card[][] _sevenCardArrays;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom rand = new SplittableRandom(0);
+        _fiveCardHands = new long[HandEvaluatorBenchmark.NUM_HANDS];
+        _sevenCardHands = new long[HandEvaluatorBenchmark.NUM_HANDS];
+        _sevenCardArrays = new Card[HandEvaluatorBenchmark.NUM_HANDS][];
+        for (int i = 0; i < HandEvaluatorBenchmark.NUM_HANDS; i++) {
+            _fiveCardHands[i] = HandEvaluatorBenchmark.randomHand(rand, 5);
+            _sevenCardHands[i] = HandEvaluatorBenchmark.randomHand(rand, 7);
+            _sevenCardArrays[i] = CardSet.fromMask(_sevenCardHands[i]).toArray();
+        }
+    }
+
+    private static long randomHand(final SplittableRandom rand, final int n) {
+        long mask = 0L;
+        while (Long.bitCount(mask) < n) {
+            mask |= 1L << rand.nextInt(Card.NUM_CARDS);
+        }
+        return mask;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HandEvaluatorBenchmark.NUM_HANDS)
+    public int evaluateFiveCards() {
+        int sum = 0;
+        for (long hand : _fiveCardHands) {
+            sum += HandEvaluator.evaluate(hand);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(HandEvaluatorBenchmark.NUM_HANDS)
+    public int evaluateSevenCards() {
+        int sum = 0;
+        for (long hand : _sevenCardHands) {
+            sum += HandEvaluator.evaluate(hand);
+        }
+        return sum;
+    }
+
+    /**
+     * Evaluates seven-card hands given as <code>Card</code> arrays, which includes building their bit masks.
+     */
+    @Benchmark
+    @OperationsPerInvocation(HandEvaluatorBenchmark.NUM_HANDS)
+    public int evaluateSevenCardArrays() {
+        int sum = 0;
+        for (Card[] hand : _sevenCardArrays) {
+            sum += HandEvaluator.evaluate(hand);
+        }
+        return sum;
+    }
+}
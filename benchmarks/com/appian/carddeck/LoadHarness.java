@@ -0,0 +1,410 @@
+/*
+ *    File: LoadHarness.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Load-generation harness that simulates many card tables at once, to reproduce production load and find the
+ * scaling limits of the deck implementations.  Each table runs on a thread of its own and plays hands of one game
+ * profile at a fixed rate: every hand takes a deck (new, or borrowed from a <code>DeckPool</code>), shuffles it,
+ * and deals it as the game would.  After a warm-up, the harness measures for a fixed time and reports the
+ * throughput, the percentiles of the time taken to deal a hand (see <code>LatencyHistogram</code>; percentiles are
+ * upper bounds, to within a factor of 2), the allocation rate, and the garbage collections.
+ * <p>
+ * The tables run on virtual threads, one per table, when the JVM supports them (JDK 21 and later; they are created
+ * by reflection, since the project targets Java 8), and otherwise on platform threads, one per table, which can also
+ * be chosen for comparison.  Run <code>main()</code> with the benchmark classpath, or the Ant <code>loadtest</code>
+ * target, with options of the form <code>--name=value</code>:
+ * <ul>
+ * <li><code>--profile=holdem|shoe|bridge</code>: game played at each table (default <code>holdem</code>)</li>
+ * <li><code>--tables=N</code>: number of tables (default 10000)</li>
+ * <li><code>--threads=virtual|platform</code>: kind of thread of each table (default <code>virtual</code>)</li>
+ * <li><code>--deck=deck|packed|concurrent</code>: deck implementation, for the hold'em and bridge profiles
+ * (default <code>deck</code>)</li>
+ * <li><code>--pool</code>: borrow the decks from a <code>DeckPool</code> instead of creating one for each hand</li>
+ * <li><code>--rate=R</code>: hands per second played at each table; 0 plays as fast as possible (default 2)</li>
+ * <li><code>--warmup=S</code> and <code>--duration=S</code>: seconds of warm-up and of measurement (defaults 5
+ * and 30)</li>
+ * </ul>
+ * A table that falls more than one hand behind its schedule counts as <i>lagging</i>; many lagging hands mean that
+ * the harness could not sustain the rate, and that the reported throughput is the limit of the configuration.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class LoadHarness {
+
+    /**
+     * Game played at a table.  Each profile deals one hand from its own table state, and returns the number of
+     * cards dealt.
+     */
+    enum Profile {
+        /**
+         * Six-handed Texas hold'em: two hole cards each, and a board of five cards with a burn card before the
+         * flop, the turn, and the river.
+         */
+        HOLDEM {
+            @Override
+            int playHand(final Table t) {
+                IDeck deck = t.takeDeck();
+                deck.shuffle();
+                Card[][] hands = deck.dealRound(6, 2);
+                deck.dealOneCard();
+                deck.dealInto(t._cards, 0, 3);
+                deck.dealOneCard();
+                deck.dealInto(t._cards, 3, 1);
+                deck.dealOneCard();
+                deck.dealInto(t._cards, 4, 1);
+                t.giveBackDeck(deck);
+                return hands.length * 2 + 8;
+            }
+        },
+        /**
+         * Blackjack from a six-deck shoe with 75% penetration: two cards each to five players and the dealer,
+         * then up to two hits per player.  The shoe is reshuffled when the cut card has been reached.
+         */
+        SHOE {
+            @Override
+            int playHand(final Table t) {
+                Shoe shoe = t._shoe;
+                if (shoe.isCutCardReached()) {
+                    shoe.reshuffle();
+                }
+                Card[][] hands = shoe.dealRound(6, 2);
+                int cards = 12;
+                for (int p = 0; p < hands.length - 1; p++) {
+                    for (int hits = ThreadLocalRandom.current().nextInt(3); hits > 0; hits--) {
+                        if (shoe.dealOneCard() != null) {
+                            cards++;
+                        }
+                    }
+                }
+                return cards;
+            }
+        },
+        /**
+         * Contract bridge: the whole deck is dealt to four hands, and the 13 tricks are played out, each led by
+         * the winner of the last, with a random trump suit (or no trump).
+         */
+        BRIDGE {
+            @Override
+            int playHand(final Table t) {
+                IDeck deck = t.takeDeck();
+                deck.shuffle();
+                Card[][] hands = deck.dealRound(4, 13);
+                t.giveBackDeck(deck);
+                int trump = ThreadLocalRandom.current().nextInt(Suit.values().length + 1);
+                CardOrdering ordering = CardOrdering.withTrump(trump < Suit.values().length
+                        ? Suit.values()[trump] : null);
+                int leader = 0;
+                for (int trick = 0; trick < 13; trick++) {
+                    for (int i = 0; i < 4; i++) {
+                        t._trick[i] = hands[(leader + i) % 4][trick];
+                    }
+                    leader = (leader + ordering.trickWinner(t._trick)) % 4;
+                }
+                return Card.NUM_CARDS;
+            }
+        };
+
+        /**
+         * Plays one hand.
+         *
+         * @param t the table
+         * @return the number of cards dealt
+         */
+        abstract int playHand(Table t);
+    }
+
+    /**
+     * State of one table: its shoe (for the shoe profile), and buffers for the cards it deals.
+     */
+    final class Table implements Runnable {
+        private final Card[] _cards = new Card[5];
+        private final Card[] _trick = new Card[4];
+        private final Shoe _shoe;
+
+        private Table() {
+            if (_profile == Profile.SHOE) {
+                _shoe = new Shoe(6, 0.75, RandomGenerators.defaultGenerator());
+                _shoe.reshuffle();
+            } else {
+                _shoe = null;
+            }
+        }
+
+        private IDeck takeDeck() {
+            return _pool != null ? _pool.borrow() : _deckFactory.get();
+        }
+
+        private void giveBackDeck(final IDeck deck) {
+            if (_pool != null) {
+                _pool.release(deck);
+            }
+        }
+
+        @Override
+        public void run() {
+            long period = _rate > 0.0 ? (long) (TimeUnit.SECONDS.toNanos(1) / _rate) : 0L;
+            // spread the first hands over one period, so the tables do not all deal at once
+            long deadline = System.nanoTime() + (period > 0L ? ThreadLocalRandom.current().nextLong(period) : 0L);
+            while (!_stopped) {
+                if (period > 0L) {
+                    long wait;
+                    while ((wait = deadline - System.nanoTime()) > 0L && !_stopped) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    if (_stopped) {
+                        return;
+                    }
+                } else {
+                    Thread.yield();
+                }
+                long start = System.nanoTime();
+                int cards = _profile.playHand(this);
+                long end = System.nanoTime();
+                if (_measuring) {
+                    _latency.record(end - start);
+                    _hands.increment();
+                    _cardsDealt.add(cards);
+                    if (period > 0L && start - deadline > period) {
+                        _lagging.increment();
+                    }
+                }
+                deadline += period;
+            }
+        }
+    }
+
+    private final Profile _profile;
+    private final int _tables;
+    private final boolean _virtual;
+    private final String _deckName;
+    private final Supplier<IDeck> _deckFactory;
+    private final DeckPool<IDeck> _pool;
+    private final double _rate;
+
+    private volatile boolean _stopped;
+    private volatile boolean _measuring;
+    private final LatencyHistogram _latency = new LatencyHistogram();
+    private final LongAdder _hands = new LongAdder();
+    private final LongAdder _cardsDealt = new LongAdder();
+    private final LongAdder _lagging = new LongAdder();
+
+
+    LoadHarness(final Profile profile, final int tables, final boolean virtual, final String deck,
+                final boolean pooled, final double rate) {
+        if (profile == null) {
+            throw new NullPointerException("profile is null");
+        }
+        if (deck == null) {
+            throw new NullPointerException("deck is null");
+        }
+        if (tables <= 0) {
+            throw new IllegalArgumentException("number of tables must be positive: " + tables);
+        }
+        if (!(rate >= 0.0)) {
+            throw new IllegalArgumentException("rate must not be negative: " + rate);
+        }
+        _profile = profile;
+        _tables = tables;
+        _virtual = virtual;
+        _deckName = deck;
+        _deckFactory = LoadHarness.deckFactory(deck);
+        _pool = pooled ? new DeckPool<>(_deckFactory, tables) : null;
+        _rate = rate;
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread, or <code>null</code> if the JVM does not
+     * support virtual threads (or has not enabled them).
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            // before JDK 21, or a preview feature that has not been enabled
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated by all threads so far, or -1 if the JVM cannot tell.  Allocations by
+     * virtual threads are counted in their carrier threads.  Before JDK 21, only the live threads are counted,
+     * which is enough while the tables are running.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        try {
+            Method total = com.sun.management.ThreadMXBean.class.getMethod("getTotalThreadAllocatedBytes");
+            return (Long) total.invoke(threads);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            // not available before JDK 21
+        }
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1L;
+        }
+        long sum = 0L;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0L) {
+                sum += bytes;
+            }
+        }
+        return sum;
+    }
+
+    private static long[] gcCountAndMillis() {
+        long[] result = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result[0] += Math.max(gc.getCollectionCount(), 0L);
+            result[1] += Math.max(gc.getCollectionTime(), 0L);
+        }
+        return result;
+    }
+
+    /**
+     * Starts the tables, warms up, measures, stops the tables, and prints the report.
+     *
+     * @param warmupSeconds   seconds of warm-up
+     * @param durationSeconds seconds of measurement
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void run(final int warmupSeconds, final int durationSeconds) throws InterruptedException {
+        ExecutorService executor = _virtual ? LoadHarness.newVirtualThreadExecutor() : null;
+        boolean virtual = executor != null;
+        if (_virtual && !virtual) {
+            System.err.println("virtual threads are not available on Java " + System.getProperty("java.version")
+                    + "; using platform threads");
+        }
+        if (executor == null) {
+            executor = Executors.newCachedThreadPool();
+        }
+        for (int i = 0; i < _tables; i++) {
+            executor.execute(new Table());
+        }
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+
+        long allocatedBefore = LoadHarness.allocatedBytes();
+        long[] gcBefore = LoadHarness.gcCountAndMillis();
+        long start = System.nanoTime();
+        _measuring = true;
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        _measuring = false;
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = LoadHarness.allocatedBytes();
+        long[] gcAfter = LoadHarness.gcCountAndMillis();
+
+        _stopped = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.err.println("some tables did not stop");
+        }
+
+        double seconds = elapsed / 1e9;
+        long hands = _hands.sum();
+        long allocated = allocatedBefore < 0L || allocatedAfter < 0L ? -1L : allocatedAfter - allocatedBefore;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "profile=%s tables=%d threads=%s deck=%s pooled=%b rate=%s%n",
+                _profile.name().toLowerCase(Locale.ROOT), _tables, virtual ? "virtual" : "platform",
+                _profile == Profile.SHOE ? "shoe" : _deckName, _pool != null,
+                _rate > 0.0 ? _rate + "/s" : "unpaced"));
+        sb.append(String.format(Locale.ROOT, "hands:      %d in %.1f s (%.0f hands/s, %.0f cards/s, %d lagging)%n",
+                hands, seconds, hands / seconds, _cardsDealt.sum() / seconds, _lagging.sum()));
+        sb.append(String.format(Locale.ROOT, "latency:    mean %.0f ns, p50 <= %d ns, p99 <= %d ns, p999 <= %d ns%n",
+                _latency.getMean(), _latency.getPercentile(50.0), _latency.getPercentile(99.0),
+                _latency.getPercentile(99.9)));
+        if (allocated >= 0L) {
+            sb.append(String.format(Locale.ROOT, "allocation: %.1f MB/s, %.0f bytes/hand%n",
+                    allocated / seconds / (1024.0 * 1024.0), hands == 0L ? 0.0 : (double) allocated / hands));
+        } else {
+            sb.append(String.format("allocation: not available%n"));
+        }
+        sb.append(String.format(Locale.ROOT, "gc:         %d collections, %d ms%n",
+                gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]));
+        if (_pool != null) {
+            sb.append(String.format("pool:       %s%n", _pool));
+        }
+        System.out.print(sb);
+    }
+
+    private static Supplier<IDeck> deckFactory(final String name) {
+        switch (name) {
+            case "deck":
+                return Deck::new;
+            case "packed":
+                return PackedDeck::new;
+            case "concurrent":
+                return ConcurrentDeck::new;
+            default:
+                throw new IllegalArgumentException("unknown deck: " + name);
+        }
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        Profile profile = Profile.HOLDEM;
+        int tables = 10000;
+        boolean virtual = true;
+        String deck = "deck";
+        boolean pooled = false;
+        double rate = 2.0;
+        int warmup = 5;
+        int duration = 30;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (name) {
+                case "--profile":
+                    profile = Profile.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--tables":
+                    tables = Integer.parseInt(value);
+                    break;
+                case "--threads":
+                    if (!value.equals("virtual") && !value.equals("platform")) {
+                        throw new IllegalArgumentException("unknown threads: " + value);
+                    }
+                    virtual = value.equals("virtual");
+                    break;
+                case "--deck":
+                    deck = value;
+                    break;
+                case "--pool":
+                    pooled = eq < 0 || Boolean.parseBoolean(value);
+                    break;
+                case "--rate":
+                    rate = Double.parseDouble(value);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    duration = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option: " + arg);
+            }
+        }
+        new LoadHarness(profile, tables, virtual, deck, pooled, rate).run(warmup, duration);
+    }
+}
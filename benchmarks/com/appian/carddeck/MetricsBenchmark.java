@@ -0,0 +1,79 @@
+/*
+ *    File: MetricsBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the cost of <code>DeckMetrics</code>.  Each operation is measured in a JVM with metrics off
+ * (the default) and in one with metrics on (the <code>...Metered</code> benchmarks, forked with
+ * <code>-Dcom.appian.carddeck.metrics=true</code>).  With metrics off, the results should match those of the
+ * same operations before the decks were instrumented.  Each operation resets, shuffles, and deals out a deck,
+ * and then tries to deal one card more, so every instrumented path (reset, shuffle, and exhaustion) is taken.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsBenchmark {
+
+    private static final String METRICS_ON = "-Dcom.appian.carddeck.metrics=true";
+
+    private Deck _deck;
+    private PackedDeck _packedDeck;
+
+    @Setup
+    public void setUp() {
+        _deck = new Deck(RandomGenerators.xoshiro256StarStar(0));
+        _packedDeck = new PackedDeck(RandomGenerators.xoshiro256StarStar(0));
+    }
+
+    private static void dealOut(final IDeck deck, final Blackhole bh) {
+        deck.reset();
+        deck.shuffle();
+        for (int i = 0; i <= Card.NUM_CARDS; i++) {
+            bh.consume(deck.dealOneCard());
+        }
+    }
+
+    @Benchmark
+    public void deck(final Blackhole bh) {
+        MetricsBenchmark.dealOut(_deck, bh);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = MetricsBenchmark.METRICS_ON)
+    public void deckMetered(final Blackhole bh) {
+        MetricsBenchmark.dealOut(_deck, bh);
+    }
+
+    @Benchmark
+    public void packedDeck(final Blackhole bh) {
+        MetricsBenchmark.dealOut(_packedDeck, bh);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = MetricsBenchmark.METRICS_ON)
+    public void packedDeckMetered(final Blackhole bh) {
+        MetricsBenchmark.dealOut(_packedDeck, bh);
+    }
+}
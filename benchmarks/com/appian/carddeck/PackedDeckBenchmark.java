@@ -0,0 +1,78 @@
+/*
+ *    File: PackedDeckBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the <code>PackedDeck</code> operations, for comparison with <code>DeckBenchmark</code>.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PackedDeckBenchmark {
+    private PackedDeck _deck;
+
+    @Setup
+    public void setUp() {
+        _deck = new PackedDeck(RandomGenerators.xoshiro256StarStar(0));
+    }
+
+    @Benchmark
+    public void shuffle() {
+        _deck.shuffle();
+    }
+
+    @Benchmark
+    public void shuffleAndDealOut(final Blackhole bh) {
+        _deck.reset();
+        _deck.shuffle();
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            bh.consume(_deck.dealOneCard());
+        }
+    }
+
+    /**
+     * Deals a heads-up hold'em hand (two hole cards each and five board cards) after a full shuffle.
+     */
+    @Benchmark
+    public void shuffleAndDealHoldem(final Blackhole bh) {
+        _deck.reset();
+        _deck.shuffle();
+        for (int i = 0; i < 9; i++) {
+            bh.consume(_deck.dealOneCard());
+        }
+    }
+
+    /**
+     * Deals a heads-up hold'em hand after a lazy shuffle, which draws only nine random numbers.
+     */
+    @Benchmark
+    public void shuffleLazilyAndDealHoldem(final Blackhole bh) {
+        _deck.reset();
+        _deck.shuffleLazily();
+        for (int i = 0; i < 9; i++) {
+            bh.consume(_deck.dealOneCard());
+        }
+    }
+}
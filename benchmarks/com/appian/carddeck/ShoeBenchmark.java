@@ -0,0 +1,73 @@
+/*
+ *    File: ShoeBenchmark.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the <code>Shoe</code> operations, for comparison with the multi-deck results of
+ * <code>DeckBenchmark</code>.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShoeBenchmark {
+
+    @Param({"1", "6", "8"})
+    private int _deckCount;
+
+    private Shoe _shoe;
+
+    @Setup
+    public void setUp() {
+        _shoe = new Shoe(_deckCount, Shoe.DEFAULT_PENETRATION, RandomGenerators.xoshiro256StarStar(0));
+    }
+
+    @Benchmark
+    public void shuffle() {
+        _shoe.shuffle();
+    }
+
+    /**
+     * Shuffles and then sorts the shoe.  The cost of the sort is the difference between this benchmark and
+     * <code>shuffle()</code>.
+     */
+    @Benchmark
+    public void shuffleAndSort() {
+        _shoe.shuffle();
+        _shoe.sort();
+    }
+
+    /**
+     * Reshuffles the shoe and deals until the cut card is reached, as in a blackjack game.
+     */
+    @Benchmark
+    public void reshuffleAndDealToCutCard(final Blackhole bh) {
+        _shoe.reshuffle();
+        while (!_shoe.isCutCardReached()) {
+            bh.consume(_shoe.dealOneCard());
+        }
+        bh.consume(_shoe.getRemaining(Rank.TEN));
+    }
+}
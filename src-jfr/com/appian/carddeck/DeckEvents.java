@@ -0,0 +1,136 @@
+/*
+ *    File: DeckEvents.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of deck operations, committed by <code>DeckMetrics</code>.  The events are only
+ * recorded when a recording has enabled them, e.g., with
+ * <code>-XX:StartFlightRecording:settings=profile</code>, and appear under the "Card Deck" category.  A shuffle
+ * or reset event is begun before the operation and committed after it, so its duration (and any
+ * <code>threshold</code> setting) is that of the operation.
+ * <b>NOTE:</b> This class is compiled apart from the rest of the library, from <code>src-jfr</code>, and only
+ * when the build is given a JDK that has the <code>jdk.jfr</code> API (JDK 11 and later, or JDK 8 from update
+ * 262).  <code>DeckMetrics</code> loads it by name, and commits no events when it is missing.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+final class DeckEvents implements DeckMetrics.EventSink {
+
+    /**
+     * Full shuffle of a deck.
+     */
+    @Name("com.appian.carddeck.Shuffle")
+    @Label("Deck Shuffle")
+    @Category("Card Deck")
+    @Description("A deck was shuffled")
+    @StackTrace(false)
+    static final class ShuffleEvent extends Event {
+        @Label("Deck Class")
+        String deckClass;
+        @Label("Cards")
+        int cards;
+    }
+
+    /**
+     * Reset of a deck.
+     */
+    @Name("com.appian.carddeck.Reset")
+    @Label("Deck Reset")
+    @Category("Card Deck")
+    @Description("A deck was refilled with all of its cards")
+    @StackTrace(false)
+    static final class ResetEvent extends Event {
+        @Label("Deck Class")
+        String deckClass;
+        @Label("Cards")
+        int cards;
+    }
+
+    /**
+     * Deal from a deck that held too few cards.
+     */
+    @Name("com.appian.carddeck.Exhausted")
+    @Label("Deck Exhausted")
+    @Category("Card Deck")
+    @Description("A deal found too few cards in a deck")
+    static final class ExhaustedEvent extends Event {
+        @Label("Deck Class")
+        String deckClass;
+    }
+
+    /**
+     * Creates the events; called reflectively by <code>DeckMetrics</code>.
+     */
+    DeckEvents() {
+    }
+
+    /**
+     * Begins a shuffle event, if a recording has enabled it.
+     */
+    @Override
+    public Object beginShuffle() {
+        ShuffleEvent event = new ShuffleEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits a shuffle event begun by <code>beginShuffle()</code>.
+     */
+    @Override
+    public void commitShuffle(final Object event, final String deckClass, final int cards) {
+        ShuffleEvent e = (ShuffleEvent) event;
+        e.deckClass = deckClass;
+        e.cards = cards;
+        e.commit();
+    }
+
+    /**
+     * Begins a reset event, if a recording has enabled it.
+     */
+    @Override
+    public Object beginReset() {
+        ResetEvent event = new ResetEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits a reset event begun by <code>beginReset()</code>.
+     */
+    @Override
+    public void commitReset(final Object event, final String deckClass, final int cards) {
+        ResetEvent e = (ResetEvent) event;
+        e.deckClass = deckClass;
+        e.cards = cards;
+        e.commit();
+    }
+
+    /**
+     * Commits an exhaustion event, if a recording has enabled it.
+     */
+    @Override
+    public void exhausted(final String deckClass) {
+        ExhaustedEvent event = new ExhaustedEvent();
+        if (event.isEnabled()) {
+            event.deckClass = deckClass;
+            event.commit();
+        }
+    }
+}
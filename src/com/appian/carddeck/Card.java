@@ -5,21 +5,69 @@
 
 package com.appian.carddeck;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
  * Class representing a playing card.  Cards have a rank and a suit, and individual cards are comparable.
  * This class is immutable (i.e., the class members cannot be changed after it has been created).
+ * All 52 possible cards are constructed once and cached; use <code>Card.of()</code> or <code>Card.fromIndex()</code>
+ * to obtain the canonical instance rather than constructing a new one (similar to <code>Integer.valueOf()</code>).
  *
  * @author Robert Orr
  * @version 1.0
  */
 public class Card implements Comparable<Card>, Serializable {
 
-    // TODO: add factory method and pull from cache of constant Cards (see java.lang.Integer)
-
     private static final long serialVersionUID = -3520807187208430671L;
 
+    /**
+     * Cached copies of the rank and suit values, so that <code>values()</code> does not clone an array on every call.
+     */
+    private static final Rank[] RANKS = Rank.values();
+    private static final Suit[] SUITS = Suit.values();
+    /**
+     * Total number of distinct cards (13 ranks in each of 4 suits).
+     */
+    public static final int NUM_CARDS = RANKS.length * SUITS.length;
+    /**
+     * Cache of all possible cards, indexed by <code>suit * 13 + rank</code> (i.e., in 'natural' deck order).
+     */
+    private static final Card[] CACHE = new Card[NUM_CARDS];
+    /**
+     * String representation (e.g., "Ten of Diamonds") and short code (e.g., "Td") of each card, indexed by card
+     * index.  They are computed once, so that rendering a card does not allocate.
+     */
+    private static final String[] NAMES = new String[NUM_CARDS];
+    private static final String[] CODES = new String[NUM_CARDS];
+    /**
+     * Ordinal of the rank and of the suit with each symbol, indexed by character, or -1.  Both cases are accepted.
+     */
+    private static final byte[] RANK_SYMBOLS = new byte[128];
+    private static final byte[] SUIT_SYMBOLS = new byte[128];
+
+    static {
+        for (Suit s : SUITS) {
+            for (Rank r : RANKS) {
+                Card c = new Card(r, s);
+                CACHE[c._index] = c;
+                NAMES[c._index] = r.toString() + " of " + s.toString();
+                CODES[c._index] = new String(new char[]{r.getSymbol(), s.getSymbol()});
+            }
+        }
+        Arrays.fill(RANK_SYMBOLS, (byte) -1);
+        Arrays.fill(SUIT_SYMBOLS, (byte) -1);
+        for (Rank r : RANKS) {
+            RANK_SYMBOLS[Character.toUpperCase(r.getSymbol())] = (byte) r.ordinal();
+            RANK_SYMBOLS[Character.toLowerCase(r.getSymbol())] = (byte) r.ordinal();
+        }
+        for (Suit s : SUITS) {
+            SUIT_SYMBOLS[Character.toUpperCase(s.getSymbol())] = (byte) s.ordinal();
+            SUIT_SYMBOLS[Character.toLowerCase(s.getSymbol())] = (byte) s.ordinal();
+        }
+    }
+
     /**
      * Card rank.
      */
@@ -32,12 +80,17 @@ public class Card implements Comparable<Card>, Serializable {
      * Card hash code.
      */
     private final int _hashCode;
+    /**
+     * Card index (ordinal) within the 'natural' order of a deck: <code>suit * 13 + rank</code>.
+     */
+    private final int _index;
 
     /**
      * Constructs a single card with a <code>Rank</code> and a <code>Suit</code>.
      * Because the Card is immutable, this constructor also calculates the hash code and stores it.
      * This constructor will throw a <code>NullPointerException</code> if either <code>Rank</code>
      * or <code>Suit</code> is <code>null</code>.
+     * Prefer <code>Card.of()</code>, which returns the cached instance instead of allocating a new one.
      *
      * @param r card Rank
      * @param s card Suit
@@ -60,6 +113,61 @@ public class Card implements Comparable<Card>, Serializable {
         result = 31 * result + _rank.hashCode();
         result = 31 * result + _suit.hashCode();
         _hashCode = result;
+        _index = _suit.ordinal() * RANKS.length + _rank.ordinal();
+    }
+
+    /**
+     * Returns the cached <code>Card</code> with the given <code>Rank</code> and <code>Suit</code>.
+     * This method will throw a <code>NullPointerException</code> if either <code>Rank</code>
+     * or <code>Suit</code> is <code>null</code>.
+     *
+     * @param r card Rank
+     * @param s card Suit
+     * @return the canonical Card instance
+     */
+    public static Card of(final Rank r, final Suit s) {
+        // check for nullity
+        if (r == null) {
+            throw new NullPointerException("rank is null");
+        }
+        if (s == null) {
+            throw new NullPointerException("suit is null");
+        }
+        return CACHE[s.ordinal() * RANKS.length + r.ordinal()];
+    }
+
+    /**
+     * Returns the cached <code>Card</code> with the given index (see <code>getIndex()</code>).
+     * Throws an <code>ArrayIndexOutOfBoundsException</code> if the index is not between 0 and 51.
+     *
+     * @param index card index, <code>0 &lt;= index &lt; NUM_CARDS</code>
+     * @return the canonical Card instance
+     */
+    public static Card fromIndex(final int index) {
+        return CACHE[index];
+    }
+
+    /**
+     * Returns the cached <code>Card</code> with the given short code (see <code>getShortCode()</code>), e.g.,
+     * "As" or "Td".  The rank and suit symbols may be in either case.
+     * This method will throw a <code>NullPointerException</code> if the code is <code>null</code>.
+     *
+     * @param code short code of the card
+     * @return the canonical Card instance
+     * @throws IllegalArgumentException if the code is not the short code of a card
+     */
+    public static Card parse(final CharSequence code) {
+        if (code == null) {
+            throw new NullPointerException("code is null");
+        }
+        if (code.length() == 2) {
+            char r = code.charAt(0);
+            char s = code.charAt(1);
+            if (r < RANK_SYMBOLS.length && s < SUIT_SYMBOLS.length && RANK_SYMBOLS[r] >= 0 && SUIT_SYMBOLS[s] >= 0) {
+                return CACHE[SUIT_SYMBOLS[s] * RANKS.length + RANK_SYMBOLS[r]];
+            }
+        }
+        throw new IllegalArgumentException("invalid card code: " + code);
     }
 
     /**
@@ -80,6 +188,16 @@ public class Card implements Comparable<Card>, Serializable {
         return _suit;
     }
 
+    /**
+     * Returns the index of the card within the 'natural' order of a deck (sorted by suit, then by rank).
+     * The index is <code>suit.ordinal() * 13 + rank.ordinal()</code>, and lies between 0 and 51.
+     *
+     * @return the index of the card
+     */
+    public int getIndex() {
+        return _index;
+    }
+
     /**
      * Indicates whether the card os a face card (i.e., Jack, Queen, or King).
      *
@@ -97,7 +215,17 @@ public class Card implements Comparable<Card>, Serializable {
     @Override
     public String toString() {
         // TODO: i18n
-        return _rank.toString() + " of " + _suit.toString();
+        return NAMES[_index];
+    }
+
+    /**
+     * Returns the two-character short code of the card: the symbol of its rank followed by the symbol of its
+     * suit (e.g., "As" for the Ace of Spades, or "Td" for the Ten of Diamonds).
+     *
+     * @return short code of the card
+     */
+    public String getShortCode() {
+        return CODES[_index];
     }
 
     /**
@@ -121,9 +249,8 @@ public class Card implements Comparable<Card>, Serializable {
             return false;
         }
 
-        // check fields using their equals() methods
-        Card c = (Card) obj;
-        return this._rank.equals(c._rank) && this._suit.equals(c._suit);
+        // the index uniquely identifies rank and suit
+        return this._index == ((Card) obj)._index;
     }
 
     /**
@@ -153,4 +280,14 @@ public class Card implements Comparable<Card>, Serializable {
         // compare rank only
         return this._rank.compareTo(c._rank);
     }
+
+    /**
+     * Replaces a deserialized card with the canonical cached instance, so that card identity is preserved.
+     *
+     * @return the cached Card with the same Rank and Suit
+     * @throws ObjectStreamException never
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return Card.of(_rank, _suit);
+    }
 }
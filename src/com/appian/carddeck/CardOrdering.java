@@ -0,0 +1,255 @@
+/*
+ *    File: CardOrdering.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * Ordering of cards for trick-taking games, defined by an optional trump suit, an optional led suit, and whether
+ * aces rank high or low.  A card of the trump suit beats any card that is not a trump, a card of the led suit beats
+ * any other card that is not a trump, and cards within the same group are ordered by rank; cards of the other suits
+ * are ordered by rank alone, so cards of the same rank in different suits compare as equal.
+ * <p>
+ * Each ordering is compiled to a table holding the <i>strength</i> of each card, indexed by card index, so
+ * comparing two cards is two array lookups and a subtraction, with no enum comparisons.  Every ordering is
+ * constructed once and cached (similar to <code>Card.of()</code>); <code>CardOrdering.of()</code> and
+ * <code>withLed()</code> return the cached instances, so switching to the led suit of each trick does not allocate.
+ * This class is immutable, and may be used from any number of threads.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class CardOrdering implements Comparator<Card>, Serializable {
+
+    private static final long serialVersionUID = 2984101362770658917L;
+
+    private static final Suit[] SUITS = Suit.values();
+    /**
+     * Number of ranks, and so the strength added by each group (other suits, led suit, trump suit).
+     */
+    private static final int NUM_RANKS = Rank.values().length;
+    /**
+     * Cache of all possible orderings, indexed by <code>index()</code>.
+     */
+    private static final CardOrdering[] CACHE = new CardOrdering[2 * (SUITS.length + 1) * (SUITS.length + 1)];
+
+    static {
+        for (int aceHigh = 0; aceHigh < 2; aceHigh++) {
+            for (int trump = 0; trump <= SUITS.length; trump++) {
+                for (int led = 0; led <= SUITS.length; led++) {
+                    CardOrdering o = new CardOrdering(trump < SUITS.length ? SUITS[trump] : null,
+                            led < SUITS.length ? SUITS[led] : null, aceHigh == 1);
+                    CACHE[CardOrdering.index(o._trump, o._led, o._aceHigh)] = o;
+                }
+            }
+        }
+    }
+
+    /**
+     * Aces high, no trump suit, and no led suit: the order of ranks in poker.
+     */
+    public static final CardOrdering ACE_HIGH = CardOrdering.of(null, null, true);
+    /**
+     * Aces low, no trump suit, and no led suit: the same order as <code>Card.compareTo()</code>.
+     */
+    public static final CardOrdering ACE_LOW = CardOrdering.of(null, null, false);
+    /**
+     * Aces high, and no trump suit: the order of a bridge hand played at no trump, or of whist without trumps.
+     */
+    public static final CardOrdering NO_TRUMP = CardOrdering.ACE_HIGH;
+    /**
+     * Aces high, and spades always trump: the order of the game of spades.
+     */
+    public static final CardOrdering SPADES = CardOrdering.of(Suit.SPADES, null, true);
+
+    /**
+     * Trump suit, or <code>null</code>.
+     */
+    private final Suit _trump;
+    /**
+     * Led suit, or <code>null</code>.
+     */
+    private final Suit _led;
+    /**
+     * Whether aces rank above kings, rather than below twos.
+     */
+    private final boolean _aceHigh;
+    /**
+     * Strength of each card, indexed by card index: <code>rank + 13</code> for a card of the led suit,
+     * <code>rank + 26</code> for a trump, and the rank alone otherwise, where aces have rank 12 if high and 0 if low.
+     */
+    private final transient byte[] _strength = new byte[Card.NUM_CARDS];
+
+
+    /**
+     * Constructs and compiles an ordering.  Only used to fill the cache.
+     */
+    private CardOrdering(final Suit trump, final Suit led, final boolean aceHigh) {
+        _trump = trump;
+        _led = led;
+        _aceHigh = aceHigh;
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            Card c = Card.fromIndex(i);
+            int rank = c.getRank().ordinal();
+            if (aceHigh) {
+                rank = rank == Rank.ACE.ordinal() ? CardOrdering.NUM_RANKS - 1 : rank - 1;
+            }
+            int group = c.getSuit() == trump ? 2 : c.getSuit() == led ? 1 : 0;
+            _strength[i] = (byte) (group * CardOrdering.NUM_RANKS + rank);
+        }
+    }
+
+    /**
+     * Returns the ordering with the given trump suit, led suit, and ace rank.
+     *
+     * @param trump   trump suit, or <code>null</code> for no trump
+     * @param led     led suit, or <code>null</code> if no suit has been led
+     * @param aceHigh <code>true</code> if aces rank above kings, <code>false</code> if they rank below twos
+     * @return the cached ordering
+     */
+    public static CardOrdering of(final Suit trump, final Suit led, final boolean aceHigh) {
+        return CACHE[CardOrdering.index(trump, led, aceHigh)];
+    }
+
+    /**
+     * Returns the ordering with aces high and the given trump suit (e.g., that of a bridge contract), and no led
+     * suit.
+     *
+     * @param trump trump suit, or <code>null</code> for no trump
+     * @return the cached ordering
+     */
+    public static CardOrdering withTrump(final Suit trump) {
+        return CardOrdering.of(trump, null, true);
+    }
+
+    private static int index(final Suit trump, final Suit led, final boolean aceHigh) {
+        int t = trump == null ? SUITS.length : trump.ordinal();
+        int l = led == null ? SUITS.length : led.ordinal();
+        return ((aceHigh ? SUITS.length + 1 : 0) + t) * (SUITS.length + 1) + l;
+    }
+
+    /**
+     * Returns the ordering with the same trump suit and ace rank as this one, and the given led suit.
+     *
+     * @param led led suit, or <code>null</code> for none
+     * @return the cached ordering
+     */
+    public CardOrdering withLed(final Suit led) {
+        return CardOrdering.of(_trump, led, _aceHigh);
+    }
+
+    /**
+     * Returns the trump suit.
+     *
+     * @return the trump suit, or <code>null</code> for no trump
+     */
+    public Suit getTrump() {
+        return _trump;
+    }
+
+    /**
+     * Returns the led suit.
+     *
+     * @return the led suit, or <code>null</code> if none
+     */
+    public Suit getLed() {
+        return _led;
+    }
+
+    /**
+     * Indicates whether aces rank above kings.
+     *
+     * @return <code>true</code> if aces are high, <code>false</code> if they are low
+     */
+    public boolean isAceHigh() {
+        return _aceHigh;
+    }
+
+    /**
+     * Returns the strength of a card: the greater the strength, the higher the card ranks in this ordering.
+     * Strengths are between 0 and 38.
+     *
+     * @param c the card
+     * @return the strength of the card
+     */
+    public int strength(final Card c) {
+        return _strength[c.getIndex()];
+    }
+
+    /**
+     * Returns the strength of the card with the given index (see <code>Card.getIndex()</code>), for callers that
+     * hold card indices rather than cards.
+     *
+     * @param cardIndex index of the card
+     * @return the strength of the card
+     */
+    public int strength(final int cardIndex) {
+        return _strength[cardIndex];
+    }
+
+    /**
+     * Compares two cards in this ordering.
+     *
+     * @param c1 the first card
+     * @param c2 the second card
+     * @return a negative integer, zero, or a positive integer as the first card ranks below, equal to, or above
+     * the second
+     */
+    @Override
+    public int compare(final Card c1, final Card c2) {
+        return _strength[c1.getIndex()] - _strength[c2.getIndex()];
+    }
+
+    /**
+     * Returns the position of the card that wins a trick.  The first card is the lead, so the led suit of this
+     * ordering is replaced by the suit of the first card; the winner is the highest trump played, or else the
+     * highest card of the led suit.
+     *
+     * @param trick cards played to the trick, in the order played
+     * @return the position in <code>trick</code> of the winning card
+     * @throws IllegalArgumentException if the trick is empty
+     */
+    public int trickWinner(final Card... trick) {
+        if (trick == null) {
+            throw new NullPointerException("trick is null");
+        }
+        if (trick.length == 0) {
+            throw new IllegalArgumentException("trick is empty");
+        }
+        byte[] strength = this.withLed(trick[0].getSuit())._strength;
+        int winner = 0;
+        int best = strength[trick[0].getIndex()];
+        for (int i = 1; i < trick.length; i++) {
+            int s = strength[trick[i].getIndex()];
+            if (s > best) {
+                best = s;
+                winner = i;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the ordering.
+     *
+     * @return <code>String</code> representation of the ordering
+     */
+    @Override
+    public String toString() {
+        return "CardOrdering[trump=" + _trump + ", led=" + _led + ", aceHigh=" + _aceHigh + "]";
+    }
+
+    /**
+     * Replaces a deserialized ordering with the cached instance, so that orderings can be compared by identity.
+     *
+     * @return the cached ordering
+     * @throws ObjectStreamException never
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return CardOrdering.of(_trump, _led, _aceHigh);
+    }
+}
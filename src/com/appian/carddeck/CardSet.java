@@ -0,0 +1,331 @@
+/*
+ *    File: CardSet.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Class representing a set of distinct cards (e.g., a hand, or the cards dealt from a deck).
+ * The set is stored as a single <code>long</code> bit mask, in which bit <code>i</code> is set if the card
+ * with index <code>i</code> (see <code>Card.getIndex()</code>, i.e., <code>suit * 13 + rank</code>) is in the set.
+ * This makes membership tests, unions, intersections, and the size of the set a handful of machine instructions.
+ * Cards are converted to and from the bit mask through the <code>Card</code> cache, and the set is iterated
+ * in 'natural' deck order (by suit, then by rank within suit).
+ * This class is immutable; the methods that 'modify' a set return a new set.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class CardSet implements Iterable<Card>, Serializable {
+
+    private static final long serialVersionUID = -5139398117473565063L;
+    /**
+     * Bit mask with a bit set for every possible card.
+     */
+    private static final long ALL_CARDS_MASK = (1L << Card.NUM_CARDS) - 1;
+    /**
+     * The empty set.
+     */
+    public static final CardSet EMPTY = new CardSet(0L);
+    /**
+     * The set of all 52 cards.
+     */
+    public static final CardSet FULL = new CardSet(CardSet.ALL_CARDS_MASK);
+
+    /**
+     * Bit mask of the cards in the set.
+     */
+    private final long _mask;
+
+
+    /**
+     * Constructs a set from a bit mask.
+     *
+     * @param mask bit mask of the cards in the set
+     */
+    private CardSet(final long mask) {
+        _mask = mask;
+    }
+
+    /**
+     * Returns the set represented by the given bit mask.
+     *
+     * @param mask bit mask in which bit <code>i</code> is set for the card with index <code>i</code>
+     * @return the set of cards
+     * @throws IllegalArgumentException if a bit above bit 51 is set
+     */
+    public static CardSet fromMask(final long mask) {
+        if ((mask & ~CardSet.ALL_CARDS_MASK) != 0) {
+            throw new IllegalArgumentException("mask has bits set above the last card");
+        }
+        return new CardSet(mask);
+    }
+
+    /**
+     * Returns the set containing the given cards.  Duplicate cards are only counted once.
+     *
+     * @param cards the cards
+     * @return the set of cards
+     */
+    public static CardSet of(final Card... cards) {
+        long mask = 0L;
+        for (Card c : cards) {
+            mask |= CardSet.maskOf(c);
+        }
+        return new CardSet(mask);
+    }
+
+    /**
+     * Returns the bit mask of a single card.
+     *
+     * @param c the card
+     * @return bit mask with only the bit of the card set
+     */
+    public static long maskOf(final Card c) {
+        return 1L << c.getIndex();
+    }
+
+    /**
+     * Returns the bit mask of the cards in the set.
+     *
+     * @return bit mask in which bit <code>i</code> is set for the card with index <code>i</code>
+     */
+    public long getMask() {
+        return _mask;
+    }
+
+    /**
+     * Returns a set containing the cards of this set and the given card.
+     *
+     * @param c the card to add
+     * @return the new set
+     */
+    public CardSet add(final Card c) {
+        return new CardSet(_mask | CardSet.maskOf(c));
+    }
+
+    /**
+     * Returns a set containing the cards of this set except the given card.
+     *
+     * @param c the card to remove
+     * @return the new set
+     */
+    public CardSet remove(final Card c) {
+        return new CardSet(_mask & ~CardSet.maskOf(c));
+    }
+
+    /**
+     * Indicates whether the given card is in the set.
+     *
+     * @param c the card
+     * @return <tt>true</tt> if the card is in the set, <tt>false</tt> otherwise
+     */
+    public boolean contains(final Card c) {
+        return (_mask & CardSet.maskOf(c)) != 0;
+    }
+
+    /**
+     * Indicates whether all of the cards of the given set are in this set.
+     *
+     * @param other the other set
+     * @return <tt>true</tt> if the other set is a subset of this set, <tt>false</tt> otherwise
+     */
+    public boolean containsAll(final CardSet other) {
+        return (other._mask & ~_mask) == 0;
+    }
+
+    /**
+     * Returns the set of cards that are in this set or in the given set.
+     *
+     * @param other the other set
+     * @return the union of the two sets
+     */
+    public CardSet union(final CardSet other) {
+        return new CardSet(_mask | other._mask);
+    }
+
+    /**
+     * Returns the set of cards that are in both this set and the given set.
+     *
+     * @param other the other set
+     * @return the intersection of the two sets
+     */
+    public CardSet intersection(final CardSet other) {
+        return new CardSet(_mask & other._mask);
+    }
+
+    /**
+     * Returns the set of cards that are in this set but not in the given set.
+     *
+     * @param other the other set
+     * @return the difference of the two sets
+     */
+    public CardSet difference(final CardSet other) {
+        return new CardSet(_mask & ~other._mask);
+    }
+
+    /**
+     * Returns the set of the cards of a full deck that are not in this set.
+     *
+     * @return the complement of this set
+     */
+    public CardSet complement() {
+        return new CardSet(~_mask & CardSet.ALL_CARDS_MASK);
+    }
+
+    /**
+     * Returns the number of cards in the set.
+     *
+     * @return number of cards in the set
+     */
+    public int size() {
+        return Long.bitCount(_mask);
+    }
+
+    /**
+     * Indicates whether the set is empty.
+     *
+     * @return <tt>true</tt> if the set contains no cards, <tt>false</tt> otherwise
+     */
+    public boolean isEmpty() {
+        return _mask == 0;
+    }
+
+    /**
+     * Returns the cards of the set as an array, in 'natural' deck order.
+     *
+     * @return array of the cards in the set
+     */
+    public Card[] toArray() {
+        Card[] cards = new Card[this.size()];
+        int i = 0;
+        for (long m = _mask; m != 0; m &= m - 1) {
+            cards[i++] = Card.fromIndex(Long.numberOfTrailingZeros(m));
+        }
+        return cards;
+    }
+
+    /**
+     * Returns an iterator over the cards of the set, in 'natural' deck order.
+     *
+     * @return an iterator over the cards
+     */
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<Card>() {
+            private long _remaining = _mask;
+
+            @Override
+            public boolean hasNext() {
+                return _remaining != 0;
+            }
+
+            @Override
+            public Card next() {
+                if (_remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                Card c = Card.fromIndex(Long.numberOfTrailingZeros(_remaining));
+                _remaining &= _remaining - 1;
+                return c;
+            }
+        };
+    }
+
+    /**
+     * Performs the given action for each card of the set, in 'natural' deck order, without creating an iterator.
+     *
+     * @param action the action to be performed for each card
+     */
+    @Override
+    public void forEach(final Consumer<? super Card> action) {
+        for (long m = _mask; m != 0; m &= m - 1) {
+            action.accept(Card.fromIndex(Long.numberOfTrailingZeros(m)));
+        }
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the cards in the set, in 'natural' deck order.
+     *
+     * @return <code>String</code> representation of the set
+     */
+    @Override
+    public String toString() {
+        return this.appendTo(new StringBuilder(this.size() * Deck.CHARS_PER_CARD)).toString();
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the cards in the set (see <code>toString()</code>) to
+     * <code>out</code>.  The names of the cards are cached, so nothing is allocated other than by
+     * <code>out</code> itself.
+     *
+     * @param out destination of the characters
+     * @throws IOException if <code>out</code> throws one
+     */
+    public void appendTo(final Appendable out) throws IOException {
+        out.append('[');
+        for (long m = _mask; m != 0; m &= m - 1) {
+            out.append(Card.fromIndex(Long.numberOfTrailingZeros(m)).toString());
+            if ((m & (m - 1)) != 0) {
+                out.append(", ");
+            }
+        }
+        out.append(']');
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the cards in the set (see <code>toString()</code>) to the given
+     * <code>StringBuilder</code>.
+     *
+     * @param sb destination of the characters
+     * @return <code>sb</code>
+     */
+    public StringBuilder appendTo(final StringBuilder sb) {
+        try {
+            this.appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // a StringBuilder never throws IOException
+            throw new IllegalStateException(e);
+        }
+        return sb;
+    }
+
+
+    /**
+     * Indicates whether some other object is "equal to" this one.  Returns <tt>true</tt> if the other object
+     * is also a <code>CardSet</code> containing the same cards.
+     *
+     * @param obj the object to be compared for equality with this CardSet
+     * @return <tt>true</tt> if the specified object is equal to this CardSet, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        // short-cut optimization
+        if (this == obj) {
+            return true;
+        }
+
+        // type check, also handles null reference
+        if (!(obj instanceof CardSet)) {
+            return false;
+        }
+
+        return _mask == ((CardSet) obj)._mask;
+    }
+
+    /**
+     * Returns the hash code for this set, which is derived from its bit mask.
+     *
+     * @return the hash code value for this set
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(_mask);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ *    File: CombinationEnumerator.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Enumerator of every <code>k</code>-card subset of a set of cards, e.g., every board that can still be dealt from
+ * the cards left in a deck (<code>deck.getDealtCards().complement()</code>).  Each subset is passed to a
+ * <code>Visitor</code> as a bit mask (see <code>CardSet.getMask()</code>), so nothing is allocated per subset.
+ * <p>
+ * The subsets are enumerated as card masks with a form of <i>Gosper's hack</i>, which steps from one mask with
+ * <code>k</code> bits set to the next larger one in a few instructions, and so in <i>colexicographic</i> order.
+ * The hack is applied to the card mask directly, rather than to a dense <code>n</code>-bit mask that would then
+ * have to be mapped to cards: the bits of the cards not in the set are filled in before the carry is added, so
+ * the carry skips over them (see <code>forEach()</code>).
+ * <p>
+ * Because the position of a subset in colexicographic order (its <i>rank</i>) can be turned back into the subset
+ * directly, any range of ranks can be enumerated on its own, so the subsets can be split into disjoint ranges and
+ * enumerated in parallel; <code>forEachParallel()</code> does so on the common fork/join pool.
+ * This class is immutable, and may be used from any number of threads.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class CombinationEnumerator {
+
+    /**
+     * Callback that receives each subset.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        /**
+         * Visits a subset.
+         *
+         * @param mask bit mask of the cards in the subset (see <code>CardSet.getMask()</code>)
+         */
+        void visit(long mask);
+    }
+
+    /**
+     * Number of subsets enumerated by each parallel task.
+     */
+    static final long CHUNK_SIZE = 1L << 16;
+    /**
+     * Largest number of parallel tasks; beyond <code>CHUNK_SIZE * MAX_CHUNKS</code> subsets, the tasks grow.
+     */
+    static final int MAX_CHUNKS = 1 << 12;
+    /**
+     * Binomial coefficients: <code>BINOMIAL[n][k]</code> is the number of <code>k</code>-element subsets of an
+     * <code>n</code>-element set.
+     */
+    private static final long[][] BINOMIAL = new long[Card.NUM_CARDS + 1][Card.NUM_CARDS + 1];
+
+    static {
+        for (int n = 0; n <= Card.NUM_CARDS; n++) {
+            BINOMIAL[n][0] = 1L;
+            for (int k = 1; k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    /**
+     * Number of cards to choose from.
+     */
+    private final int _n;
+    /**
+     * Number of cards to choose.
+     */
+    private final int _k;
+    /**
+     * Number of subsets.
+     */
+    private final long _size;
+    /**
+     * Bit mask of the cards to choose from.
+     */
+    private final long _cards;
+    /**
+     * Bit of each card to choose from, in increasing order.
+     */
+    private final long[] _bits;
+    /**
+     * Masks of the lowest cards: <code>_lowest[j]</code> is the mask of the <code>j</code> lowest cards.
+     */
+    private final long[] _lowest;
+
+
+    /**
+     * Constructs an enumerator of every <code>k</code>-card subset of the given cards.
+     *
+     * @param cards cards to choose from
+     * @param k     number of cards in each subset
+     * @throws IllegalArgumentException if <code>k</code> is negative or greater than the number of cards
+     */
+    public CombinationEnumerator(final CardSet cards, final int k) {
+        if (cards == null) {
+            throw new NullPointerException("cards are null");
+        }
+        int n = cards.size();
+        if (k < 0 || k > n) {
+            throw new IllegalArgumentException("cannot choose " + k + " of " + n + " cards");
+        }
+        _n = n;
+        _k = k;
+        _size = CombinationEnumerator.BINOMIAL[n][k];
+
+        _cards = cards.getMask();
+        _bits = new long[n];
+        _lowest = new long[n + 1];
+        long mask = _cards;
+        for (int i = 0; i < n; i++) {
+            _bits[i] = Long.lowestOneBit(mask);
+            _lowest[i + 1] = _lowest[i] | _bits[i];
+            mask &= mask - 1;
+        }
+    }
+
+    /**
+     * Returns the number of cards in each subset.
+     *
+     * @return the number of cards in each subset
+     */
+    public int getK() {
+        return _k;
+    }
+
+    /**
+     * Returns the number of subsets.
+     *
+     * @return the number of subsets
+     */
+    public long size() {
+        return _size;
+    }
+
+    /**
+     * Passes every subset to the visitor, in colexicographic order, on the calling thread.
+     *
+     * @param visitor visitor of the subsets
+     */
+    public void forEach(final Visitor visitor) {
+        this.forEach(0L, _size, visitor);
+    }
+
+    /**
+     * Passes the subsets whose ranks in colexicographic order are from <code>from</code> (inclusive) to
+     * <code>to</code> (exclusive) to the visitor, in order, on the calling thread.
+     *
+     * @param from    rank of the first subset
+     * @param to      rank after the last subset
+     * @param visitor visitor of the subsets
+     * @throws IllegalArgumentException if the range is not within <code>0</code> and <code>size()</code>
+     */
+    public void forEach(final long from, final long to, final Visitor visitor) {
+        if (visitor == null) {
+            throw new NullPointerException("visitor is null");
+        }
+        if (from < 0 || to > _size || from > to) {
+            throw new IllegalArgumentException("invalid range: " + from + " to " + to);
+        }
+        if (from == to) {
+            return;
+        }
+        long x = this.unrank(from);
+        visitor.visit(x);
+        long gaps = ~_cards;
+        for (long r = from + 1; r < to; r++) {
+            // Gosper's hack: move the highest card of the lowest run of chosen cards (consecutive within the set)
+            // up to the next card in the set, and the other cards of the run down to the lowest cards in the set.
+            // Filling in the gaps between the cards of the set lets the carry run through them.
+            long s = ((x | gaps) + (x & -x)) & _cards;
+            x = s | _lowest[_k - Long.bitCount(s)];
+            visitor.visit(x);
+        }
+    }
+
+    /**
+     * Passes every subset to a visitor in parallel, on the common fork/join pool.  The subsets are split into
+     * ranges of <code>CHUNK_SIZE</code> ranks (or more, so that there are at most <code>MAX_CHUNKS</code>
+     * ranges); each range is enumerated by a task with its own visitor, created
+     * by <code>factory</code>, so visitors need not be thread safe.  The visitors are returned in range order, for
+     * the caller to combine their results.
+     *
+     * @param factory factory of the visitors
+     * @param <V>     type of the visitors
+     * @return the visitor of each range, in order
+     */
+    public <V extends Visitor> List<V> forEachParallel(final Supplier<? extends V> factory) {
+        if (factory == null) {
+            throw new NullPointerException("factory is null");
+        }
+        long chunkSize = Math.max(CombinationEnumerator.CHUNK_SIZE,
+                (_size + CombinationEnumerator.MAX_CHUNKS - 1) / CombinationEnumerator.MAX_CHUNKS);
+        int chunks = (int) ((_size + chunkSize - 1) / chunkSize);
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    V visitor = factory.get();
+                    long from = c * chunkSize;
+                    this.forEach(from, Math.min(_size, from + chunkSize), visitor);
+                    return visitor;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the subset of the given rank in colexicographic order.  The highest card of the subset is card
+     * <code>c</code> of the set, for the largest <code>c</code> with <code>C(c, k) &lt;= rank</code>, and the rest
+     * of the subset is the <code>(k - 1)</code>-card subset of rank <code>rank - C(c, k)</code>.
+     */
+    private long unrank(final long rank) {
+        long x = 0L;
+        long r = rank;
+        int c = _n;
+        for (int i = _k; i > 0; i--) {
+            do {
+                c--;
+            } while (CombinationEnumerator.BINOMIAL[c][i] > r);
+            x |= _bits[c];
+            r -= CombinationEnumerator.BINOMIAL[c][i];
+        }
+        return x;
+    }
+}
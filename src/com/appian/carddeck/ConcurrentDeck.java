@@ -0,0 +1,506 @@
+/*
+ *    File: ConcurrentDeck.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class representing a traditional deck of cards comprised of 52 cards with four suits and thirteen ranks,
+ * which can be shared between threads.  This class implements the <code>com.appian.carddeck.IDeck</code> interface.
+ * <p>
+ * The cards are held in a 'round': an array of card indices (see <code>Card.getIndex()</code>) together with an
+ * atomic top-of-deck cursor.  <code>dealOneCard()</code> claims the top card by atomically decrementing the
+ * cursor, so dealer threads never block each other.  <code>shuffle()</code>, <code>sort()</code>,
+ * and <code>reset()</code> build a new round from the cards that remain and then 'retire' the old round by
+ * swapping its cursor for a sentinel value in a single atomic operation, before publishing the new round.
+ * These operations are serialized with a lock, which is never taken by dealers.  Dealing is therefore
+ * lock-free except while a round is retired: a dealer that finds the old round retired waits (yielding) for a
+ * concurrent shuffle, sort, reset, or removal to publish the new round, and then retries against it.  The new
+ * round is built before the old one is retired, so that wait spans only two stores.
+ * <p>
+ * Because a retired round may still be read by a dealer that claimed a card just before it was retired, its
+ * array is never reused; <code>shuffle()</code>, <code>sort()</code>, and <code>reset()</code> therefore allocate
+ * a new round, while <code>dealOneCard()</code> never allocates.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class ConcurrentDeck implements IDeck, Serializable {
+
+    private static final long serialVersionUID = -1914375071962016736L;
+    /**
+     * Cursor value of a round that has been replaced.
+     */
+    private static final int RETIRED = -1;
+
+    /**
+     * A set of cards together with its atomic top-of-deck cursor.  The cursor is the number of cards remaining;
+     * cards are dealt from the end of the array, as in <code>PackedDeck</code>.
+     */
+    private static final class Round extends AtomicInteger {
+        private static final long serialVersionUID = 6009566739478071573L;
+        private final byte[] _cards;
+
+        private Round(final byte[] cards, final int size) {
+            super(size);
+            _cards = cards;
+        }
+    }
+
+    /**
+     * The current round.
+     */
+    private final AtomicReference<Round> _round;
+    /**
+     * Lock that serializes the operations that replace the current round.
+     */
+    private final ReentrantLock _writeLock;
+    /**
+     * Pseudo-random number generator; only used while holding <code>_writeLock</code>.
+     * NOTE: The generator is not part of the serialized form; a deserialized deck uses a new default generator.
+     */
+    private transient IRandomGenerator _rand;
+
+
+    /**
+     * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits.
+     * The deck is shuffled with the default generator (see <code>RandomGenerators.defaultGenerator()</code>).
+     */
+    public ConcurrentDeck() {
+        this(RandomGenerators.defaultGenerator());
+    }
+
+    /**
+     * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits, that is shuffled
+     * with the given random number generator.  The generator does not need to be thread safe.
+     * This constructor will throw a <code>NullPointerException</code> if the generator is <code>null</code>.
+     *
+     * @param rand random number generator used by <code>shuffle()</code>
+     */
+    public ConcurrentDeck(final IRandomGenerator rand) {
+        if (rand == null) {
+            throw new NullPointerException("random number generator is null");
+        }
+        _rand = rand;
+        _writeLock = new ReentrantLock();
+        _round = new AtomicReference<>(ConcurrentDeck.freshRound());
+    }
+
+    /**
+     * Returns a new round holding all 52 cards in their original order.
+     *
+     * @return a full round
+     */
+    private static Round freshRound() {
+        return new Round(Arrays.copyOf(PackedDeck.TEMPLATE, Card.NUM_CARDS), Card.NUM_CARDS);
+    }
+
+    /**
+     * Empties the deck of any remaining cards and repopulates it with 52 cards.
+     */
+    @Override
+    public void reset() {
+        long start = DeckMetrics.ENABLED ? System.nanoTime() : 0L;
+        Object event = DeckMetrics.ENABLED ? DeckMetrics.beginReset() : null;
+        Round next = ConcurrentDeck.freshRound();
+        _writeLock.lock();
+        try {
+            _round.get().set(ConcurrentDeck.RETIRED);
+            _round.set(next);
+        } finally {
+            _writeLock.unlock();
+        }
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).reset(start, event, Card.NUM_CARDS);
+        }
+    }
+
+    /**
+     * Shuffles the cards that remain in the deck.  Implements the <code>com.appian.carddeck.IDeck.shuffle()</code>
+     * method.  Uses the <i>Durstenfeld</i> version of the <i>Fisher-Yates</i> shuffle on a copy of the remaining
+     * cards, which then replaces the current round.  If a card is dealt while the copy is being shuffled, the
+     * shuffle is repeated with the cards that are left.
+     */
+    @Override
+    public void shuffle() {
+        long start = DeckMetrics.ENABLED ? System.nanoTime() : 0L;
+        Object event = DeckMetrics.ENABLED ? DeckMetrics.beginShuffle() : null;
+        int size;
+        _writeLock.lock();
+        try {
+            for (;;) {
+                Round current = _round.get();
+                size = current.get();
+                byte[] cards = Arrays.copyOf(current._cards, Card.NUM_CARDS);
+                for (int i = size - 1; i > 0; i--) {
+                    // Choose card to swap with index card
+                    int j = _rand.nextInt(i + 1); // 0 <= j <= i
+                    byte temp = cards[j];
+                    cards[j] = cards[i];
+                    cards[i] = temp;
+                }
+                if (this.replaceRound(current, size, cards)) {
+                    break;
+                }
+            }
+        } finally {
+            _writeLock.unlock();
+        }
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).shuffled(start, event, size);
+        }
+    }
+
+    /**
+     * Sorts the cards that remain in the deck into a conventional 'ordered' representation (grouped by
+     * <code>Suit</code>, and then sorted by <code>Rank</code> within <code>Suit</code>).
+     */
+    public void sort() {
+        _writeLock.lock();
+        try {
+            for (;;) {
+                Round current = _round.get();
+                int size = current.get();
+                byte[] cards = Arrays.copyOf(current._cards, Card.NUM_CARDS);
+                PackedDeck.sortCards(cards, size);
+                if (this.replaceRound(current, size, cards)) {
+                    return;
+                }
+            }
+        } finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Retires the current round and publishes a new one, provided that no card has been dealt from the current
+     * round since its cursor was read.  Must be called while holding <code>_writeLock</code>.
+     *
+     * @param current the current round
+     * @param size    the cursor value of the current round from which the new cards were built
+     * @param cards   the cards for the new round
+     * @return <tt>true</tt> if the round was replaced, <tt>false</tt> if a card was dealt in the meantime
+     */
+    private boolean replaceRound(final Round current, final int size, final byte[] cards) {
+        return this.replaceRound(current, size, cards, size);
+    }
+
+    /**
+     * Retires the current round and publishes a new one with <code>newSize</code> cards, provided that no card
+     * has been dealt from the current round since its cursor was read.  Must be called while holding
+     * <code>_writeLock</code>.
+     *
+     * @param current the current round
+     * @param size    the cursor value of the current round from which the new cards were built
+     * @param cards   the cards for the new round
+     * @param newSize the number of cards in the new round
+     * @return <tt>true</tt> if the round was replaced, <tt>false</tt> if a card was dealt in the meantime
+     */
+    private boolean replaceRound(final Round current, final int size, final byte[] cards, final int newSize) {
+        // the new round is built first, so that dealers only wait for the two stores below
+        Round next = new Round(cards, newSize);
+        if (!current.compareAndSet(size, ConcurrentDeck.RETIRED)) {
+            return false;
+        }
+        _round.set(next);
+        return true;
+    }
+
+    /**
+     * Indicates whether the deck holds the given card.  Implements the
+     * <code>com.appian.carddeck.IDeck.contains()</code> method.  The cards of the current round are searched
+     * without taking a lock; the result reflects the deck at the moment the top-of-deck cursor is read.
+     *
+     * @param c the card
+     * @return <tt>true</tt> if the deck holds the card, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean contains(final Card c) {
+        if (c == null) {
+            throw new NullPointerException("card is null");
+        }
+        byte index = (byte) c.getIndex();
+        for (;;) {
+            Round r = _round.get();
+            int size = r.get();
+            if (size != ConcurrentDeck.RETIRED) {
+                for (int i = 0; i < size; i++) {
+                    if (r._cards[i] == index) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Removes the given card from the deck.  Implements the <code>com.appian.carddeck.IDeck.remove()</code>
+     * method (see <code>removeAll()</code>).
+     *
+     * @param c the card to remove
+     * @return <tt>true</tt> if the card was removed, <tt>false</tt> if the deck did not hold it
+     */
+    @Override
+    public boolean remove(final Card c) {
+        if (c == null) {
+            throw new NullPointerException("card is null");
+        }
+        return this.removeAll(CardSet.of(c)) == 1;
+    }
+
+    /**
+     * Removes the given cards from the deck atomically.  Overrides the default
+     * <code>com.appian.carddeck.IDeck.removeAll()</code> method.  Like <code>sort()</code>, this builds a new round
+     * from the cards that remain, leaving out the removed cards (so the order of the other cards is unchanged),
+     * and retries if a card is dealt in the meantime.
+     *
+     * @param cards the cards to remove
+     * @return the number of cards removed
+     */
+    @Override
+    public int removeAll(final CardSet cards) {
+        if (cards == null) {
+            throw new NullPointerException("cards are null");
+        }
+        long mask = cards.getMask();
+        _writeLock.lock();
+        try {
+            for (;;) {
+                Round current = _round.get();
+                int size = current.get();
+                byte[] remaining = new byte[Card.NUM_CARDS];
+                int kept = 0;
+                for (int i = 0; i < size; i++) {
+                    if ((mask & (1L << current._cards[i])) == 0) {
+                        remaining[kept++] = current._cards[i];
+                    }
+                }
+                if (kept == size) {
+                    return 0;
+                }
+                if (this.replaceRound(current, size, remaining, kept)) {
+                    return size - kept;
+                }
+            }
+        } finally {
+            _writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deals one card from the deck.  Implements the <code>com.appian.carddeck.IDeck.dealOneCard()</code> method.
+     * The card is claimed by atomically decrementing the top-of-deck cursor; this method never takes a lock
+     * and never allocates.
+     *
+     * @return A single instance of <code>Card</code>, or <code>null</code> if deck is empty
+     */
+    @Override
+    public Card dealOneCard() {
+        for (;;) {
+            Round r = _round.get();
+            int size = r.get();
+            if (size == 0) {
+                if (DeckMetrics.ENABLED) {
+                    DeckMetrics.of(this.getClass()).exhausted();
+                }
+                return null;
+            }
+            if (size == ConcurrentDeck.RETIRED) {
+                // a writer is between retiring the old round and publishing the new one
+                Thread.yield();
+            } else if (r.compareAndSet(size, size - 1)) {
+                return Card.fromIndex(r._cards[size - 1]);
+            }
+        }
+    }
+
+    /**
+     * Deals up to <code>n</code> cards from the deck into <code>dst</code>.  Overrides the default
+     * <code>com.appian.carddeck.IDeck.dealInto()</code> method.  The whole range is claimed with a single
+     * atomic update of the top-of-deck cursor, so the cards are consecutive even when other threads are dealing.
+     *
+     * @param dst array to deal the cards into
+     * @param off index of <code>dst</code> at which to store the first card
+     * @param n   number of cards to deal
+     * @return the number of cards dealt
+     */
+    @Override
+    public int dealInto(final Card[] dst, final int off, final int n) {
+        if (off < 0 || n < 0 || off > dst.length - n) {
+            throw new IndexOutOfBoundsException("off: " + off + ", n: " + n + ", length: " + dst.length);
+        }
+        for (;;) {
+            Round r = _round.get();
+            int size = r.get();
+            if (size == ConcurrentDeck.RETIRED) {
+                // a writer is between retiring the old round and publishing the new one
+                Thread.yield();
+                continue;
+            }
+            int count = Math.min(n, size);
+            if (count == 0 || r.compareAndSet(size, size - count)) {
+                for (int i = 0; i < count; i++) {
+                    dst[off + i] = Card.fromIndex(r._cards[size - 1 - i]);
+                }
+                if (DeckMetrics.ENABLED && count < n) {
+                    DeckMetrics.of(this.getClass()).exhausted();
+                }
+                return count;
+            }
+        }
+    }
+
+    /**
+     * Deals a round of <code>cardsEach</code> cards to each of <code>seats</code> players.  Overrides the default
+     * <code>com.appian.carddeck.IDeck.dealRound()</code> method.  The whole round is claimed with a single
+     * atomic update of the top-of-deck cursor, or not at all if there are not enough cards.
+     *
+     * @param seats     number of players
+     * @param cardsEach number of cards dealt to each player
+     * @return the hands, indexed by seat, or <code>null</code> if there are not enough cards
+     */
+    @Override
+    public Card[][] dealRound(final int seats, final int cardsEach) {
+        if (seats <= 0 || cardsEach < 0) {
+            throw new IllegalArgumentException("seats: " + seats + ", cards each: " + cardsEach);
+        }
+        for (;;) {
+            Round r = _round.get();
+            int size = r.get();
+            if (size == ConcurrentDeck.RETIRED) {
+                // a writer is between retiring the old round and publishing the new one
+                Thread.yield();
+                continue;
+            }
+            // compared by division, since seats * cardsEach may overflow
+            if (cardsEach > size / seats) {
+                if (DeckMetrics.ENABLED) {
+                    DeckMetrics.of(this.getClass()).exhausted();
+                }
+                return null;
+            }
+            int total = seats * cardsEach;
+            if (r.compareAndSet(size, size - total)) {
+                Card[][] hands = new Card[seats][cardsEach];
+                for (int i = 0; i < total; i++) {
+                    hands[i % seats][i / seats] = Card.fromIndex(r._cards[size - 1 - i]);
+                }
+                return hands;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cards currently contained in the deck.
+     *
+     * @return number of cards in the deck
+     */
+    @Override
+    public int getSize() {
+        for (;;) {
+            int size = _round.get().get();
+            if (size != ConcurrentDeck.RETIRED) {
+                return size;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Returns a copy of the card indices currently in the deck, bottom card first.
+     * The cards below the cursor of a round are never modified, so the copy is consistent even if
+     * cards are dealt while it is being made.
+     *
+     * @return snapshot of the card indices in the deck
+     */
+    private byte[] snapshot() {
+        for (;;) {
+            Round r = _round.get();
+            int size = r.get();
+            if (size != ConcurrentDeck.RETIRED) {
+                return Arrays.copyOf(r._cards, size);
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the cards in the deck, taken from a snapshot of the deck.
+     *
+     * @return <code>String</code> representation of the cards in the deck
+     */
+    @Override
+    public String toString() {
+        // Construct the string in 'reverse' order to make it appear the deck is in 'natural' order (i.e.,
+        // cards being dealt from front of deck).  This is done to comply with principle of 'least surprise'.
+        byte[] cards = this.snapshot();
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int i = cards.length - 1; i >= 0; i--) {
+            sb.append(Card.fromIndex(cards[i]).toString());
+            if (i != 0) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Compares the specified object with this ConcurrentDeck for equality.  Returns
+     * <tt>true</tt> if and only if the specified object is also a ConcurrentDeck, and snapshots of
+     * both decks contain the same cards in the same order.
+     *
+     * @param obj the object to be compared for equality with this ConcurrentDeck
+     * @return <tt>true</tt> if the specified object is equal to this ConcurrentDeck, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        // short-cut optimization
+        if (this == obj) {
+            return true;
+        }
+
+        // type check, also handles null reference
+        if (!(obj instanceof ConcurrentDeck)) {
+            return false;
+        }
+
+        return Arrays.equals(this.snapshot(), ((ConcurrentDeck) obj).snapshot());
+    }
+
+    /**
+     * Returns the hash code value for a snapshot of this deck.
+     * The hash code is computed from the Zobrist hash of the order of the cards (see <code>Zobrist</code>),
+     * so that it matches the hash code of a <code>Deck</code> holding the same cards in the same order.
+     *
+     * @return the hash code value for this deck
+     */
+    @Override
+    public int hashCode() {
+        byte[] cards = this.snapshot();
+        return Zobrist.toHashCode(Zobrist.hash(cards, cards.length));
+    }
+
+    /**
+     * Restores the transient state of a deserialized deck.
+     *
+     * @param in stream to read the deck from
+     * @throws IOException if the deck cannot be read
+     * @throws ClassNotFoundException if a class of a serialized object cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _rand = RandomGenerators.defaultGenerator();
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ *    File: DealJournal.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only journal of shuffles and deals, for audit and replay.  Every shuffle, every dealt card, and every card
+ * removed from a deck (e.g., a dead card, see <code>IDeck.remove()</code>) is written
+ * as a fixed-size binary record to a memory-mapped segment file, so recording a deal is a handful of stores into
+ * the page cache: it neither allocates nor makes a system call.
+ * <p>
+ * A journal is a series of segment files named <code><i>name</i>.<i>nnnnnnnn</i>.journal</code> in one directory.
+ * Each segment starts with an 8-byte header (magic number and version) and holds up to a fixed number of
+ * <code>RECORD_SIZE</code>-byte records:
+ * <pre>
+ *     byte  type (1 = shuffle, 2 = deal, 3 = remove; 0 marks the end of the records written)
+ *     byte  card index (deal and remove only, see <code>Card.getIndex()</code>)
+ *     short reserved
+ *     int   table id
+ *     long  epoch of the deck
+ *     long  seed of the shuffle (shuffle only)
+ * </pre>
+ * When a segment is full the journal moves on to the next one.  Opening an existing journal appends after its
+ * last record.
+ * <p>
+ * A deck is journaled per <i>epoch</i>: from one shuffle to the next.  For the journal to be replayed, the deck of
+ * an epoch must be the one returned by <code>shuffledDeck(seed)</code> for the seed recorded by
+ * <code>recordShuffle()</code> (<code>shuffle()</code> does both), and every card dealt from it or removed from it
+ * must be recorded, in order (<code>deal()</code> and <code>remove()</code> do both).  Removing a card moves
+ * another card into its place, so a removal that is not recorded changes the cards dealt after it.
+ * <code>DealJournalReader</code> then rebuilds each deck from its seed, replays the removals, and checks it
+ * against the recorded deals.
+ * <p>
+ * Records reach the file when the operating system writes back the mapped pages; <code>flush()</code> forces
+ * them to the storage device.  <b>NOTE:</b> This class is not thread safe; each thread should own its own
+ * journal, or calls must be synchronized externally.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DealJournal implements Closeable {
+
+    /**
+     * Size, in bytes, of each record.
+     */
+    public static final int RECORD_SIZE = 24;
+    /**
+     * Default number of records per segment (24 MB segments).
+     */
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+
+    static final int MAGIC = 0x444A524E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final byte SHUFFLE = 1;
+    static final byte DEAL = 2;
+    static final byte REMOVE = 3;
+    private static final String SUFFIX = ".journal";
+
+    /**
+     * Directory holding the segments.
+     */
+    private final Path _directory;
+    /**
+     * Name of the journal, the prefix of the segment files.
+     */
+    private final String _name;
+    /**
+     * Size of a segment file, in bytes.
+     */
+    private final int _segmentSize;
+    /**
+     * Index of the current segment.
+     */
+    private int _segment;
+    /**
+     * The mapped current segment, positioned after its last record, or <code>null</code> once closed.
+     */
+    private MappedByteBuffer _buffer;
+
+
+    /**
+     * Opens the journal with the given name in the given directory, with segments of
+     * <code>DEFAULT_SEGMENT_RECORDS</code> records.
+     *
+     * @param directory directory of the segment files, which must exist
+     * @param name      name of the journal
+     * @throws IOException if the journal cannot be opened
+     */
+    public DealJournal(final Path directory, final String name) throws IOException {
+        this(directory, name, DealJournal.DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Opens the journal with the given name in the given directory.  If the journal exists, records are appended
+     * after its last record.  This constructor will throw a <code>NullPointerException</code> if the directory or
+     * name is <code>null</code>.
+     *
+     * @param directory      directory of the segment files, which must exist
+     * @param name           name of the journal
+     * @param segmentRecords number of records per segment
+     * @throws IllegalArgumentException if <code>name</code> is empty or <code>segmentRecords</code> is not
+     *                                  positive or too large for a segment file to be mapped
+     * @throws IOException              if the journal cannot be opened, or a segment is not a journal segment
+     */
+    public DealJournal(final Path directory, final String name, final int segmentRecords) throws IOException {
+        if (directory == null) {
+            throw new NullPointerException("directory is null");
+        }
+        if (name == null) {
+            throw new NullPointerException("name is null");
+        }
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("name is empty");
+        }
+        if (segmentRecords <= 0
+                || segmentRecords > (Integer.MAX_VALUE - DealJournal.HEADER_SIZE) / DealJournal.RECORD_SIZE) {
+            throw new IllegalArgumentException("invalid number of records per segment: " + segmentRecords);
+        }
+        _directory = directory;
+        _name = name;
+        _segmentSize = DealJournal.HEADER_SIZE + segmentRecords * DealJournal.RECORD_SIZE;
+
+        List<Path> segments = DealJournal.segments(directory, name);
+        if (segments.isEmpty()) {
+            this.openSegment(0);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            _segment = DealJournal.segmentIndex(last, name);
+            try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // a segment keeps the size with which it was created
+                _buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+            DealJournal.checkHeader(_buffer, last);
+            int position = DealJournal.HEADER_SIZE;
+            while (position + DealJournal.RECORD_SIZE <= _buffer.limit() && _buffer.get(position) != 0) {
+                position += DealJournal.RECORD_SIZE;
+            }
+            _buffer.position(position);
+        }
+    }
+
+    /**
+     * Returns a new deck shuffled with the given seed.  The journal is replayed with this method, so the deck of
+     * a journaled epoch must be created by it.
+     *
+     * @param seed seed of the shuffle
+     * @return the shuffled deck
+     */
+    public static Deck shuffledDeck(final long seed) {
+        Deck deck = new Deck(new Xoshiro256StarStar(seed));
+        deck.shuffle();
+        return deck;
+    }
+
+    /**
+     * Starts a new epoch of a table: records its shuffle and returns the shuffled deck.
+     *
+     * @param tableId id of the table
+     * @param epoch   epoch of the deck, e.g., the number of times the table's deck has been shuffled
+     * @param seed    seed of the shuffle
+     * @return the deck shuffled with the seed (see <code>shuffledDeck()</code>)
+     * @throws IOException if a new segment cannot be created
+     */
+    public Deck shuffle(final int tableId, final long epoch, final long seed) throws IOException {
+        this.recordShuffle(tableId, epoch, seed);
+        return DealJournal.shuffledDeck(seed);
+    }
+
+    /**
+     * Deals one card from the given deck and records it.
+     *
+     * @param tableId id of the table
+     * @param epoch   epoch of the deck
+     * @param deck    the deck of the table
+     * @return the card dealt, or <code>null</code> if the deck is empty (in which case nothing is recorded)
+     * @throws IOException if a new segment cannot be created
+     */
+    public Card deal(final int tableId, final long epoch, final IDeck deck) throws IOException {
+        Card card = deck.dealOneCard();
+        if (card != null) {
+            this.recordDeal(tableId, epoch, card);
+        }
+        return card;
+    }
+
+    /**
+     * Removes the given card from the given deck and records the removal.
+     *
+     * @param tableId id of the table
+     * @param epoch   epoch of the deck
+     * @param deck    the deck of the table
+     * @param card    the card to remove
+     * @return <tt>true</tt> if the card was removed, <tt>false</tt> if the deck did not hold it (in which case
+     * nothing is recorded)
+     * @throws IOException if a new segment cannot be created
+     */
+    public boolean remove(final int tableId, final long epoch, final IDeck deck, final Card card) throws IOException {
+        if (card == null) {
+            throw new NullPointerException("card is null");
+        }
+        boolean removed = deck.remove(card);
+        if (removed) {
+            this.recordRemove(tableId, epoch, card);
+        }
+        return removed;
+    }
+
+    /**
+     * Records the shuffle that starts an epoch of a table.
+     *
+     * @param tableId id of the table
+     * @param epoch   epoch of the deck
+     * @param seed    seed with which the deck was shuffled (see <code>shuffledDeck()</code>)
+     * @throws IOException if a new segment cannot be created
+     */
+    public void recordShuffle(final int tableId, final long epoch, final long seed) throws IOException {
+        this.append(DealJournal.SHUFFLE, 0, tableId, epoch, seed);
+    }
+
+    /**
+     * Records a card dealt from the deck of a table.
+     *
+     * @param tableId id of the table
+     * @param epoch   epoch of the deck
+     * @param card    the card dealt
+     * @throws IOException if a new segment cannot be created
+     */
+    public void recordDeal(final int tableId, final long epoch, final Card card) throws IOException {
+        if (card == null) {
+            throw new NullPointerException("card is null");
+        }
+        this.append(DealJournal.DEAL, card.getIndex(), tableId, epoch, 0L);
+    }
+
+    /**
+     * Records a card removed from the deck of a table.
+     *
+     * @param tableId id of the table
+     * @param epoch   epoch of the deck
+     * @param card    the card removed
+     * @throws IOException if a new segment cannot be created
+     */
+    public void recordRemove(final int tableId, final long epoch, final Card card) throws IOException {
+        if (card == null) {
+            throw new NullPointerException("card is null");
+        }
+        this.append(DealJournal.REMOVE, card.getIndex(), tableId, epoch, 0L);
+    }
+
+    /**
+     * Forces the records written so far to the storage device.
+     */
+    public void flush() {
+        this.buffer().force();
+    }
+
+    /**
+     * Flushes and closes the journal.  The mapping of the last segment is released when it is garbage collected.
+     */
+    @Override
+    public void close() {
+        if (_buffer != null) {
+            _buffer.force();
+            _buffer = null;
+        }
+    }
+
+    private void append(final byte type, final int card, final int tableId, final long epoch, final long seed)
+            throws IOException {
+        MappedByteBuffer buffer = this.buffer();
+        if (buffer.remaining() < DealJournal.RECORD_SIZE) {
+            buffer.force();
+            this.openSegment(_segment + 1);
+            buffer = _buffer;
+        }
+        // the type is written last, so a record is only seen by a reader once it is complete
+        int position = buffer.position();
+        buffer.put(position + 1, (byte) card)
+                .putShort(position + 2, (short) 0)
+                .putInt(position + 4, tableId)
+                .putLong(position + 8, epoch)
+                .putLong(position + 16, seed)
+                .put(position, type);
+        buffer.position(position + DealJournal.RECORD_SIZE);
+    }
+
+    private MappedByteBuffer buffer() {
+        if (_buffer == null) {
+            throw new IllegalStateException("journal is closed");
+        }
+        return _buffer;
+    }
+
+    /**
+     * Creates and maps the segment with the given index.
+     */
+    private void openSegment(final int index) throws IOException {
+        Path path = DealJournal.segmentPath(_directory, _name, index);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // mapping beyond the end of the file extends it with zeroes, which mark the end of the records
+            _buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, _segmentSize);
+        }
+        _buffer.putInt(DealJournal.MAGIC).putInt(DealJournal.VERSION);
+        _segment = index;
+    }
+
+    /**
+     * Returns the path of the segment with the given index.
+     */
+    static Path segmentPath(final Path directory, final String name, final int index) {
+        return directory.resolve(String.format("%s.%08d%s", name, index, DealJournal.SUFFIX));
+    }
+
+    /**
+     * Returns the segments of the given journal, in order.
+     */
+    static List<Path> segments(final Path directory, final String name) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path p : stream) {
+                if (DealJournal.segmentIndex(p, name) >= 0) {
+                    segments.add(p);
+                }
+            }
+        }
+        // the indices are zero-padded, so the names sort in segment order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Returns the index of the given segment of the given journal, or -1 if the path is not such a segment.
+     */
+    private static int segmentIndex(final Path path, final String name) {
+        String fileName = path.getFileName().toString();
+        int length = name.length() + 1 + 8 + DealJournal.SUFFIX.length();
+        if (fileName.length() != length || !fileName.startsWith(name + ".")
+                || !fileName.endsWith(DealJournal.SUFFIX)) {
+            return -1;
+        }
+        String digits = fileName.substring(name.length() + 1, name.length() + 9);
+        for (int i = 0; i < digits.length(); i++) {
+            if (digits.charAt(i) < '0' || digits.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(digits);
+    }
+
+    /**
+     * Checks the header of a mapped segment.
+     */
+    static void checkHeader(final MappedByteBuffer buffer, final Path path) throws IOException {
+        if (buffer.limit() < DealJournal.HEADER_SIZE || buffer.getInt(0) != DealJournal.MAGIC) {
+            throw new IOException(path + " is not a journal segment");
+        }
+        if (buffer.getInt(4) != DealJournal.VERSION) {
+            throw new IOException(path + " has unsupported version " + buffer.getInt(4));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ *    File: DealJournalReader.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader that replays a <code>DealJournal</code> to rebuild the exact state of the decks it records.  The deck of
+ * each epoch is rebuilt from the seed of its shuffle (see <code>DealJournal.shuffledDeck()</code>), every recorded
+ * removal is removed from it, and every recorded deal is dealt from it and checked against the recorded card, so
+ * replaying a journal also verifies it.
+ * The segments are read through read-only memory mappings.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DealJournalReader {
+
+    /**
+     * Directory holding the segments.
+     */
+    private final Path _directory;
+    /**
+     * Name of the journal.
+     */
+    private final String _name;
+
+
+    /**
+     * Constructs a reader of the journal with the given name in the given directory.  This constructor will throw
+     * a <code>NullPointerException</code> if the directory or name is <code>null</code>.
+     *
+     * @param directory directory of the segment files
+     * @param name      name of the journal
+     */
+    public DealJournalReader(final Path directory, final String name) {
+        if (directory == null) {
+            throw new NullPointerException("directory is null");
+        }
+        if (name == null) {
+            throw new NullPointerException("name is null");
+        }
+        _directory = directory;
+        _name = name;
+    }
+
+    /**
+     * Replays the whole journal.
+     *
+     * @return the deck of each table as of the last record of the journal, by table id
+     * @throws IOException if the journal cannot be read, or does not match the replayed decks
+     */
+    public Map<Integer, Deck> replay() throws IOException {
+        return this.replay(0, 0L, true);
+    }
+
+    /**
+     * Replays the journal of one table up to the end of the given epoch.
+     *
+     * @param tableId id of the table
+     * @param epoch   epoch of the deck
+     * @return the deck of the table as of the last deal of the epoch, or <code>null</code> if the journal does
+     * not record that epoch
+     * @throws IOException if the journal cannot be read, or does not match the replayed decks
+     */
+    public Deck replay(final int tableId, final long epoch) throws IOException {
+        return this.replay(tableId, epoch, false).get(tableId);
+    }
+
+    /**
+     * Replays the records of every table, or of the given table up to the end of the given epoch.
+     */
+    private Map<Integer, Deck> replay(final int tableId, final long epoch, final boolean allTables)
+            throws IOException {
+        Map<Integer, Deck> decks = new HashMap<>();
+        Map<Integer, Long> epochs = new HashMap<>();
+        for (Path path : DealJournal.segments(_directory, _name)) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            DealJournal.checkHeader(buffer, path);
+            for (int p = DealJournal.HEADER_SIZE; p + DealJournal.RECORD_SIZE <= buffer.limit();
+                 p += DealJournal.RECORD_SIZE) {
+                byte type = buffer.get(p);
+                if (type == 0) {
+                    break;
+                }
+                int table = buffer.getInt(p + 4);
+                if (!allTables && table != tableId) {
+                    continue;
+                }
+                long recordEpoch = buffer.getLong(p + 8);
+                Long current = epochs.get(table);
+                if (type == DealJournal.SHUFFLE) {
+                    if (!allTables && current != null && current == epoch) {
+                        // the requested epoch has ended
+                        return decks;
+                    }
+                    decks.put(table, DealJournal.shuffledDeck(buffer.getLong(p + 16)));
+                    epochs.put(table, recordEpoch);
+                } else if (type == DealJournal.DEAL || type == DealJournal.REMOVE) {
+                    String operation = type == DealJournal.DEAL ? "deal from" : "removal from";
+                    if (current == null || current != recordEpoch) {
+                        throw new IOException(path + " at " + p + ": " + operation + " table " + table + ", epoch "
+                                + recordEpoch + ", without a shuffle");
+                    }
+                    int index = buffer.get(p + 1);
+                    if (index < 0 || index >= Card.NUM_CARDS) {
+                        throw new IOException(path + " at " + p + ": invalid card " + index);
+                    }
+                    if (type == DealJournal.REMOVE) {
+                        if (!decks.get(table).remove(Card.fromIndex(index))) {
+                            throw new IOException(path + " at " + p + ": removal from table " + table + ", epoch "
+                                    + recordEpoch + ", of a card that is not in the replayed deck");
+                        }
+                        continue;
+                    }
+                    Card card = decks.get(table).dealOneCard();
+                    if (card == null || card.getIndex() != index) {
+                        throw new IOException(path + " at " + p + ": deal from table " + table + ", epoch "
+                                + recordEpoch + ", does not match the replayed deck");
+                    }
+                } else {
+                    throw new IOException(path + " at " + p + ": unknown record type " + type);
+                }
+            }
+        }
+        if (!allTables) {
+            Long current = epochs.get(tableId);
+            if (current == null || current != epoch) {
+                decks.clear();
+            }
+        }
+        return decks;
+    }
+}
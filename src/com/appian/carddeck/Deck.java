@@ -4,12 +4,15 @@
  */
 package com.appian.carddeck;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -18,6 +21,7 @@ import java.util.logging.Logger;
  * It has been designed with a couple of extension points, namely the <code>getCards()</code> method,
  * which gives access to the underlying <code>List</code> representation of the deck, and the
  * <code>populateDeck()</code> method, which allows for the creation of multi-deck 'shoes'.
+ * (For blackjack-style shoes with a cut card, see <code>com.appian.carddeck.Shoe</code>.)
  * <b>NOTE:</b> This class is not thread safe, and is designed only for use in single-threaded applications.
  *
  * @author Robert Orr
@@ -26,29 +30,25 @@ import java.util.logging.Logger;
 public class Deck implements IDeck, Serializable {
 
     // TODO: make class thread-safe
-    // TODO: expose more methods of underlying List, such as set(), get(), and contains() (probably as protected)
+    // TODO: expose more methods of underlying List, such as set() and get() (probably as protected)
 
     private static final long serialVersionUID = -6045156575809251722L;
     /**
-     * Comparator for 'natural' ordering of deck.
+     * Class logger, shared by all decks.
      */
-    private static final Comparator<Card> compNaturalOrder = (c1, c2) -> {
-        // sort by suit first, then by rank within suit
-        int result = c1.getSuit().compareTo(c2.getSuit());
-        if (result == 0) {
-            result = c1.getRank().compareTo(c2.getRank());
-        }
-        return result;
-    };
+    private static final Logger LOG = Logger.getLogger(Deck.class.getName());
     /**
-     * Comparator for 'reverse' ordering of deck.
+     * Enables tracing of individual card swaps during <code>shuffle()</code>, which is useful when debugging
+     * a shuffle but far too expensive for normal use.  Because the flag is a constant, the JIT compiler removes
+     * the tracing code entirely when it is off.  Set the system property <code>com.appian.carddeck.trace</code>
+     * to <code>true</code> to enable it (the logger must also be at level <code>FINER</code>).
      */
-    private static final Comparator<Card> compReverseOrder = Collections.reverseOrder(Deck.compNaturalOrder);
-
+    private static final boolean TRACE = Boolean.getBoolean("com.appian.carddeck.trace");
     /**
-     * Class logger instance.
+     * Typical number of characters per card in <code>toString()</code>, used to size its buffer.
      */
-    private final transient Logger _log;
+    static final int CHARS_PER_CARD = 18;
+
     /**
      * List that contains cards for deck.
      * NOTE: Because cards are dealt from the end of the list (for efficiency),
@@ -57,27 +57,108 @@ public class Deck implements IDeck, Serializable {
      * is at the end of the list).
      */
     private final List<Card> _cards;
+    /**
+     * Bit mask of the cards dealt since the deck was last populated (see <code>CardSet</code>).
+     */
+    private long _dealt;
+    /**
+     * Indicates that the deck has been shuffled lazily (see <code>shuffleLazily()</code>): the remaining cards are
+     * still in their previous order, and each deal draws a random card from them.
+     */
+    private boolean _shufflePending;
+    /**
+     * Number of shuffles since the deck was last populated, or -1 if the deck cannot be rebuilt from a
+     * <code>DeckState</code> (it has been sorted, shuffled after a deal, or had cards removed since it was last
+     * populated).
+     */
+    private int _shufflesSinceReset;
+    /**
+     * Zobrist hash of the order of the cards (see <code>Zobrist</code>), if <code>_hashValid</code> is set.  It is
+     * updated as cards are dealt, and recomputed when it is needed after a shuffle or sort.
+     */
+    private transient long _hash;
+    /**
+     * Indicates that <code>_hash</code> is up to date.
+     */
+    private transient boolean _hashValid;
+    /**
+     * Inverse of <code>_cards</code>: the position of each card in the list, by card index, if
+     * <code>_positionsValid</code> is set (see <code>positionOf()</code>).  It is built when a card is first looked
+     * up after a shuffle or sort, and kept up to date as cards are dealt and removed.
+     */
+    private transient int[] _positions;
+    /**
+     * Indicates that <code>_positions</code> is up to date.
+     */
+    private transient boolean _positionsValid;
+    /**
+     * Number of times <code>populateDeck()</code> has added cards since the deck was last empty; if it is more
+     * than 1, the deck may hold several copies of a card.
+     */
+    private int _deckCount;
     /**
      * Pseudo-random number generator.
+     * NOTE: Only the state of <code>SplitMix64</code> and <code>Xoshiro256StarStar</code> generators is part of the
+     * serialized form (see <code>DeckCodec</code>); a deck with any other generator is deserialized with a new
+     * default generator.
      */
-    private final Random _rand;
+    private transient IRandomGenerator _rand;
 
 
     /**
      * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits.
      * The card deck is represented as a <code>List</code> of <code>Cards</code>.
+     * The deck is shuffled with the default generator (see <code>RandomGenerators.defaultGenerator()</code>).
      */
     public Deck() {
-        _log = Logger.getAnonymousLogger();
+        this(RandomGenerators.defaultGenerator());
+    }
 
-        // To get repeatable sequences for debugging, use seed = 0
-        long seed = System.currentTimeMillis();
-        _rand = new Random(seed);
+    /**
+     * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits, that is shuffled
+     * with the given random number generator.  To get repeatable sequences for debugging, use a generator
+     * with a fixed seed (e.g., <code>RandomGenerators.xoshiro256StarStar(0)</code>).
+     * This constructor will throw a <code>NullPointerException</code> if the generator is <code>null</code>.
+     *
+     * @param rand random number generator used by <code>shuffle()</code>
+     */
+    public Deck(final IRandomGenerator rand) {
+        if (rand == null) {
+            throw new NullPointerException("random number generator is null");
+        }
+        _rand = rand;
 
-        _cards = new ArrayList<>(Rank.values().length * Suit.values().length);
+        _cards = new ArrayList<>(Card.NUM_CARDS);
         this.populateDeck();
     }
 
+    /**
+     * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits, whose shuffles are
+     * determined by the given seed.  Each shuffle draws from its own stream of a counter-based generator, so the
+     * state of the deck can be captured with <code>getState()</code> and rebuilt with <code>setState()</code>.
+     *
+     * @param seed seed of the shuffles
+     */
+    public Deck(final long seed) {
+        this(new SplitMix64(seed));
+    }
+
+    /**
+     * Rebuilds a deck from its state.
+     *
+     * @param state state of a deck constructed with a seed
+     * @return a new deck in the given state
+     * @throws IllegalArgumentException if more cards have been dealt than the deck holds
+     */
+    public static Deck fromState(final DeckState state) {
+        if (state == null) {
+            throw new NullPointerException("state is null");
+        }
+        Deck deck = new Deck(state.getSeed());
+        deck.setState(state);
+        return deck;
+    }
+
     /**
      * Adds 52 cards to the deck, 13 from each of the canonical suits.
      * This method can be used by extending classes to create a 'shoe' that contains multiples of 52 cards.
@@ -85,50 +166,213 @@ public class Deck implements IDeck, Serializable {
     protected void populateDeck() {
         // Insert cards in 'reverse' order to make deal operation compliant with principle of 'least surprise'.
         // I.e., since cards are dealt from the end of the list, they must be inserted in reverse order.
-        Suit[] suitArray = Suit.values();
-        Rank[] rankArray = Rank.values();
-        for (int s = suitArray.length - 1; s >= 0; s--) {
-            for (int r = rankArray.length - 1; r >= 0; r--) {
-                _cards.add(new Card(rankArray[r], suitArray[s]));
+        // Cards are pulled from the cache, so no new objects are created.
+        if (_cards.isEmpty()) {
+            _hash = 0L;
+            _hashValid = true;
+            _deckCount = 0;
+        }
+        _deckCount++;
+        _positionsValid = false;
+        for (int i = Card.NUM_CARDS - 1; i >= 0; i--) {
+            if (_hashValid) {
+                _hash ^= Zobrist.key(_cards.size(), i);
             }
+            _cards.add(Card.fromIndex(i));
         }
+        _dealt = 0L;
+        _shufflePending = false;
+        _shufflesSinceReset = 0;
     }
 
     /**
      * Empties the deck of any remaining cards and repopulates it with 52 cards.
      */
+    @Override
     public void reset() {
+        long start = DeckMetrics.ENABLED ? System.nanoTime() : 0L;
+        Object event = DeckMetrics.ENABLED ? DeckMetrics.beginReset() : null;
         _cards.clear();
         this.populateDeck();
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).reset(start, event, _cards.size());
+        }
     }
 
     /**
-     * Sorts the card deck into a conventional 'ordered' representation.
-     * Uses <code>List.sort()</code> to sort the underlying list.
-     * A custom <code>Comparator</code> that uses both <code>Rank</code> and <code>Suit</code>
-     * is used for the sort, so that the cards can be grouped by <code>Suit</code>, and
-     * then sorted within <code>Suit</code>.
+     * Sorts the card deck into a conventional 'ordered' representation (grouped by <code>Suit</code>, and
+     * then sorted by <code>Rank</code> within <code>Suit</code>).  Because the card index already follows
+     * this order, the cards are sorted by a counting sort of their indices in <i>O(n)</i> time, with no
+     * comparisons: the copies of each card are counted, and the list is then overwritten with the cached
+     * cards in order.  This works equally well for a multi-deck 'shoe'.
      */
     public void sort() {
-        // Sort using 'reverse' order comparator to comply with principle of 'least surprise'
-        _cards.sort(Deck.compReverseOrder);
+        _shufflePending = false;
+        _shufflesSinceReset = -1;
+        _hashValid = false;
+        _positionsValid = false;
+        int[] counts = new int[Card.NUM_CARDS];
+        for (Card c : _cards) {
+            counts[c.getIndex()]++;
+        }
+        // Sort in 'reverse' order to comply with principle of 'least surprise'
+        int position = 0;
+        for (int i = Card.NUM_CARDS - 1; i >= 0; i--) {
+            Card c = Card.fromIndex(i);
+            for (int n = counts[i]; n > 0; n--) {
+                _cards.set(position++, c);
+            }
+        }
     }
 
     /**
      * Shuffles the deck of cards.  Implements the <code>com.appian.carddeck.IDeck.shuffle()</code> method.
      * Uses the <i>Durstenfeld</i> version of the <i>Fisher-Yates</i> shuffle.  The shuffle occurs in <i>O(n)</i> time,
-     * and because it swaps cards 'in place', it does not require additional memory.
+     * and because it swaps cards 'in place', it does not require additional memory (i.e., it does not allocate).
      */
     @Override
     public void shuffle() {
+        long start = DeckMetrics.ENABLED ? System.nanoTime() : 0L;
+        Object event = DeckMetrics.ENABLED ? DeckMetrics.beginShuffle() : null;
+        this.startShuffle();
+        _shufflePending = false;
         for (int i = _cards.size() - 1; i > 0; i--) {
             // Choose card to swap with index card
-            int j = _rand.nextInt(i); // 0 <= j < i
-            _log.finer("swapping cards " + i + " and " + j);
+            int j = _rand.nextInt(i + 1); // 0 <= j <= i
+            if (Deck.TRACE && Deck.LOG.isLoggable(Level.FINER)) {
+                Deck.LOG.finer("swapping cards " + i + " and " + j);
+            }
             Card temp = _cards.get(j);
             _cards.set(j, _cards.get(i));
             _cards.set(i, temp);
         }
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).shuffled(start, event, _cards.size());
+        }
+    }
+
+    /**
+     * Shuffles the deck lazily: rather than permuting all of the cards now, each subsequent deal draws a random
+     * card from the cards that remain and swaps it to the end of the list, which is one step of a
+     * <i>Fisher-Yates</i> shuffle.  Only the cards that are actually dealt cost a random number, and the dealt
+     * cards are as uniformly distributed as after a full shuffle.  If the order of the remaining cards is
+     * observed (e.g., by <code>toString()</code>, <code>equals()</code>, or <code>getCards()</code>) before the
+     * deck is dealt out, the shuffle of the remaining cards is completed first.  The lazy shuffle ends when the
+     * deck is shuffled, sorted, or reset.
+     */
+    public void shuffleLazily() {
+        this.startShuffle();
+        _shufflePending = true;
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).shuffledLazily();
+        }
+    }
+
+    /**
+     * Counts a shuffle, and starts the next stream of a seeded generator.
+     */
+    private void startShuffle() {
+        // a shuffle can only be replayed if no card has been dealt, and no lazy shuffle abandoned, before it
+        if (_dealt != 0L || _shufflePending) {
+            _shufflesSinceReset = -1;
+        } else if (_shufflesSinceReset >= 0) {
+            _shufflesSinceReset++;
+        }
+        _hashValid = false;
+        _positionsValid = false;
+        if (_rand instanceof SplitMix64) {
+            ((SplitMix64) _rand).nextStream();
+        }
+    }
+
+    /**
+     * Returns the state of the deck, from which <code>setState()</code> or <code>fromState()</code> rebuild it.
+     * The state is only defined for a deck constructed with a seed that, since it was last reset, has not been
+     * sorted or shuffled after a card was dealt.
+     *
+     * @return the state of the deck
+     * @throws IllegalStateException if the deck was not constructed with a seed, or cannot be rebuilt
+     */
+    public DeckState getState() {
+        if (!(_rand instanceof SplitMix64)) {
+            throw new IllegalStateException("deck was not constructed with a seed");
+        }
+        if (_shufflesSinceReset < 0) {
+            throw new IllegalStateException("deck has been sorted, reshuffled, or had cards removed since it was "
+                    + "last reset");
+        }
+        SplitMix64 rand = (SplitMix64) _rand;
+        return new DeckState(rand.getSeed(), rand.getStreamCount(), _shufflesSinceReset, Long.bitCount(_dealt));
+    }
+
+    /**
+     * Puts the deck in the given state: the generator jumps directly to the first shuffle since the reset, so
+     * only the shuffles since the reset are replayed, and the dealt cards are dealt again.
+     *
+     * @param state state of a deck constructed with a seed
+     * @throws IllegalStateException    if the deck was not constructed with a seed
+     * @throws IllegalArgumentException if more cards have been dealt than the deck holds
+     */
+    public void setState(final DeckState state) {
+        if (state == null) {
+            throw new NullPointerException("state is null");
+        }
+        if (!(_rand instanceof SplitMix64)) {
+            throw new IllegalStateException("deck was not constructed with a seed");
+        }
+        this.reset();
+        if (state.getCursor() > _cards.size()) {
+            throw new IllegalArgumentException("invalid cursor: " + state.getCursor());
+        }
+        ((SplitMix64) _rand).jump(state.getSeed(), state.getShuffleCount() - state.getShufflesSinceReset() - 1);
+        for (int i = 0; i < state.getShufflesSinceReset(); i++) {
+            this.shuffle();
+        }
+        for (int i = 0; i < state.getCursor(); i++) {
+            this.dealOneCard();
+        }
+    }
+
+    /**
+     * Shuffles the deck lazily and deals up to <code>n</code> cards from it, drawing exactly one random number
+     * for each card dealt.  Overrides the default <code>com.appian.carddeck.IDeck.shuffleAndDeal()</code> method.
+     *
+     * @param n number of cards to deal
+     * @return the dealt cards
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    @Override
+    public Card[] shuffleAndDeal(final int n) {
+        this.shuffleLazily();
+        return this.dealCards(n);
+    }
+
+    /**
+     * Completes a lazy shuffle with a <i>Fisher-Yates</i> shuffle of the remaining cards, so that their order can
+     * be observed.
+     */
+    private void completeShuffle() {
+        if (_shufflePending) {
+            _shufflePending = false;
+            _positionsValid = false;
+            for (int i = _cards.size() - 1; i > 0; i--) {
+                this.drawInto(i);
+            }
+        }
+    }
+
+    /**
+     * Draws a random card from the first <code>i + 1</code> cards and swaps it into position <code>i</code>
+     * (one step of a lazy shuffle).
+     */
+    private void drawInto(final int i) {
+        int j = _rand.nextInt(i + 1); // 0 <= j <= i
+        Card temp = _cards.get(j);
+        _cards.set(j, _cards.get(i));
+        _cards.set(i, temp);
+        if (_positionsValid) {
+            _positions[_cards.get(j).getIndex()] = j;
+        }
     }
 
     /**
@@ -145,26 +389,173 @@ public class Deck implements IDeck, Serializable {
     public Card dealOneCard() {
         Card c = null;
         if (_cards.size() > 0) {
+            if (_shufflePending) {
+                this.drawInto(_cards.size() - 1);
+            }
             c = _cards.remove(_cards.size() - 1);
+            _dealt |= CardSet.maskOf(c);
+            if (_hashValid) {
+                _hash ^= Zobrist.key(_cards.size(), c.getIndex());
+            }
+        } else if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).exhausted();
         }
         return c;
     }
 
+    /**
+     * Deals up to <code>n</code> cards from the deck into <code>dst</code>.  Overrides the default
+     * <code>com.appian.carddeck.IDeck.dealInto()</code> method.  The cards are copied from the end of the
+     * list and then removed with a single range operation, so no list elements are shifted.
+     *
+     * @param dst array to deal the cards into
+     * @param off index of <code>dst</code> at which to store the first card
+     * @param n   number of cards to deal
+     * @return the number of cards dealt
+     */
+    @Override
+    public int dealInto(final Card[] dst, final int off, final int n) {
+        if (off < 0 || n < 0 || off > dst.length - n) {
+            throw new IndexOutOfBoundsException("off: " + off + ", n: " + n + ", length: " + dst.length);
+        }
+        int size = _cards.size();
+        int count = Math.min(n, size);
+        for (int i = 0; i < count; i++) {
+            if (_shufflePending) {
+                this.drawInto(size - 1 - i);
+            }
+            Card c = _cards.get(size - 1 - i);
+            _dealt |= CardSet.maskOf(c);
+            if (_hashValid) {
+                _hash ^= Zobrist.key(size - 1 - i, c.getIndex());
+            }
+            dst[off + i] = c;
+        }
+        _cards.subList(size - count, size).clear();
+        if (DeckMetrics.ENABLED && count < n) {
+            DeckMetrics.of(this.getClass()).exhausted();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the set of cards that have been dealt (or removed) since the deck was last populated (e.g., by
+     * <code>reset()</code>).
+     *
+     * @return the dealt cards
+     */
+    public CardSet getDealtCards() {
+        return CardSet.fromMask(_dealt);
+    }
+
+    /**
+     * Indicates whether the deck holds the given card.  Implements the
+     * <code>com.appian.carddeck.IDeck.contains()</code> method.  The card is looked up in the inverse position
+     * index (see <code>positionOf()</code>), in <i>O(1)</i> time, rather than with <code>List.contains()</code>.
+     *
+     * @param c the card
+     * @return <tt>true</tt> if the deck holds the card, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean contains(final Card c) {
+        if (c == null) {
+            throw new NullPointerException("card is null");
+        }
+        return this.positionOf(c.getIndex()) >= 0;
+    }
+
+    /**
+     * Removes the given card from the deck.  Implements the <code>com.appian.carddeck.IDeck.remove()</code>
+     * method.  The card is found with the inverse position index (see <code>positionOf()</code>), replaced by the
+     * top card, and the top card is then removed from the end of the list, so removal runs in <i>O(1)</i> time
+     * rather than shifting the list as <code>List.remove()</code> would.  Like a dealt card, the removed card is
+     * in <code>getDealtCards()</code> afterwards.  A pending lazy shuffle is not disturbed.
+     *
+     * @param c the card to remove
+     * @return <tt>true</tt> if the card was removed, <tt>false</tt> if the deck did not hold it
+     */
+    @Override
+    public boolean remove(final Card c) {
+        if (c == null) {
+            throw new NullPointerException("card is null");
+        }
+        int position = this.positionOf(c.getIndex());
+        if (position < 0) {
+            return false;
+        }
+        int top = _cards.size() - 1;
+        Card topCard = _cards.remove(top);
+        if (_hashValid) {
+            _hash ^= Zobrist.key(position, c.getIndex());
+            if (position != top) {
+                _hash ^= Zobrist.key(top, topCard.getIndex()) ^ Zobrist.key(position, topCard.getIndex());
+            }
+        }
+        if (position != top) {
+            _cards.set(position, topCard);
+            _positions[topCard.getIndex()] = position;
+        }
+        _positions[c.getIndex()] = -1;
+        _dealt |= CardSet.maskOf(c);
+        _shufflesSinceReset = -1;
+        return true;
+    }
+
+    /**
+     * Returns the position of a copy of the given card in the list, or -1 if the deck does not hold it.  The
+     * position is looked up in the inverse position index, which is rebuilt (in <i>O(n)</i> time) if the deck has
+     * been shuffled or sorted since it was last used; a stale entry, e.g. of a dealt card, is detected by checking
+     * the card at the position.  The index records one copy of each card, so if the deck holds several copies
+     * (a 'shoe') and the recorded copy is gone, the list is searched for another.
+     */
+    private int positionOf(final int cardIndex) {
+        int size = _cards.size();
+        if (!_positionsValid) {
+            if (_positions == null) {
+                _positions = new int[Card.NUM_CARDS];
+            }
+            Arrays.fill(_positions, -1);
+            for (int i = 0; i < size; i++) {
+                _positions[_cards.get(i).getIndex()] = i;
+            }
+            _positionsValid = true;
+        }
+        int position = _positions[cardIndex];
+        if (position >= 0 && position < size && _cards.get(position).getIndex() == cardIndex) {
+            return position;
+        }
+        if (_deckCount > 1) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (_cards.get(i).getIndex() == cardIndex) {
+                    _positions[cardIndex] = i;
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * Returns the number of cards currently contained in the deck.
      *
      * @return number of cards in the deck
      */
+    @Override
     public int getSize() {
         return _cards.size();
     }
 
     /**
-     * Returns a <code>List</code> representation of the cards in the deck.
+     * Returns a <code>List</code> representation of the cards in the deck.  If the deck has been shuffled lazily,
+     * the shuffle is completed first.  Because the caller may change the list, the hash of the deck is
+     * recomputed the next time it is needed.
      *
      * @return <code>List</code> of cards in the deck
      */
     protected List<Card> getCards() {
+        this.completeShuffle();
+        _hashValid = false;
+        _positionsValid = false;
         return _cards;
     }
 
@@ -175,20 +566,49 @@ public class Deck implements IDeck, Serializable {
      */
     @Override
     public String toString() {
+        return this.appendTo(new StringBuilder(_cards.size() * Deck.CHARS_PER_CARD)).toString();
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the cards in the deck (see <code>toString()</code>) to
+     * <code>out</code>.  The names of the cards are cached, so nothing is allocated other than by
+     * <code>out</code> itself.
+     *
+     * @param out destination of the characters
+     * @throws IOException if <code>out</code> throws one
+     */
+    public void appendTo(final Appendable out) throws IOException {
         // Construct the string in 'reverse' order to make it appear the deck is in 'natural' order (i.e.,
         // cards being dealt from front of deck).  This is done to comply with principle of 'least surprise'.
-        StringBuilder sb = new StringBuilder();
-        sb.append("[");
+        this.completeShuffle();
+        out.append('[');
         for (int i = _cards.size() - 1; i >= 0; i--) {
-            sb.append(_cards.get(i).toString());
+            out.append(_cards.get(i).toString());
             if (i != 0) {
-                sb.append(", ");
+                out.append(", ");
             }
         }
-        sb.append("]");
-        return sb.toString();
+        out.append(']');
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the cards in the deck (see <code>toString()</code>) to the given
+     * <code>StringBuilder</code>.
+     *
+     * @param sb destination of the characters
+     * @return <code>sb</code>
+     */
+    public StringBuilder appendTo(final StringBuilder sb) {
+        try {
+            this.appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // a StringBuilder never throws IOException
+            throw new IllegalStateException(e);
+        }
+        return sb;
     }
 
+
     /**
      * Compares the specified object with this Deck for equality.  Returns
      * <tt>true</tt> if and only if the specified object is also a Deck, both
@@ -196,9 +616,10 @@ public class Deck implements IDeck, Serializable {
      * the two Decks are <i>equal</i>.  (Two elements <tt>e1</tt> and
      * <tt>e2</tt> are <i>equal</i> if <tt>(e1==null ? e2==null :
      * e1.equals(e2))</tt>.)  In other words, two Decks are defined to be
-     * equal if they contain the same elements in the same order.  Defers
-     * to <code>List.equals()</code> to check equality between the underlying
-     * card lists.
+     * equal if they contain the same elements in the same order.  Decks of
+     * different sizes or hashes are unequal without comparing their cards;
+     * otherwise, defers to <code>List.equals()</code> to check equality between
+     * the underlying card lists.
      *
      * @param obj the object to be compared for equality with this Deck
      * @return <tt>true</tt> if the specified object is equal to this Deck, <tt>false</tt> otherwise
@@ -215,21 +636,132 @@ public class Deck implements IDeck, Serializable {
             return false;
         }
 
-        // Defer to List.equals(), which uses the equals() method of the individual elements of the list
         Deck d = (Deck) obj;
-        return _cards.equals(d.getCards());
+        if (_cards.size() != d._cards.size() || this.zobristHash() != d.zobristHash()) {
+            return false;
+        }
+        // Defer to List.equals(), which uses the equals() method of the individual elements of the list
+        return _cards.equals(d._cards);
     }
 
     /**
      * Returns the hash code value for this deck.
-     * This method defers to <code>List.hashCode()</code>, which uses the individual elements of the list
-     * to calculate the overall hash code.  That is, the hash code will be calculated using the hash codes
-     * of the individual cards in the deck.
+     * The hash code is derived from a Zobrist hash of the order of the cards (see <code>Zobrist</code>), which
+     * is updated in <i>O(1)</i> time as cards are dealt, and only recomputed after the deck has been shuffled or
+     * sorted.  It matches the hash code of a <code>PackedDeck</code> holding the same cards in the same order.
      *
      * @return the hash code value for this deck
      */
     @Override
     public int hashCode() {
-        return _cards.hashCode();
+        return Zobrist.toHashCode(this.zobristHash());
+    }
+
+    /**
+     * Returns the Zobrist hash of the order of the cards, completing a lazy shuffle and recomputing the hash if
+     * necessary.
+     */
+    private long zobristHash() {
+        this.completeShuffle();
+        if (!_hashValid) {
+            long hash = 0L;
+            for (int i = 0; i < _cards.size(); i++) {
+                hash ^= Zobrist.key(i, _cards.get(i).getIndex());
+            }
+            _hash = hash;
+            _hashValid = true;
+        }
+        return _hash;
+    }
+
+    /**
+     * Returns the random number generator of the deck.
+     *
+     * @return the generator
+     */
+    IRandomGenerator getRandomGenerator() {
+        return _rand;
+    }
+
+    /**
+     * Indicates whether the deck has been shuffled lazily and the shuffle has not yet been completed.
+     *
+     * @return <tt>true</tt> if a lazy shuffle is pending, <tt>false</tt> otherwise
+     */
+    boolean isShufflePending() {
+        return _shufflePending;
+    }
+
+    /**
+     * Returns the number of shuffles since the deck was last reset, or -1 if its state cannot be rebuilt (see
+     * <code>getState()</code>).
+     *
+     * @return the number of shuffles since the last reset
+     */
+    int getShufflesSinceReset() {
+        return _shufflesSinceReset;
+    }
+
+    /**
+     * Writes the card indices of the remaining cards, bottom card first, followed by those of the dealt cards
+     * (see <code>DeckCodec</code>).
+     *
+     * @param dst buffer to write the cards to
+     */
+    void writeCards(final ByteBuffer dst) {
+        for (Card c : _cards) {
+            dst.put((byte) c.getIndex());
+        }
+        for (long m = _dealt; m != 0; m &= m - 1) {
+            dst.put((byte) Long.numberOfTrailingZeros(m));
+        }
+    }
+
+    /**
+     * Replaces the cards of the deck with cards written by <code>writeCards()</code>.  The card indices must
+     * already have been validated.
+     *
+     * @param src                buffer to read the cards from
+     * @param size               number of remaining cards
+     * @param pending            <tt>true</tt> if a lazy shuffle is pending
+     * @param shufflesSinceReset number of shuffles since the last reset, or -1 if unknown
+     */
+    void readCards(final ByteBuffer src, final int size, final boolean pending, final int shufflesSinceReset) {
+        _cards.clear();
+        for (int i = 0; i < size; i++) {
+            _cards.add(Card.fromIndex(src.get()));
+        }
+        _dealt = 0L;
+        for (int i = size; i < Card.NUM_CARDS; i++) {
+            _dealt |= 1L << src.get();
+        }
+        _shufflePending = pending;
+        _shufflesSinceReset = shufflesSinceReset;
+        _hashValid = false;
+        _positionsValid = false;
+        _deckCount = 1;
+    }
+
+    /**
+     * Replaces the deck with its compact serialized form (see <code>DeckCodec</code>) when it is serialized.
+     * Extending classes are serialized with the default mechanism.
+     *
+     * @return the serialized form of the deck
+     * @throws ObjectStreamException never
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return DeckCodec.serializedForm(this);
+    }
+
+    /**
+     * Restores the transient state of a deserialized deck.
+     *
+     * @param in stream to read the deck from
+     * @throws IOException if the deck cannot be read
+     * @throws ClassNotFoundException if a class of a serialized object cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _rand = RandomGenerators.defaultGenerator();
     }
 }
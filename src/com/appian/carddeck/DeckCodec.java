@@ -0,0 +1,352 @@
+/*
+ *    File: DeckCodec.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary codec for <code>Deck</code>, <code>PackedDeck</code>, and <code>Shoe</code>, for checkpointing
+ * games and for audit.  A deck is encoded as a short header followed by one byte per card (the card index, see
+ * <code>Card.getIndex()</code>):
+ * <pre>
+ *     byte   magic (0xDC)
+ *     byte   version (2)
+ *     byte   type (1 = Deck, 2 = PackedDeck, 3 = Shoe)
+ *     byte   flags (1 = lazy shuffle pending, 2 = xoshiro256** state follows, 4 = seeded state follows)
+ *     short  number of 52-card decks
+ *     int    number of cards remaining (the top-of-deck cursor)
+ *     double penetration                       (Shoe only)
+ *     long[4] xoshiro256** state                (if flag 2 is set)
+ *     long   seed                              (if flag 4 is set)
+ *     long   number of shuffle streams started  (if flag 4 is set)
+ *     long   state of the current stream        (if flag 4 is set)
+ *     int    shuffles since the last reset, or -1 (if flag 4 is set)
+ *     byte[52 * decks] card indices: the remaining cards, bottom card first, then the dealt cards
+ * </pre>
+ * A 52-card deck takes 62 bytes (94 with the xoshiro256** state, 90 with the seeded state), where default Java
+ * serialization writes several hundred.  The generator state is only written for <code>Xoshiro256StarStar</code>
+ * generators and for the <code>SplitMix64</code> generators of decks constructed with a seed, whose state can be
+ * exported; a deck with any other generator is decoded with a new default generator.  A seeded deck is decoded
+ * with its seed, stream, and shuffles since the last reset, so its <code>getState()</code> and
+ * <code>setState()</code> work as they did before it was encoded.  Version 1 (without flag 4) is still decoded.
+ * <p>
+ * The decks use this codec as their serialized form (through <code>writeReplace()</code> and
+ * <code>readResolve()</code>), and many decks can be encoded into, and decoded from, one <code>ByteBuffer</code>.
+ * Multi-byte values are written in the byte order of the buffer.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class DeckCodec {
+
+    private static final byte MAGIC = (byte) 0xDC;
+    private static final byte VERSION = 2;
+    /**
+     * Version written before the seeded state was added; it is still decoded.
+     */
+    private static final byte VERSION_1 = 1;
+    private static final byte TYPE_DECK = 1;
+    private static final byte TYPE_PACKED_DECK = 2;
+    private static final byte TYPE_SHOE = 3;
+    private static final int FLAG_SHUFFLE_PENDING = 1;
+    private static final int FLAG_GENERATOR_STATE = 2;
+    private static final int FLAG_SEEDED_STATE = 4;
+    /**
+     * Size of the header that every deck has.
+     */
+    private static final int HEADER_SIZE = 10;
+    private static final int PENETRATION_SIZE = 8;
+    private static final int GENERATOR_STATE_SIZE = 32;
+    private static final int SEEDED_STATE_SIZE = 28;
+    private static final int MAX_DECK_COUNT = 0xFFFF;
+
+    /**
+     * Prevents instantiation.
+     */
+    private DeckCodec() {
+    }
+
+    /**
+     * Returns the number of bytes that <code>encode()</code> writes for the given deck.
+     *
+     * @param deck a <code>Deck</code>, <code>PackedDeck</code>, or <code>Shoe</code>
+     * @return the size of the encoded deck
+     * @throws IllegalArgumentException if the deck is of another class
+     */
+    public static int encodedSize(final IDeck deck) {
+        byte type = DeckCodec.typeOf(deck);
+        int size = DeckCodec.HEADER_SIZE + DeckCodec.deckCountOf(deck) * Card.NUM_CARDS;
+        if (type == DeckCodec.TYPE_SHOE) {
+            size += DeckCodec.PENETRATION_SIZE;
+        }
+        IRandomGenerator rand = DeckCodec.generatorOf(deck);
+        if (rand.getClass() == Xoshiro256StarStar.class) {
+            size += DeckCodec.GENERATOR_STATE_SIZE;
+        } else if (rand instanceof SplitMix64) {
+            size += DeckCodec.SEEDED_STATE_SIZE;
+        }
+        return size;
+    }
+
+    /**
+     * Encodes the given deck.
+     *
+     * @param deck a <code>Deck</code>, <code>PackedDeck</code>, or <code>Shoe</code>
+     * @return the encoded deck
+     * @throws IllegalArgumentException if the deck is of another class
+     */
+    public static byte[] encode(final IDeck deck) {
+        ByteBuffer dst = ByteBuffer.allocate(DeckCodec.encodedSize(deck));
+        DeckCodec.encode(deck, dst);
+        return dst.array();
+    }
+
+    /**
+     * Encodes the given deck into <code>dst</code>, starting at its position.
+     *
+     * @param deck a <code>Deck</code>, <code>PackedDeck</code>, or <code>Shoe</code>
+     * @param dst  buffer to write the deck to
+     * @throws IllegalArgumentException if the deck is of another class
+     * @throws java.nio.BufferOverflowException if there is not enough room in the buffer
+     */
+    public static void encode(final IDeck deck, final ByteBuffer dst) {
+        if (deck == null) {
+            throw new NullPointerException("deck is null");
+        }
+        byte type = DeckCodec.typeOf(deck);
+        int deckCount = DeckCodec.deckCountOf(deck);
+        if (deckCount > DeckCodec.MAX_DECK_COUNT) {
+            throw new IllegalArgumentException("too many decks to encode: " + deckCount);
+        }
+        IRandomGenerator rand = DeckCodec.generatorOf(deck);
+        boolean exportable = rand.getClass() == Xoshiro256StarStar.class;
+        boolean seeded = rand instanceof SplitMix64;
+        boolean pending = type == DeckCodec.TYPE_DECK
+                ? ((Deck) deck).isShufflePending() : ((PackedDeck) deck).isShufflePending();
+        int flags = (pending ? DeckCodec.FLAG_SHUFFLE_PENDING : 0)
+                | (exportable ? DeckCodec.FLAG_GENERATOR_STATE : 0)
+                | (seeded ? DeckCodec.FLAG_SEEDED_STATE : 0);
+
+        dst.put(DeckCodec.MAGIC).put(DeckCodec.VERSION).put(type).put((byte) flags);
+        dst.putShort((short) deckCount).putInt(deck.getSize());
+        if (type == DeckCodec.TYPE_SHOE) {
+            dst.putDouble(((Shoe) deck).getPenetration());
+        }
+        if (exportable) {
+            ((Xoshiro256StarStar) rand).writeState(dst);
+        } else if (seeded) {
+            ((SplitMix64) rand).writeState(dst);
+            dst.putInt(type == DeckCodec.TYPE_DECK
+                    ? ((Deck) deck).getShufflesSinceReset() : ((PackedDeck) deck).getShufflesSinceReset());
+        }
+        if (type == DeckCodec.TYPE_DECK) {
+            ((Deck) deck).writeCards(dst);
+        } else {
+            ((PackedDeck) deck).writeCards(dst);
+        }
+    }
+
+    /**
+     * Decodes a deck from <code>src</code>, starting at its position.  On return, the position of the buffer is
+     * just past the deck.
+     *
+     * @param src buffer to read the deck from
+     * @return the decoded <code>Deck</code>, <code>PackedDeck</code>, or <code>Shoe</code>
+     * @throws IllegalArgumentException if the buffer does not hold a valid encoded deck
+     * @throws BufferUnderflowException if the buffer ends before the end of the deck
+     */
+    public static IDeck decode(final ByteBuffer src) {
+        if (src == null) {
+            throw new NullPointerException("buffer is null");
+        }
+        if (src.get() != DeckCodec.MAGIC) {
+            throw new IllegalArgumentException("buffer does not hold an encoded deck");
+        }
+        byte version = src.get();
+        if (version != DeckCodec.VERSION && version != DeckCodec.VERSION_1) {
+            throw new IllegalArgumentException("unsupported version: " + version);
+        }
+        byte type = src.get();
+        int flags = src.get();
+        int deckCount = src.getShort() & DeckCodec.MAX_DECK_COUNT;
+        int size = src.getInt();
+        int numCards = deckCount * Card.NUM_CARDS;
+        if (deckCount == 0 || (type == DeckCodec.TYPE_DECK || type == DeckCodec.TYPE_PACKED_DECK) && deckCount != 1) {
+            throw new IllegalArgumentException("invalid deck count: " + deckCount);
+        }
+        if (size < 0 || size > numCards) {
+            throw new IllegalArgumentException("invalid number of remaining cards: " + size);
+        }
+        double penetration = type == DeckCodec.TYPE_SHOE ? src.getDouble() : 0;
+        IRandomGenerator rand;
+        int shufflesSinceReset = -1;
+        if ((flags & DeckCodec.FLAG_GENERATOR_STATE) != 0) {
+            rand = Xoshiro256StarStar.readState(src);
+        } else if ((flags & DeckCodec.FLAG_SEEDED_STATE) != 0) {
+            rand = SplitMix64.readState(src);
+            shufflesSinceReset = src.getInt();
+            if (shufflesSinceReset < -1) {
+                throw new IllegalArgumentException("invalid number of shuffles since reset: " + shufflesSinceReset);
+            }
+        } else {
+            rand = RandomGenerators.defaultGenerator();
+        }
+        boolean pending = (flags & DeckCodec.FLAG_SHUFFLE_PENDING) != 0;
+        DeckCodec.validateCards(src, numCards, deckCount);
+
+        switch (type) {
+            case DeckCodec.TYPE_DECK:
+                Deck deck = new Deck(rand);
+                deck.readCards(src, size, pending, shufflesSinceReset);
+                return deck;
+            case DeckCodec.TYPE_PACKED_DECK:
+                PackedDeck packedDeck = new PackedDeck(rand);
+                packedDeck.readCards(src, size, pending, shufflesSinceReset);
+                return packedDeck;
+            case DeckCodec.TYPE_SHOE:
+                Shoe shoe = new Shoe(deckCount, penetration, rand);
+                shoe.readCards(src, size, pending, shufflesSinceReset);
+                return shoe;
+            default:
+                throw new IllegalArgumentException("unknown deck type: " + type);
+        }
+    }
+
+    /**
+     * Encodes the given decks into <code>dst</code>, starting at its position: the number of decks, as an
+     * <code>int</code>, followed by each encoded deck.
+     *
+     * @param decks the decks to encode
+     * @param dst   buffer to write the decks to
+     * @throws IllegalArgumentException if a deck is not a <code>Deck</code>, <code>PackedDeck</code>, or
+     *                                  <code>Shoe</code>
+     * @throws java.nio.BufferOverflowException if there is not enough room in the buffer
+     */
+    public static void encodeAll(final List<? extends IDeck> decks, final ByteBuffer dst) {
+        dst.putInt(decks.size());
+        for (IDeck deck : decks) {
+            DeckCodec.encode(deck, dst);
+        }
+    }
+
+    /**
+     * Returns the number of bytes that <code>encodeAll()</code> writes for the given decks.
+     *
+     * @param decks the decks to encode
+     * @return the size of the encoded decks
+     * @throws IllegalArgumentException if a deck is not a <code>Deck</code>, <code>PackedDeck</code>, or
+     *                                  <code>Shoe</code>
+     */
+    public static int encodedSize(final List<? extends IDeck> decks) {
+        int size = Integer.BYTES;
+        for (IDeck deck : decks) {
+            size += DeckCodec.encodedSize(deck);
+        }
+        return size;
+    }
+
+    /**
+     * Decodes the decks written by <code>encodeAll()</code> from <code>src</code>, starting at its position.
+     *
+     * @param src buffer to read the decks from
+     * @return the decoded decks, in the order in which they were encoded
+     * @throws IllegalArgumentException if the buffer does not hold valid encoded decks
+     * @throws BufferUnderflowException if the buffer ends before the last deck
+     */
+    public static List<IDeck> decodeAll(final ByteBuffer src) {
+        int count = src.getInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("invalid number of decks: " + count);
+        }
+        List<IDeck> decks = new ArrayList<>(Math.min(count, src.remaining() / DeckCodec.HEADER_SIZE));
+        for (int i = 0; i < count; i++) {
+            decks.add(DeckCodec.decode(src));
+        }
+        return decks;
+    }
+
+    /**
+     * Returns the serialized form of the given deck, for use by <code>writeReplace()</code>.
+     *
+     * @param deck a <code>Deck</code>, <code>PackedDeck</code>, or <code>Shoe</code>
+     * @return the serialized form
+     */
+    static Serializable serializedForm(final IDeck deck) {
+        return new SerializedForm(DeckCodec.encode(deck));
+    }
+
+    private static byte typeOf(final IDeck deck) {
+        // only the exact classes are supported, since an extending class may have state of its own
+        Class<?> c = deck.getClass();
+        if (c == Deck.class) {
+            return DeckCodec.TYPE_DECK;
+        } else if (c == PackedDeck.class) {
+            return DeckCodec.TYPE_PACKED_DECK;
+        } else if (c == Shoe.class) {
+            return DeckCodec.TYPE_SHOE;
+        }
+        throw new IllegalArgumentException("cannot encode " + c.getName());
+    }
+
+    private static int deckCountOf(final IDeck deck) {
+        return deck instanceof PackedDeck ? ((PackedDeck) deck).getDeckCount() : 1;
+    }
+
+    private static IRandomGenerator generatorOf(final IDeck deck) {
+        return deck instanceof Deck ? ((Deck) deck).getRandomGenerator() : ((PackedDeck) deck).getRandomGenerator();
+    }
+
+    /**
+     * Checks, without moving the position of the buffer, that the next <code>numCards</code> bytes hold every
+     * card index exactly <code>deckCount</code> times.
+     */
+    private static void validateCards(final ByteBuffer src, final int numCards, final int deckCount) {
+        if (src.remaining() < numCards) {
+            throw new BufferUnderflowException();
+        }
+        int[] counts = new int[Card.NUM_CARDS];
+        for (int i = src.position(), end = i + numCards; i < end; i++) {
+            int index = src.get(i);
+            if (index < 0 || index >= Card.NUM_CARDS || ++counts[index] > deckCount) {
+                throw new IllegalArgumentException("invalid card at offset " + i + ": " + index);
+            }
+        }
+    }
+
+    /**
+     * Serialized form of the decks: the encoded deck.
+     */
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 4436092415651932127L;
+
+        private final byte[] _data;
+
+        private SerializedForm(final byte[] data) {
+            _data = data;
+        }
+
+        /**
+         * Decodes the deck when it is deserialized.
+         *
+         * @return the deck
+         * @throws ObjectStreamException if the data is not a valid encoded deck
+         */
+        private Object readResolve() throws ObjectStreamException {
+            try {
+                return DeckCodec.decode(ByteBuffer.wrap(_data));
+            } catch (IllegalArgumentException | BufferUnderflowException e) {
+                InvalidObjectException ex = new InvalidObjectException("invalid encoded deck");
+                ex.initCause(e);
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ *    File: DeckMetrics.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms of the operations of one class of deck: shuffles, lazy shuffles, resets, and
+ * <i>exhaustions</i> (deals that found too few cards, e.g., <code>dealOneCard()</code> returning
+ * <code>null</code>).  The metrics of each class are kept in a registry (see <code>of()</code> and
+ * <code>all()</code>), registered as a JMX MBean (see <code>DeckMetricsMBean</code>), and also committed as JDK
+ * Flight Recorder events when the JVM supports them.  The events are declared in <code>DeckEvents</code>, which
+ * is compiled separately (from <code>src-jfr</code>) so that the library still builds on JDKs without
+ * <code>jdk.jfr</code>; it is loaded by name, and no events are committed when it is absent.
+ * <p>
+ * Metrics are off by default.  Set the system property <code>com.appian.carddeck.metrics</code> to
+ * <code>true</code> to enable them.  Because <code>ENABLED</code> is a constant, the JIT compiler removes the
+ * instrumentation of the decks entirely when it is off, as it does for tracing in <code>Deck</code> (see
+ * <code>MetricsBenchmark</code>).  When it is on, recording an operation costs two reads of
+ * <code>System.nanoTime()</code> and a few <code>LongAdder</code> increments, which threads make without
+ * contention.  This class is thread safe.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class DeckMetrics implements DeckMetricsMBean {
+
+    /**
+     * Enables the metrics.  Set the system property <code>com.appian.carddeck.metrics</code> to
+     * <code>true</code> to enable them.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("com.appian.carddeck.metrics");
+    /**
+     * Domain of the MBeans.
+     */
+    public static final String JMX_DOMAIN = "com.appian.carddeck";
+
+    private static final Logger LOG = Logger.getLogger(DeckMetrics.class.getName());
+    /**
+     * Name of the class of the JDK Flight Recorder events.
+     */
+    private static final String EVENTS_CLASS = "com.appian.carddeck.DeckEvents";
+    /**
+     * Commits the JDK Flight Recorder events, or <code>null</code> if they are not committed: only when metrics
+     * are enabled, the JVM has the <code>jdk.jfr</code> API, and <code>DeckEvents</code> was built.
+     */
+    private static final EventSink EVENTS = DeckMetrics.ENABLED ? DeckMetrics.loadEvents() : null;
+    /**
+     * Metrics of each deck class, sorted by class name.
+     */
+    private static final ConcurrentSkipListMap<String, DeckMetrics> REGISTRY = new ConcurrentSkipListMap<>();
+    /**
+     * Metrics of each deck class, looked up without hashing the class name.
+     */
+    private static final ClassValue<DeckMetrics> BY_CLASS = new ClassValue<DeckMetrics>() {
+        @Override
+        protected DeckMetrics computeValue(final Class<?> type) {
+            return REGISTRY.computeIfAbsent(type.getName(), DeckMetrics::register);
+        }
+    };
+
+    /**
+     * Receiver of the events of deck operations; implemented by <code>DeckEvents</code>.  A shuffle or reset event
+     * is begun before the operation and committed after it, so that the event has the duration of the operation.
+     */
+    interface EventSink {
+        /**
+         * Begins a shuffle event.
+         *
+         * @return the event, or <code>null</code> if no recording has enabled it
+         */
+        Object beginShuffle();
+
+        void commitShuffle(Object event, String deckClass, int cards);
+
+        /**
+         * Begins a reset event.
+         *
+         * @return the event, or <code>null</code> if no recording has enabled it
+         */
+        Object beginReset();
+
+        void commitReset(Object event, String deckClass, int cards);
+
+        void exhausted(String deckClass);
+    }
+
+    private final String _name;
+    private final LongAdder _shuffles = new LongAdder();
+    private final LongAdder _lazyShuffles = new LongAdder();
+    private final LongAdder _resets = new LongAdder();
+    private final LongAdder _exhaustions = new LongAdder();
+    private final LatencyHistogram _shuffleLatency = new LatencyHistogram();
+    private final LatencyHistogram _resetLatency = new LatencyHistogram();
+
+
+    private DeckMetrics(final String name) {
+        _name = name;
+    }
+
+    /**
+     * Creates the metrics of a deck class, and registers them on the platform MBean server when metrics are
+     * enabled.  A failure to register is logged, and the metrics are still kept.
+     */
+    private static DeckMetrics register(final String name) {
+        DeckMetrics metrics = new DeckMetrics(name);
+        if (DeckMetrics.ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+                        new ObjectName(DeckMetrics.JMX_DOMAIN + ":type=DeckMetrics,name=" + ObjectName.quote(name)));
+            } catch (JMException | SecurityException e) {
+                DeckMetrics.LOG.log(Level.WARNING, "cannot register metrics of " + name, e);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Loads the JDK Flight Recorder events, or returns <code>null</code> if the JVM does not have the
+     * <code>jdk.jfr</code> API or <code>DeckEvents</code> was not built.
+     */
+    private static EventSink loadEvents() {
+        ClassLoader loader = DeckMetrics.class.getClassLoader();
+        try {
+            Class.forName("jdk.jfr.Event", false, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+        try {
+            return Class.forName(DeckMetrics.EVENTS_CLASS, true, loader).asSubclass(EventSink.class)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            DeckMetrics.LOG.log(Level.FINE, "Flight Recorder events are not available", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the metrics of the given deck class, creating them if needed.  Subclasses have metrics of their
+     * own (e.g., a <code>Shoe</code> is not counted as a <code>PackedDeck</code>).
+     *
+     * @param type the deck class
+     * @return the metrics of the class
+     */
+    public static DeckMetrics of(final Class<? extends IDeck> type) {
+        if (type == null) {
+            throw new NullPointerException("type is null");
+        }
+        return DeckMetrics.BY_CLASS.get(type);
+    }
+
+    /**
+     * Returns the metrics of every deck class that has metrics, sorted by class name.
+     *
+     * @return the metrics
+     */
+    public static List<DeckMetrics> all() {
+        return new ArrayList<>(DeckMetrics.REGISTRY.values());
+    }
+
+    /**
+     * Begins the Flight Recorder event of a shuffle; call it just before the shuffle starts.
+     *
+     * @return the event, to be passed to <code>shuffled()</code>, or <code>null</code> if it is not recorded
+     */
+    static Object beginShuffle() {
+        return DeckMetrics.EVENTS != null ? DeckMetrics.EVENTS.beginShuffle() : null;
+    }
+
+    /**
+     * Begins the Flight Recorder event of a reset; call it just before the reset starts.
+     *
+     * @return the event, to be passed to <code>reset()</code>, or <code>null</code> if it is not recorded
+     */
+    static Object beginReset() {
+        return DeckMetrics.EVENTS != null ? DeckMetrics.EVENTS.beginReset() : null;
+    }
+
+    /**
+     * Records a full shuffle, and commits its event.
+     *
+     * @param start value of <code>System.nanoTime()</code> when the shuffle started
+     * @param event event returned by <code>beginShuffle()</code>, or <code>null</code>
+     * @param cards number of cards shuffled
+     */
+    void shuffled(final long start, final Object event, final int cards) {
+        _shuffles.increment();
+        _shuffleLatency.record(System.nanoTime() - start);
+        if (event != null) {
+            DeckMetrics.EVENTS.commitShuffle(event, _name, cards);
+        }
+    }
+
+    /**
+     * Records a lazy shuffle, whose work is spread over the deals that follow it, so it is not timed.
+     */
+    void shuffledLazily() {
+        _lazyShuffles.increment();
+    }
+
+    /**
+     * Records a reset, and commits its event.
+     *
+     * @param start value of <code>System.nanoTime()</code> when the reset started
+     * @param event event returned by <code>beginReset()</code>, or <code>null</code>
+     * @param cards number of cards in the deck after the reset
+     */
+    void reset(final long start, final Object event, final int cards) {
+        _resets.increment();
+        _resetLatency.record(System.nanoTime() - start);
+        if (event != null) {
+            DeckMetrics.EVENTS.commitReset(event, _name, cards);
+        }
+    }
+
+    /**
+     * Records a deal that found too few cards.
+     */
+    void exhausted() {
+        _exhaustions.increment();
+        if (DeckMetrics.EVENTS != null) {
+            DeckMetrics.EVENTS.exhausted(_name);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return _name;
+    }
+
+    @Override
+    public long getShuffleCount() {
+        return _shuffles.sum();
+    }
+
+    @Override
+    public long getLazyShuffleCount() {
+        return _lazyShuffles.sum();
+    }
+
+    @Override
+    public long getResetCount() {
+        return _resets.sum();
+    }
+
+    @Override
+    public long getExhaustionCount() {
+        return _exhaustions.sum();
+    }
+
+    /**
+     * Returns the histogram of the latencies of full shuffles.
+     *
+     * @return the shuffle latencies
+     */
+    public LatencyHistogram getShuffleLatency() {
+        return _shuffleLatency;
+    }
+
+    /**
+     * Returns the histogram of the latencies of resets.
+     *
+     * @return the reset latencies
+     */
+    public LatencyHistogram getResetLatency() {
+        return _resetLatency;
+    }
+
+    @Override
+    public double getShuffleMeanNanos() {
+        return _shuffleLatency.getMean();
+    }
+
+    @Override
+    public long getShuffleP50Nanos() {
+        return _shuffleLatency.getPercentile(50.0);
+    }
+
+    @Override
+    public long getShuffleP99Nanos() {
+        return _shuffleLatency.getPercentile(99.0);
+    }
+
+    @Override
+    public long getShuffleP999Nanos() {
+        return _shuffleLatency.getPercentile(99.9);
+    }
+
+    @Override
+    public double getResetMeanNanos() {
+        return _resetLatency.getMean();
+    }
+
+    @Override
+    public long getResetP50Nanos() {
+        return _resetLatency.getPercentile(50.0);
+    }
+
+    @Override
+    public long getResetP99Nanos() {
+        return _resetLatency.getPercentile(99.0);
+    }
+
+    @Override
+    public long getResetP999Nanos() {
+        return _resetLatency.getPercentile(99.9);
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the metrics.
+     *
+     * @return <code>String</code> representation of the metrics
+     */
+    @Override
+    public String toString() {
+        return "DeckMetrics[name=" + _name + ", shuffles=" + this.getShuffleCount()
+                + ", lazyShuffles=" + this.getLazyShuffleCount() + ", resets=" + this.getResetCount()
+                + ", exhaustions=" + this.getExhaustionCount() + ", shuffleLatency=" + _shuffleLatency
+                + ", resetLatency=" + _resetLatency + "]";
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *    File: DeckMetricsMBean.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+/**
+ * JMX management interface of <code>DeckMetrics</code>.  Each deck class with metrics is registered on the
+ * platform MBean server as <code>com.appian.carddeck:type=DeckMetrics,name=&lt;class name&gt;</code>.
+ * Latencies are in nanoseconds; percentiles are upper bounds, to within a factor of 2 (see
+ * <code>LatencyHistogram</code>).
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public interface DeckMetricsMBean {
+
+    /**
+     * Returns the name of the deck class.
+     *
+     * @return the class name
+     */
+    String getName();
+
+    /**
+     * Returns the number of full shuffles.
+     *
+     * @return the number of shuffles
+     */
+    long getShuffleCount();
+
+    /**
+     * Returns the number of lazy shuffles (see <code>Deck.shuffleLazily()</code>).
+     *
+     * @return the number of lazy shuffles
+     */
+    long getLazyShuffleCount();
+
+    /**
+     * Returns the number of resets.
+     *
+     * @return the number of resets
+     */
+    long getResetCount();
+
+    /**
+     * Returns the number of deals that found too few cards in the deck.
+     *
+     * @return the number of exhaustions
+     */
+    long getExhaustionCount();
+
+    /**
+     * Returns the mean latency of a full shuffle.
+     *
+     * @return the mean shuffle latency
+     */
+    double getShuffleMeanNanos();
+
+    /**
+     * Returns the median latency of a full shuffle.
+     *
+     * @return the median shuffle latency
+     */
+    long getShuffleP50Nanos();
+
+    /**
+     * Returns the 99th percentile of the latency of a full shuffle.
+     *
+     * @return the 99th percentile of the shuffle latency
+     */
+    long getShuffleP99Nanos();
+
+    /**
+     * Returns the 99.9th percentile of the latency of a full shuffle.
+     *
+     * @return the 99.9th percentile of the shuffle latency
+     */
+    long getShuffleP999Nanos();
+
+    /**
+     * Returns the mean latency of a reset.
+     *
+     * @return the mean reset latency
+     */
+    double getResetMeanNanos();
+
+    /**
+     * Returns the median latency of a reset.
+     *
+     * @return the median reset latency
+     */
+    long getResetP50Nanos();
+
+    /**
+     * Returns the 99th percentile of the latency of a reset.
+     *
+     * @return the 99th percentile of the reset latency
+     */
+    long getResetP99Nanos();
+
+    /**
+     * Returns the 99.9th percentile of the latency of a reset.
+     *
+     * @return the 99.9th percentile of the reset latency
+     */
+    long getResetP999Nanos();
+}
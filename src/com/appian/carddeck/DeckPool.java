@@ -0,0 +1,292 @@
+/*
+ *    File: DeckPool.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, thread-safe pool of decks, for servers that start many games and would otherwise construct a new
+ * deck (with its list or array of cards and its random number generator) for each one.  A game borrows a deck with
+ * <code>borrow()</code> and gives it back with <code>release()</code>, which resets the deck so that the next
+ * borrower receives a full deck.  A borrower should shuffle the deck before use.
+ * <p>
+ * Each thread keeps a small cache of released decks of its own, so a thread that borrows and releases decks in
+ * turn (as a table server does) never contends with other threads.  Decks released while a thread's cache is
+ * full go to a shared queue of bounded capacity, from which any thread can borrow; decks released while the
+ * queue is also full are dropped, and left to the garbage collector.  When neither holds a deck, a new one is
+ * created by the factory given to the pool, so <code>borrow()</code> never blocks.
+ * <p>
+ * The pool can therefore hold up to <code>capacity + threads * threadCapacity</code> idle decks, of which
+ * <code>getSize()</code> only counts those in the shared queue.  The decks cached by a thread are only reachable
+ * from that thread, and are lost to the pool (and left to the garbage collector) when it ends; a thread that is
+ * about to end, or to stop using the pool, should call <code>releaseThreadCache()</code> to move its decks to
+ * the shared queue.
+ * <p>
+ * The pool counts borrows, hits (borrows served from a cache or the queue), decks created, and decks dropped,
+ * and times a sample of borrows, with <code>LongAdder</code> counters that threads update without contention.
+ * <b>NOTE:</b> A deck must not be used after it has been released, nor released twice; the pool does not check.
+ *
+ * @param <T> type of the pooled decks
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DeckPool<T extends IDeck> {
+
+    /**
+     * Default number of decks cached by each thread.
+     */
+    public static final int DEFAULT_THREAD_CAPACITY = 4;
+    /**
+     * One borrow in <code>SAMPLE_INTERVAL</code> (per thread) is timed, since reading the clock can cost more
+     * than the borrow itself.
+     */
+    private static final int SAMPLE_INTERVAL = 64;
+
+    /**
+     * Decks released and not yet borrowed again by a thread, used as a stack, and the number of borrows made by
+     * the thread.
+     */
+    private static final class LocalCache {
+        private final IDeck[] _decks;
+        private int _size;
+        private int _borrows;
+
+        private LocalCache(final int capacity) {
+            _decks = new IDeck[capacity];
+        }
+    }
+
+    /**
+     * Factory of new decks.
+     */
+    private final Supplier<? extends T> _factory;
+    /**
+     * Decks released while the releasing thread's cache was full.
+     */
+    private final ArrayBlockingQueue<T> _shared;
+    /**
+     * Cache of each thread; empty when the thread capacity is 0.
+     */
+    private final ThreadLocal<LocalCache> _local;
+    private final int _capacity;
+
+    private final LongAdder _borrows = new LongAdder();
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _created = new LongAdder();
+    private final LongAdder _dropped = new LongAdder();
+    private final LongAdder _sampledBorrows = new LongAdder();
+    private final LongAdder _borrowNanos = new LongAdder();
+
+
+    /**
+     * Constructs a pool whose shared queue holds at most <code>capacity</code> decks, and whose threads each
+     * cache up to <code>DEFAULT_THREAD_CAPACITY</code> decks.
+     *
+     * @param factory  factory of new decks, e.g. <code>Deck::new</code>
+     * @param capacity capacity of the shared queue
+     */
+    public DeckPool(final Supplier<? extends T> factory, final int capacity) {
+        this(factory, capacity, DeckPool.DEFAULT_THREAD_CAPACITY);
+    }
+
+    /**
+     * Constructs a pool whose shared queue holds at most <code>capacity</code> decks, and whose threads each
+     * cache up to <code>threadCapacity</code> decks.
+     *
+     * @param factory        factory of new decks, e.g. <code>Deck::new</code>
+     * @param capacity       capacity of the shared queue; must be positive
+     * @param threadCapacity number of decks cached by each thread; 0 disables the thread caches
+     */
+    public DeckPool(final Supplier<? extends T> factory, final int capacity, final int threadCapacity) {
+        if (factory == null) {
+            throw new NullPointerException("factory is null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (threadCapacity < 0) {
+            throw new IllegalArgumentException("thread capacity must not be negative: " + threadCapacity);
+        }
+        _factory = factory;
+        _shared = new ArrayBlockingQueue<>(capacity);
+        _capacity = capacity;
+        _local = ThreadLocal.withInitial(() -> new LocalCache(threadCapacity));
+    }
+
+    /**
+     * Borrows a deck from the pool: the most recently released deck of this thread's cache, or else a deck from
+     * the shared queue, or else a new deck.  The deck holds a full set of cards, but is not shuffled.
+     *
+     * @return a deck, which must be given back with <code>release()</code> when the game is over
+     */
+    public T borrow() {
+        LocalCache cache = _local.get();
+        if (cache._borrows++ % DeckPool.SAMPLE_INTERVAL != 0) {
+            return this.borrow(cache);
+        }
+        long start = System.nanoTime();
+        T deck = this.borrow(cache);
+        _borrowNanos.add(System.nanoTime() - start);
+        _sampledBorrows.increment();
+        return deck;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T borrow(final LocalCache cache) {
+        _borrows.increment();
+        T deck;
+        if (cache._size > 0) {
+            deck = (T) cache._decks[--cache._size];
+            cache._decks[cache._size] = null;
+        } else {
+            deck = _shared.poll();
+        }
+        if (deck != null) {
+            _hits.increment();
+            return deck;
+        }
+        deck = _factory.get();
+        if (deck == null) {
+            throw new NullPointerException("factory returned null");
+        }
+        _created.increment();
+        return deck;
+    }
+
+    /**
+     * Gives a borrowed deck back to the pool.  The deck is reset, and then cached by this thread, or else
+     * added to the shared queue, or else (if both are full) dropped.
+     *
+     * @param deck the deck to give back
+     */
+    public void release(final T deck) {
+        if (deck == null) {
+            throw new NullPointerException("deck is null");
+        }
+        deck.reset();
+        LocalCache cache = _local.get();
+        if (cache._size < cache._decks.length) {
+            cache._decks[cache._size++] = deck;
+            return;
+        }
+        if (!_shared.offer(deck)) {
+            _dropped.increment();
+        }
+    }
+
+    /**
+     * Moves the decks cached by this thread to the shared queue, dropping those for which it has no room.  Call
+     * it before a thread that has released decks ends or stops using the pool, since its cached decks are
+     * otherwise lost to the pool.
+     *
+     * @return the number of decks moved to the shared queue
+     */
+    @SuppressWarnings("unchecked")
+    public int releaseThreadCache() {
+        LocalCache cache = _local.get();
+        int moved = 0;
+        while (cache._size > 0) {
+            T deck = (T) cache._decks[--cache._size];
+            cache._decks[cache._size] = null;
+            if (_shared.offer(deck)) {
+                moved++;
+            } else {
+                _dropped.increment();
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Returns the number of decks waiting in the shared queue.  Decks cached by threads are not counted, so the
+     * pool may hold up to <code>threadCapacity</code> more decks for each thread that has released decks.
+     *
+     * @return the number of decks in the shared queue
+     */
+    public int getSize() {
+        return _shared.size();
+    }
+
+    /**
+     * Returns the capacity of the shared queue.
+     *
+     * @return the capacity of the shared queue
+     */
+    public int getCapacity() {
+        return _capacity;
+    }
+
+    /**
+     * Returns the number of decks borrowed from the pool.
+     *
+     * @return the number of borrows
+     */
+    public long getBorrowCount() {
+        return _borrows.sum();
+    }
+
+    /**
+     * Returns the number of borrows served by a deck that was released to the pool, rather than a new one.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return _hits.sum();
+    }
+
+    /**
+     * Returns the fraction of borrows served by a deck that was released to the pool.
+     *
+     * @return the hit rate, between 0 and 1; 0 if no deck has been borrowed
+     */
+    public double getHitRate() {
+        long borrows = _borrows.sum();
+        return borrows == 0 ? 0.0 : (double) _hits.sum() / borrows;
+    }
+
+    /**
+     * Returns the number of decks created by the factory.
+     *
+     * @return the number of decks created
+     */
+    public long getCreatedCount() {
+        return _created.sum();
+    }
+
+    /**
+     * Returns the number of released decks dropped because the pool was full.
+     *
+     * @return the number of decks dropped
+     */
+    public long getDroppedCount() {
+        return _dropped.sum();
+    }
+
+    /**
+     * Returns the mean time taken by <code>borrow()</code>, including the creation of new decks.  The mean is
+     * estimated from a sample of one borrow in 64 made by each thread (its first, 65th, and so on).
+     *
+     * @return the mean borrow latency, in nanoseconds; 0 if no deck has been borrowed
+     */
+    public double getMeanBorrowNanos() {
+        long sampled = _sampledBorrows.sum();
+        return sampled == 0 ? 0.0 : (double) _borrowNanos.sum() / sampled;
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the pool's size and metrics.
+     *
+     * @return <code>String</code> representation of the pool
+     */
+    @Override
+    public String toString() {
+        return "DeckPool[size=" + this.getSize() + ", capacity=" + this.getCapacity()
+                + ", borrows=" + this.getBorrowCount() + ", hitRate=" + this.getHitRate()
+                + ", created=" + this.getCreatedCount() + ", dropped=" + this.getDroppedCount()
+                + ", meanBorrowNanos=" + this.getMeanBorrowNanos() + "]";
+    }
+}
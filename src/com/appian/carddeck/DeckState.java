@@ -0,0 +1,173 @@
+/*
+ *    File: DeckState.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact, replayable state of a deck constructed with a seed: the seed, the number of shuffles performed since
+ * the deck was constructed, the number of those performed since the deck was last reset, and the number of cards
+ * dealt since then.  A deck is rebuilt from its state by jumping its generator to the first shuffle since the
+ * reset (see <code>SplitMix64</code>), replaying the shuffles since the reset, and dealing the dealt cards, so a
+ * table can be checkpointed in <code>BYTES</code> bytes rather than as its full list of cards.
+ * This class is immutable.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class DeckState implements Serializable {
+
+    private static final long serialVersionUID = 2851873560135994419L;
+    /**
+     * Size, in bytes, of the state as written by <code>writeTo()</code>.
+     */
+    public static final int BYTES = 24;
+
+    /**
+     * Seed of the deck.
+     */
+    private final long _seed;
+    /**
+     * Number of shuffles since the deck was constructed.
+     */
+    private final long _shuffleCount;
+    /**
+     * Number of shuffles since the deck was last reset.
+     */
+    private final int _shufflesSinceReset;
+    /**
+     * Number of cards dealt since the deck was last reset.
+     */
+    private final int _cursor;
+
+
+    /**
+     * Constructs a state.
+     *
+     * @param seed               seed of the deck
+     * @param shuffleCount       number of shuffles since the deck was constructed
+     * @param shufflesSinceReset number of shuffles since the deck was last reset
+     * @param cursor             number of cards dealt since the deck was last reset
+     * @throws IllegalArgumentException if a count is negative, or <code>shufflesSinceReset</code> is greater
+     *                                  than <code>shuffleCount</code>
+     */
+    public DeckState(final long seed, final long shuffleCount, final int shufflesSinceReset, final int cursor) {
+        if (shufflesSinceReset < 0 || shufflesSinceReset > shuffleCount) {
+            throw new IllegalArgumentException("invalid number of shuffles since reset: " + shufflesSinceReset);
+        }
+        if (cursor < 0) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        _seed = seed;
+        _shuffleCount = shuffleCount;
+        _shufflesSinceReset = shufflesSinceReset;
+        _cursor = cursor;
+    }
+
+    /**
+     * Reads a state written by <code>writeTo()</code>.
+     *
+     * @param src buffer to read the state from
+     * @return the state
+     * @throws IllegalArgumentException if the buffer does not hold a valid state
+     */
+    public static DeckState readFrom(final ByteBuffer src) {
+        return new DeckState(src.getLong(), src.getLong(), src.getInt(), src.getInt());
+    }
+
+    /**
+     * Writes the state to <code>dst</code> in <code>BYTES</code> bytes.
+     *
+     * @param dst buffer to write the state to
+     */
+    public void writeTo(final ByteBuffer dst) {
+        dst.putLong(_seed).putLong(_shuffleCount).putInt(_shufflesSinceReset).putInt(_cursor);
+    }
+
+    /**
+     * Returns the seed of the deck.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return _seed;
+    }
+
+    /**
+     * Returns the number of shuffles performed since the deck was constructed.
+     *
+     * @return the number of shuffles
+     */
+    public long getShuffleCount() {
+        return _shuffleCount;
+    }
+
+    /**
+     * Returns the number of shuffles performed since the deck was last reset.
+     *
+     * @return the number of shuffles since reset
+     */
+    public int getShufflesSinceReset() {
+        return _shufflesSinceReset;
+    }
+
+    /**
+     * Returns the number of cards dealt since the deck was last reset.
+     *
+     * @return the number of cards dealt
+     */
+    public int getCursor() {
+        return _cursor;
+    }
+
+    /**
+     * Indicates whether some other object is "equal to" this one.  Returns <tt>true</tt> if the other object
+     * is also a <code>DeckState</code> with the same seed and counts.
+     *
+     * @param obj the object to be compared for equality with this DeckState
+     * @return <tt>true</tt> if the specified object is equal to this DeckState, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        // short-cut optimization
+        if (this == obj) {
+            return true;
+        }
+
+        // type check, also handles null reference
+        if (!(obj instanceof DeckState)) {
+            return false;
+        }
+
+        DeckState s = (DeckState) obj;
+        return _seed == s._seed && _shuffleCount == s._shuffleCount
+                && _shufflesSinceReset == s._shufflesSinceReset && _cursor == s._cursor;
+    }
+
+    /**
+     * Returns the hash code for this state, which is derived from its seed and counts.
+     *
+     * @return the hash code value for this state
+     */
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(_seed);
+        result = 31 * result + Long.hashCode(_shuffleCount);
+        result = 31 * result + _shufflesSinceReset;
+        return 31 * result + _cursor;
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the state.
+     *
+     * @return <code>String</code> representation of the state
+     */
+    @Override
+    public String toString() {
+        return "DeckState[seed=" + _seed + ", shuffles=" + _shuffleCount + ", shufflesSinceReset="
+                + _shufflesSinceReset + ", cursor=" + _cursor + "]";
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ *    File: EquityResult.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.Serializable;
+
+/**
+ * Class representing the outcome of an <code>EquitySimulator</code> run: for each player, the number of trials
+ * won outright, tied, and lost, and the player's <i>equity</i> (the average share of the pot won per trial, where
+ * a pot split <code>k</code> ways counts as <code>1/k</code>).
+ * This class is immutable.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class EquityResult implements Serializable {
+
+    private static final long serialVersionUID = -3318861730372958425L;
+
+    /**
+     * Number of trials simulated.
+     */
+    private final long _trials;
+    /**
+     * Number of trials won outright by each player.
+     */
+    private final long[] _wins;
+    /**
+     * Number of trials in which each player split the pot.
+     */
+    private final long[] _ties;
+    /**
+     * Sum over the trials of each player's share of the pot.
+     */
+    private final double[] _shares;
+    /**
+     * Sum over the trials of the square of each player's share of the pot.
+     */
+    private final double[] _squaredShares;
+
+
+    /**
+     * Constructs a result from the tallies of a simulation.  The arrays are not copied.
+     *
+     * @param trials        number of trials simulated
+     * @param wins          number of trials won outright by each player
+     * @param ties          number of trials in which each player split the pot
+     * @param shares        sum of each player's share of the pot
+     * @param squaredShares sum of the square of each player's share of the pot
+     */
+    EquityResult(final long trials, final long[] wins, final long[] ties, final double[] shares,
+                 final double[] squaredShares) {
+        _trials = trials;
+        _wins = wins;
+        _ties = ties;
+        _shares = shares;
+        _squaredShares = squaredShares;
+    }
+
+    /**
+     * Returns the result of both this run and the given run, whose trials are independent of this run's.
+     *
+     * @param other result of another run with the same players
+     * @return the combined result
+     */
+    EquityResult combine(final EquityResult other) {
+        int players = _wins.length;
+        long[] wins = new long[players];
+        long[] ties = new long[players];
+        double[] shares = new double[players];
+        double[] squaredShares = new double[players];
+        for (int p = 0; p < players; p++) {
+            wins[p] = _wins[p] + other._wins[p];
+            ties[p] = _ties[p] + other._ties[p];
+            shares[p] = _shares[p] + other._shares[p];
+            squaredShares[p] = _squaredShares[p] + other._squaredShares[p];
+        }
+        return new EquityResult(_trials + other._trials, wins, ties, shares, squaredShares);
+    }
+
+    /**
+     * Returns the number of players.
+     *
+     * @return number of players
+     */
+    public int getPlayerCount() {
+        return _wins.length;
+    }
+
+    /**
+     * Returns the number of trials simulated.
+     *
+     * @return number of trials
+     */
+    public long getTrials() {
+        return _trials;
+    }
+
+    /**
+     * Returns the number of trials won outright by the given player.
+     *
+     * @param player index of the player, in the order given to the simulator
+     * @return number of trials won
+     */
+    public long getWins(final int player) {
+        return _wins[player];
+    }
+
+    /**
+     * Returns the number of trials in which the given player split the pot with one or more other players.
+     *
+     * @param player index of the player, in the order given to the simulator
+     * @return number of trials tied
+     */
+    public long getTies(final int player) {
+        return _ties[player];
+    }
+
+    /**
+     * Returns the number of trials lost by the given player.
+     *
+     * @param player index of the player, in the order given to the simulator
+     * @return number of trials lost
+     */
+    public long getLosses(final int player) {
+        return _trials - _wins[player] - _ties[player];
+    }
+
+    /**
+     * Returns the given player's equity: the average share of the pot won per trial.
+     *
+     * @param player index of the player, in the order given to the simulator
+     * @return the equity, between 0 and 1
+     */
+    public double getEquity(final int player) {
+        return _trials == 0 ? 0 : _shares[player] / _trials;
+    }
+
+    /**
+     * Returns the half-width of the confidence interval of the given player's equity, i.e., the true equity lies
+     * within <code>getEquity(player) &plusmn; getHalfWidth(player, confidence)</code> with the given confidence.
+     *
+     * @param player     index of the player, in the order given to the simulator
+     * @param confidence confidence level, e.g., <code>0.95</code>
+     * @return the half-width of the confidence interval
+     * @throws IllegalArgumentException if <code>confidence</code> is not between 0 and 1
+     */
+    public double getHalfWidth(final int player, final double confidence) {
+        return EquitySimulator.zScore(confidence) * this.getStandardError(player);
+    }
+
+    /**
+     * Returns the standard error of the given player's equity.
+     */
+    double getStandardError(final int player) {
+        if (_trials < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double mean = _shares[player] / _trials;
+        double variance = Math.max(0, _squaredShares[player] / _trials - mean * mean);
+        return Math.sqrt(variance / (_trials - 1));
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the result, with one line per player.
+     *
+     * @return <code>String</code> representation of the result
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(_trials).append(" trials");
+        for (int p = 0; p < _wins.length; p++) {
+            sb.append(String.format("%nplayer %d: equity %.4f, won %d, tied %d, lost %d",
+                    p, this.getEquity(p), _wins[p], _ties[p], this.getLosses(p)));
+        }
+        return sb.toString();
+    }
+}
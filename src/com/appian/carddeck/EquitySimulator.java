@@ -0,0 +1,338 @@
+/*
+ *    File: EquitySimulator.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo simulator of the equity of Texas hold'em hands: the players' hole cards and any part of the board
+ * are known, and the rest of the board is dealt at random in each trial.
+ * <p>
+ * Trials are run in chunks of <code>CHUNK_TRIALS</code> in parallel on the common fork/join pool.  Each chunk
+ * has its own 'deck' of the unknown cards (every card that is not in a player's hand or on the board) and its
+ * own <code>SplittableRandom</code>, split from a generator with the given seed in chunk order, so a run with the
+ * same seed and number of trials gives the same result however many cores it runs on.  A chunk deals only the
+ * missing board cards, with a partial Fisher-Yates shuffle of its deck, and keeps its own win/tie/loss tallies,
+ * which are combined in chunk order when all of the chunks are done.
+ * <p>
+ * The chunks deal from their own arrays rather than from a <code>Deck</code> or <code>PackedDeck</code>, which
+ * hold all 52 cards: every trial would have to reset the deck and remove the known cards again (see
+ * <code>IDeck.removeAll()</code>) before dealing the board, even with a lazy shuffle, whereas a chunk's array
+ * holds only the unknown cards and needs no reset, since a partial Fisher-Yates shuffle leaves any permutation
+ * of them valid for the next trial.  Drawing from the chunk's <code>SplittableRandom</code> directly also
+ * avoids wrapping it in an <code>IRandomGenerator</code>, and the dealt cards are combined as the bit masks that
+ * <code>HandEvaluator</code> takes, rather than as <code>Card</code> objects.
+ * <p>
+ * <code>runUntil()</code> stops early once the confidence interval of every player's equity is narrow enough.
+ * <code>enumerate()</code> computes the exact equity instead, by evaluating every possible board.
+ * This class is immutable, and may be used from any number of threads.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class EquitySimulator {
+
+    /**
+     * Number of cards on a complete board.
+     */
+    public static final int BOARD_SIZE = 5;
+    /**
+     * Number of hole cards of each player.
+     */
+    public static final int HOLE_CARDS = 2;
+    /**
+     * Number of trials run by each parallel task.
+     */
+    static final int CHUNK_TRIALS = 10000;
+    /**
+     * Number of chunks run between the checks of the confidence intervals in <code>runUntil()</code>.  This is
+     * a constant, rather than a multiple of the number of cores, so that early stopping is reproducible.
+     */
+    static final int CHUNKS_PER_CHECK = 16;
+
+    /**
+     * Bit mask of the hole cards of each player (see <code>CardSet.getMask()</code>).
+     */
+    private final long[] _holeCards;
+    /**
+     * Bit mask of the known board cards.
+     */
+    private final long _board;
+    /**
+     * Indices of the cards that are neither in a player's hand nor on the board.
+     */
+    private final byte[] _unknownCards;
+    /**
+     * Bit mask of the same cards.
+     */
+    private final long _unknown;
+
+
+    /**
+     * Constructs a simulator for the given players and known board cards.  This constructor will throw a
+     * <code>NullPointerException</code> if any of the sets of cards is <code>null</code>.
+     *
+     * @param holeCards the hole cards of each player, exactly two per player
+     * @param board     the known board cards, at most five
+     * @throws IllegalArgumentException if there are fewer than two players, a player does not hold exactly two
+     *                                  cards, the board holds too many cards, or a card is held more than once
+     */
+    public EquitySimulator(final List<CardSet> holeCards, final CardSet board) {
+        if (holeCards == null) {
+            throw new NullPointerException("hole cards are null");
+        }
+        if (board == null) {
+            throw new NullPointerException("board is null");
+        }
+        if (holeCards.size() < 2) {
+            throw new IllegalArgumentException("at least two players are required");
+        }
+        if (board.size() > EquitySimulator.BOARD_SIZE) {
+            throw new IllegalArgumentException("board holds more than " + EquitySimulator.BOARD_SIZE + " cards");
+        }
+        _holeCards = new long[holeCards.size()];
+        long known = board.getMask();
+        for (int p = 0; p < _holeCards.length; p++) {
+            CardSet hand = holeCards.get(p);
+            if (hand == null) {
+                throw new NullPointerException("hole cards of player " + p + " are null");
+            }
+            if (hand.size() != EquitySimulator.HOLE_CARDS) {
+                throw new IllegalArgumentException("player " + p + " does not hold exactly "
+                        + EquitySimulator.HOLE_CARDS + " cards");
+            }
+            if ((known & hand.getMask()) != 0) {
+                throw new IllegalArgumentException("a card of player " + p + " is held more than once");
+            }
+            _holeCards[p] = hand.getMask();
+            known |= hand.getMask();
+        }
+        _board = board.getMask();
+        _unknown = CardSet.fromMask(known).complement().getMask();
+        Card[] unknown = CardSet.fromMask(_unknown).toArray();
+        _unknownCards = new byte[unknown.length];
+        for (int i = 0; i < unknown.length; i++) {
+            _unknownCards[i] = (byte) unknown[i].getIndex();
+        }
+    }
+
+    /**
+     * Runs the given number of trials.
+     *
+     * @param trials number of trials
+     * @param seed   seed of the random number generators
+     * @return the result of the trials
+     * @throws IllegalArgumentException if <code>trials</code> is not positive
+     */
+    public EquityResult run(final long trials, final long seed) {
+        if (trials <= 0) {
+            throw new IllegalArgumentException("number of trials must be positive");
+        }
+        SplittableRandom seeds = new SplittableRandom(seed);
+        return this.runChunks(seeds, trials);
+    }
+
+    /**
+     * Computes the exact equity of each player, by evaluating every way of completing the board from the unknown
+     * cards (e.g., all 1,712,304 boards of a heads-up pre-flop matchup) with a <code>CombinationEnumerator</code>,
+     * in parallel.  The 'trials' of the result are the boards.
+     *
+     * @return the result of every board
+     */
+    public EquityResult enumerate() {
+        int missing = EquitySimulator.BOARD_SIZE - Long.bitCount(_board);
+        CombinationEnumerator boards = new CombinationEnumerator(CardSet.fromMask(_unknown), missing);
+        List<Tally> tallies = boards.forEachParallel(() -> new Tally(_holeCards, _board));
+        EquityResult result = tallies.get(0).toResult();
+        for (int c = 1; c < tallies.size(); c++) {
+            result = result.combine(tallies.get(c).toResult());
+        }
+        return result;
+    }
+
+    /**
+     * Runs trials until the half-width of the confidence interval of every player's equity is at most
+     * <code>halfWidth</code>, or <code>maxTrials</code> trials have been run.
+     *
+     * @param halfWidth  largest acceptable half-width of the confidence intervals, e.g., <code>0.005</code>
+     * @param confidence confidence level of the intervals, e.g., <code>0.95</code>
+     * @param maxTrials  largest number of trials to run
+     * @param seed       seed of the random number generators
+     * @return the result of the trials
+     * @throws IllegalArgumentException if <code>halfWidth</code> or <code>maxTrials</code> is not positive, or
+     *                                  <code>confidence</code> is not between 0 and 1
+     */
+    public EquityResult runUntil(final double halfWidth, final double confidence, final long maxTrials,
+                                 final long seed) {
+        if (!(halfWidth > 0)) {
+            throw new IllegalArgumentException("half-width must be positive");
+        }
+        if (maxTrials <= 0) {
+            throw new IllegalArgumentException("maximum number of trials must be positive");
+        }
+        double maxStandardError = halfWidth / EquitySimulator.zScore(confidence);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long checkTrials = (long) EquitySimulator.CHUNK_TRIALS * EquitySimulator.CHUNKS_PER_CHECK;
+        EquityResult result = this.runChunks(seeds, Math.min(checkTrials, maxTrials));
+        while (result.getTrials() < maxTrials && !this.isPrecise(result, maxStandardError)) {
+            result = result.combine(this.runChunks(seeds, Math.min(checkTrials, maxTrials - result.getTrials())));
+        }
+        return result;
+    }
+
+    /**
+     * Indicates whether the standard error of every player's equity is at most <code>maxStandardError</code>.
+     */
+    private boolean isPrecise(final EquityResult result, final double maxStandardError) {
+        for (int p = 0; p < _holeCards.length; p++) {
+            if (result.getStandardError(p) > maxStandardError) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the given number of trials in parallel chunks, taking the seed of each chunk from <code>seeds</code>.
+     */
+    private EquityResult runChunks(final SplittableRandom seeds, final long trials) {
+        int chunks = (int) ((trials + EquitySimulator.CHUNK_TRIALS - 1) / EquitySimulator.CHUNK_TRIALS);
+        // the seeds are taken in chunk order before any chunk runs, so the result does not depend on scheduling
+        List<SplittableRandom> rands = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            rands.add(seeds.split());
+        }
+        List<EquityResult> results = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> this.runChunk(rands.get(c), (int) Math.min(EquitySimulator.CHUNK_TRIALS,
+                        trials - (long) c * EquitySimulator.CHUNK_TRIALS)))
+                .collect(Collectors.toList());
+        EquityResult result = results.get(0);
+        for (int c = 1; c < chunks; c++) {
+            result = result.combine(results.get(c));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the given number of trials on the calling thread.
+     */
+    private EquityResult runChunk(final SplittableRandom rand, final int trials) {
+        Tally tally = new Tally(_holeCards, _board);
+        byte[] deck = _unknownCards.clone();
+        int missing = EquitySimulator.BOARD_SIZE - Long.bitCount(_board);
+
+        for (int t = 0; t < trials; t++) {
+            // partial Fisher-Yates shuffle: only the missing board cards are drawn, from the end of the deck
+            long board = 0L;
+            for (int i = deck.length - 1; i >= deck.length - missing; i--) {
+                int j = rand.nextInt(i + 1);
+                byte tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+                board |= 1L << deck[i];
+            }
+            tally.visit(board);
+        }
+        return tally.toResult();
+    }
+
+    /**
+     * Win/tie/loss tallies of the boards completed by the cards passed to <code>visit()</code>.
+     */
+    private static final class Tally implements CombinationEnumerator.Visitor {
+        private final long[] _holeCards;
+        private final long _board;
+        private final long[] _wins;
+        private final long[] _ties;
+        private final double[] _shares;
+        private final double[] _squaredShares;
+        private final int[] _values;
+        private long _trials;
+
+        private Tally(final long[] holeCards, final long board) {
+            int players = holeCards.length;
+            _holeCards = holeCards;
+            _board = board;
+            _wins = new long[players];
+            _ties = new long[players];
+            _shares = new double[players];
+            _squaredShares = new double[players];
+            _values = new int[players];
+        }
+
+        /**
+         * Tallies the board made of the known board cards and the given cards.
+         *
+         * @param mask bit mask of the missing board cards
+         */
+        @Override
+        public void visit(final long mask) {
+            long board = _board | mask;
+            int players = _holeCards.length;
+            int best = -1;
+            int winners = 0;
+            for (int p = 0; p < players; p++) {
+                _values[p] = HandEvaluator.evaluate(_holeCards[p] | board);
+                if (_values[p] > best) {
+                    best = _values[p];
+                    winners = 1;
+                } else if (_values[p] == best) {
+                    winners++;
+                }
+            }
+            double share = 1.0 / winners;
+            for (int p = 0; p < players; p++) {
+                if (_values[p] == best) {
+                    if (winners == 1) {
+                        _wins[p]++;
+                    } else {
+                        _ties[p]++;
+                    }
+                    _shares[p] += share;
+                    _squaredShares[p] += share * share;
+                }
+            }
+            _trials++;
+        }
+
+        private EquityResult toResult() {
+            return new EquityResult(_trials, _wins, _ties, _shares, _squaredShares);
+        }
+    }
+
+    /**
+     * Returns the number of standard errors on either side of the mean that a two-sided confidence interval with
+     * the given confidence level spans (e.g., 1.96 for 0.95).  The inverse of the normal distribution is computed
+     * with P. J. Acklam's rational approximation, which has a relative error below 1.2e-9.
+     *
+     * @param confidence confidence level
+     * @return the z-score of the confidence level
+     * @throws IllegalArgumentException if <code>confidence</code> is not between 0 and 1
+     */
+    static double zScore(final double confidence) {
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("confidence must be between 0 and 1");
+        }
+        // upper tail probability of the interval
+        double p = (1 - confidence) / 2;
+        if (p < 0.02425) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return -(((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                    - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+                    / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                    + 3.754408661907416e+00) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return -(((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+                + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+                / (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+                + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+    }
+}
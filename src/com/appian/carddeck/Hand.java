@@ -0,0 +1,169 @@
+/*
+ *    File: Hand.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Class representing a poker hand of five to seven distinct cards (e.g., a player's two hole cards and the five
+ * community cards in Texas hold'em).  The hand is evaluated by <code>HandEvaluator</code> when it is constructed,
+ * so comparing two hands is a comparison of two <code>int</code> values.
+ * This class is immutable.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class Hand implements Comparable<Hand>, Serializable {
+
+    private static final long serialVersionUID = 2817402183457043919L;
+
+    /**
+     * The cards in the hand.
+     */
+    private final CardSet _cards;
+    /**
+     * Value of the best five-card poker hand in the hand (see <code>HandEvaluator</code>).
+     */
+    private final int _value;
+
+
+    /**
+     * Constructs a hand from the given cards.  This constructor will throw a <code>NullPointerException</code> if
+     * any of the cards is <code>null</code>.
+     *
+     * @param cards five to seven distinct cards
+     * @throws IllegalArgumentException if there are not five to seven distinct cards
+     */
+    public Hand(final Card... cards) {
+        _value = HandEvaluator.evaluate(cards);
+        _cards = CardSet.of(cards);
+    }
+
+    /**
+     * Constructs a hand from the given set of cards.  This constructor will throw a
+     * <code>NullPointerException</code> if the set is <code>null</code>.
+     *
+     * @param cards five to seven cards
+     * @throws IllegalArgumentException if the set does not hold five to seven cards
+     */
+    public Hand(final CardSet cards) {
+        _value = HandEvaluator.evaluate(cards);
+        _cards = cards;
+    }
+
+    /**
+     * Returns the cards in the hand.
+     *
+     * @return the cards in the hand
+     */
+    public CardSet getCards() {
+        return _cards;
+    }
+
+    /**
+     * Returns the value of the best five-card poker hand in the hand.  A stronger hand has a greater value.
+     *
+     * @return the value of the hand
+     */
+    public int getValue() {
+        return _value;
+    }
+
+    /**
+     * Returns the category of the best five-card poker hand in the hand (e.g., a full house).
+     *
+     * @return the category of the hand
+     */
+    public HandCategory getCategory() {
+        return HandEvaluator.getCategory(_value);
+    }
+
+    /**
+     * Compares this hand with another by the strength of their best five-card poker hands.  Note that this
+     * ordering is not consistent with <code>equals()</code>: hands with different cards may be of equal strength.
+     *
+     * @param h the Hand to be compared
+     * @return a negative integer, zero, or a positive integer as this hand is weaker than, as strong as, or
+     * stronger than the specified hand
+     */
+    @Override
+    public int compareTo(final Hand h) {
+        return Integer.compare(_value, h._value);
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the hand: its category, followed by its cards.
+     *
+     * @return <code>String</code> representation of the hand
+     */
+    @Override
+    public String toString() {
+        return this.appendTo(new StringBuilder(16 + _cards.size() * Deck.CHARS_PER_CARD)).toString();
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the hand (see <code>toString()</code>) to
+     * <code>out</code>.  The names of the category and of the cards are cached, so nothing is allocated other
+     * than by <code>out</code> itself.
+     *
+     * @param out destination of the characters
+     * @throws IOException if <code>out</code> throws one
+     */
+    public void appendTo(final Appendable out) throws IOException {
+        out.append(this.getCategory().toString()).append(' ');
+        _cards.appendTo(out);
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the hand (see <code>toString()</code>) to the given
+     * <code>StringBuilder</code>.
+     *
+     * @param sb destination of the characters
+     * @return <code>sb</code>
+     */
+    public StringBuilder appendTo(final StringBuilder sb) {
+        try {
+            this.appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // a StringBuilder never throws IOException
+            throw new IllegalStateException(e);
+        }
+        return sb;
+    }
+
+
+    /**
+     * Indicates whether some other object is "equal to" this one.  Returns <tt>true</tt> if the other object
+     * is also a <code>Hand</code> holding the same cards.
+     *
+     * @param obj the object to be compared for equality with this Hand
+     * @return <tt>true</tt> if the specified object is equal to this Hand, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        // short-cut optimization
+        if (this == obj) {
+            return true;
+        }
+
+        // type check, also handles null reference
+        if (!(obj instanceof Hand)) {
+            return false;
+        }
+
+        return _cards.equals(((Hand) obj)._cards);
+    }
+
+    /**
+     * Returns the hash code for this hand, which is that of its cards.
+     *
+     * @return the hash code value for this hand
+     */
+    @Override
+    public int hashCode() {
+        return _cards.hashCode();
+    }
+}
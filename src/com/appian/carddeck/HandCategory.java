@@ -0,0 +1,39 @@
+/*
+ *    File: HandCategory.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+/**
+ * Enumeration representing the categories of poker hands, from the weakest to the strongest.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public enum HandCategory {
+    HIGH_CARD,
+    ONE_PAIR,
+    TWO_PAIR,
+    THREE_OF_A_KIND,
+    STRAIGHT,
+    FLUSH,
+    FULL_HOUSE,
+    FOUR_OF_A_KIND,
+    STRAIGHT_FLUSH;
+
+    /**
+     * String representation of the category, computed once.
+     */
+    private final String _displayName =
+            Character.toUpperCase(this.name().charAt(0)) + this.name().substring(1).toLowerCase().replace('_', ' ');
+
+    /**
+     * Returns a string representation of the HandCategory, in capitalized form (e.g., "Full house").
+     *
+     * @return string representation of HandCategory
+     */
+    @Override
+    public String toString() {
+        return _displayName;
+    }
+}
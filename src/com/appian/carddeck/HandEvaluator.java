@@ -0,0 +1,408 @@
+/*
+ *    File: HandEvaluator.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+/**
+ * Evaluator for poker hands of five, six, or seven cards.  The value of a hand is the value of the best
+ * five-card poker hand that can be made from its cards, encoded as an <code>int</code> so that a stronger hand
+ * always has a greater value:
+ * <pre>
+ *     category.ordinal() &lt;&lt; 20 | r1 &lt;&lt; 16 | r2 &lt;&lt; 12 | r3 &lt;&lt; 8 | r4 &lt;&lt; 4 | r5
+ * </pre>
+ * where <code>r1..r5</code> are the ranks that decide between hands of the same category (e.g., the rank of the
+ * pair, then the three kickers), with deuce = 0 and ace = 12.
+ * <p>
+ * No cards are sorted or compared during an evaluation; it is done with two precomputed lookup tables, built
+ * once when the class is loaded:
+ * <ul>
+ * <li>a flush table, indexed by the 13-bit mask of the ranks held in one suit (which is how the suit is stored in
+ * a <code>CardSet</code> mask), giving the best flush or straight flush those ranks make, and</li>
+ * <li>a table indexed by a perfect hash of the number of cards held of each rank, giving the best hand those
+ * ranks make when there is no flush.  The hash is the position of the rank counts among all rank counts with the
+ * same number of cards, so the table has no gaps (49,205 entries for seven cards).  It is computed from the
+ * rank counts two ranks at a time.</li>
+ * </ul>
+ * This class is stateless, and may be used from any number of threads.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class HandEvaluator {
+
+    /**
+     * Smallest number of cards that can be evaluated.
+     */
+    public static final int MIN_CARDS = 5;
+    /**
+     * Largest number of cards that can be evaluated.
+     */
+    public static final int MAX_CARDS = 7;
+
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final int SUIT_MASK = (1 << HandEvaluator.NUM_RANKS) - 1;
+    private static final int MAX_PER_RANK = Suit.values().length;
+    private static final int NUM_RANK_PAIRS = (HandEvaluator.NUM_RANKS + 1) / 2;
+    private static final int CATEGORY_SHIFT = 20;
+    private static final HandCategory[] CATEGORIES = HandCategory.values();
+
+    /**
+     * Best flush or straight flush for each 13-bit suit mask with at least five ranks, zero otherwise.
+     */
+    private static final int[] FLUSH = new int[1 << HandEvaluator.NUM_RANKS];
+    /**
+     * For each suit mask, the rank counts it contributes: three bits per poker rank (deuce in the lowest bits).
+     */
+    private static final long[] RANK_COUNTS = new long[1 << HandEvaluator.NUM_RANKS];
+    /**
+     * Number of ways to hold <code>k</code> cards in <code>n</code> ranks, indexed by
+     * <code>n * (MAX_CARDS + 1) + k</code>.
+     */
+    private static final int[] WAYS = new int[(HandEvaluator.NUM_RANKS + 1) * (HandEvaluator.MAX_CARDS + 1)];
+    /**
+     * Amount the perfect hash is increased by <code>c</code> cards of poker rank <code>i</code> when <code>k</code>
+     * cards are held in the ranks from <code>i</code> up (see <code>offsetIndex()</code>).
+     */
+    private static final int[] HASH_OFFSET =
+            new int[HandEvaluator.NUM_RANKS * (HandEvaluator.MAX_CARDS + 1) * (HandEvaluator.MAX_PER_RANK + 1)];
+    /**
+     * The hash offsets of two adjacent ranks combined, so that the hash is computed in seven steps rather than
+     * thirteen.  Indexed by <code>(g * (MAX_CARDS + 1) + k) &lt;&lt; 6 | c</code>, where <code>k</code> cards are
+     * held in the ranks from <code>2 * g</code> up and <code>c</code> holds the three-bit counts of ranks
+     * <code>2 * g</code> and <code>2 * g + 1</code>; each entry is the combined offset shifted left by three bits,
+     * plus the number of cards in the two ranks.
+     */
+    private static final int[] HASH_STEP =
+            new int[HandEvaluator.NUM_RANK_PAIRS * (HandEvaluator.MAX_CARDS + 1) << 6];
+    /**
+     * Start of the entries for hands of <code>n</code> cards in <code>NON_FLUSH</code>.
+     */
+    private static final int[] BASE = new int[HandEvaluator.MAX_CARDS + 1];
+    /**
+     * Best hand without a flush for each perfect hash of rank counts.
+     */
+    private static final int[] NON_FLUSH;
+
+    static {
+        HandEvaluator.initHash();
+        int size = 0;
+        for (int n = HandEvaluator.MIN_CARDS; n <= HandEvaluator.MAX_CARDS; n++) {
+            HandEvaluator.BASE[n] = size;
+            size += HandEvaluator.ways(HandEvaluator.NUM_RANKS, n);
+        }
+        NON_FLUSH = new int[size];
+        for (int n = HandEvaluator.MIN_CARDS; n <= HandEvaluator.MAX_CARDS; n++) {
+            HandEvaluator.fillNonFlush(new int[HandEvaluator.NUM_RANKS], 0, n, n);
+        }
+
+        int[] counts = new int[HandEvaluator.NUM_RANKS];
+        for (int m = 0; m < HandEvaluator.FLUSH.length; m++) {
+            int ranks = HandEvaluator.toPokerRanks(m);
+            long packed = 0L;
+            for (int r = 0; r < HandEvaluator.NUM_RANKS; r++) {
+                counts[r] = (ranks >>> r) & 1;
+                packed |= (long) counts[r] << (3 * r);
+            }
+            HandEvaluator.RANK_COUNTS[m] = packed;
+            if (Integer.bitCount(m) >= HandEvaluator.MIN_CARDS) {
+                HandEvaluator.FLUSH[m] = HandEvaluator.bestHand(counts, true);
+            }
+        }
+    }
+
+
+    /**
+     * Prevents instantiation.
+     */
+    private HandEvaluator() {
+    }
+
+    /**
+     * Returns the value of the best five-card poker hand that can be made from the cards in the given bit mask
+     * (see <code>CardSet.getMask()</code>).
+     *
+     * @param mask bit mask of five to seven cards
+     * @return the value of the hand; a stronger hand has a greater value
+     * @throws IllegalArgumentException if the mask does not hold five to seven cards
+     */
+    public static int evaluate(final long mask) {
+        int n = Long.bitCount(mask);
+        if (n < HandEvaluator.MIN_CARDS || n > HandEvaluator.MAX_CARDS || (mask >>> Card.NUM_CARDS) != 0) {
+            throw new IllegalArgumentException("mask must hold between 5 and 7 cards");
+        }
+        int s0 = (int) mask & HandEvaluator.SUIT_MASK;
+        int s1 = (int) (mask >>> HandEvaluator.NUM_RANKS) & HandEvaluator.SUIT_MASK;
+        int s2 = (int) (mask >>> (2 * HandEvaluator.NUM_RANKS)) & HandEvaluator.SUIT_MASK;
+        int s3 = (int) (mask >>> (3 * HandEvaluator.NUM_RANKS));
+
+        // With at most seven cards, a hand that holds a flush cannot also hold a full house or four of a kind,
+        // so the flush is the best hand
+        if (Integer.bitCount(s0) >= HandEvaluator.MIN_CARDS) {
+            return HandEvaluator.FLUSH[s0];
+        }
+        if (Integer.bitCount(s1) >= HandEvaluator.MIN_CARDS) {
+            return HandEvaluator.FLUSH[s1];
+        }
+        if (Integer.bitCount(s2) >= HandEvaluator.MIN_CARDS) {
+            return HandEvaluator.FLUSH[s2];
+        }
+        if (Integer.bitCount(s3) >= HandEvaluator.MIN_CARDS) {
+            return HandEvaluator.FLUSH[s3];
+        }
+
+        // The counts of one rank never exceed 4, so adding the counts of the suits cannot carry between ranks
+        long counts = HandEvaluator.RANK_COUNTS[s0] + HandEvaluator.RANK_COUNTS[s1]
+                + HandEvaluator.RANK_COUNTS[s2] + HandEvaluator.RANK_COUNTS[s3];
+        int hash = HandEvaluator.BASE[n];
+        for (int g = 0, k = n; g < HandEvaluator.NUM_RANK_PAIRS; g++) {
+            int step = HandEvaluator.HASH_STEP[(g * (HandEvaluator.MAX_CARDS + 1) + k) << 6
+                    | (int) (counts >>> (6 * g)) & 0x3F];
+            hash += step >>> 3;
+            k -= step & 7;
+        }
+        return HandEvaluator.NON_FLUSH[hash];
+    }
+
+    /**
+     * Returns the value of the best five-card poker hand that can be made from the given set of cards.
+     * This method will throw a <code>NullPointerException</code> if the set is <code>null</code>.
+     *
+     * @param cards five to seven cards
+     * @return the value of the hand; a stronger hand has a greater value
+     * @throws IllegalArgumentException if the set does not hold five to seven cards
+     */
+    public static int evaluate(final CardSet cards) {
+        if (cards == null) {
+            throw new NullPointerException("card set is null");
+        }
+        return HandEvaluator.evaluate(cards.getMask());
+    }
+
+    /**
+     * Returns the value of the best five-card poker hand that can be made from the given cards.
+     * This method will throw a <code>NullPointerException</code> if any of the cards is <code>null</code>.
+     *
+     * @param cards five to seven distinct cards
+     * @return the value of the hand; a stronger hand has a greater value
+     * @throws IllegalArgumentException if there are not five to seven distinct cards
+     */
+    public static int evaluate(final Card... cards) {
+        long mask = 0L;
+        for (Card c : cards) {
+            if (c == null) {
+                throw new NullPointerException("card is null");
+            }
+            mask |= CardSet.maskOf(c);
+        }
+        if (Long.bitCount(mask) != cards.length) {
+            throw new IllegalArgumentException("cards are not distinct");
+        }
+        return HandEvaluator.evaluate(mask);
+    }
+
+    /**
+     * Returns the category of a hand value returned by <code>evaluate()</code>.
+     *
+     * @param value value of a hand
+     * @return the category of the hand
+     */
+    public static HandCategory getCategory(final int value) {
+        return HandEvaluator.CATEGORIES[value >>> HandEvaluator.CATEGORY_SHIFT];
+    }
+
+    /**
+     * Converts a suit mask, in which bit <code>i</code> is the rank with ordinal <code>i</code> (ace = 0), to a
+     * mask of poker ranks (deuce = 0, ace = 12).
+     */
+    private static int toPokerRanks(final int suitMask) {
+        return (suitMask >>> 1) | ((suitMask & 1) << (HandEvaluator.NUM_RANKS - 1));
+    }
+
+    /**
+     * Returns the number of ways to hold <code>k</code> cards in <code>n</code> ranks, with at most four cards in
+     * each rank.
+     */
+    private static int ways(final int n, final int k) {
+        return HandEvaluator.WAYS[n * (HandEvaluator.MAX_CARDS + 1) + k];
+    }
+
+    /**
+     * Returns the index in <code>HASH_OFFSET</code> of <code>c</code> cards of poker rank <code>i</code> when
+     * <code>k</code> cards are held in the ranks from <code>i</code> up.
+     */
+    private static int offsetIndex(final int i, final int k, final int c) {
+        return (i * (HandEvaluator.MAX_CARDS + 1) + k) * (HandEvaluator.MAX_PER_RANK + 1) + c;
+    }
+
+    /**
+     * Fills the <code>WAYS</code>, <code>HASH_OFFSET</code> and <code>HASH_STEP</code> tables.  The perfect hash of
+     * a hand's rank counts is their position in the lexicographic order of all rank counts with the same number of
+     * cards: for each rank, every smaller count at that rank precedes it, along with all the ways of holding the rest
+     * of the cards in the higher ranks.
+     */
+    private static void initHash() {
+        int stride = HandEvaluator.MAX_CARDS + 1;
+        HandEvaluator.WAYS[0] = 1;
+        for (int n = 1; n <= HandEvaluator.NUM_RANKS; n++) {
+            for (int k = 0; k <= HandEvaluator.MAX_CARDS; k++) {
+                for (int c = 0; c <= Math.min(HandEvaluator.MAX_PER_RANK, k); c++) {
+                    HandEvaluator.WAYS[n * stride + k] += HandEvaluator.ways(n - 1, k - c);
+                }
+            }
+        }
+        for (int i = 0; i < HandEvaluator.NUM_RANKS; i++) {
+            int higherRanks = HandEvaluator.NUM_RANKS - 1 - i;
+            for (int k = 0; k <= HandEvaluator.MAX_CARDS; k++) {
+                int offset = 0;
+                for (int c = 0; c <= Math.min(HandEvaluator.MAX_PER_RANK, k); c++) {
+                    HandEvaluator.HASH_OFFSET[HandEvaluator.offsetIndex(i, k, c)] = offset;
+                    offset += HandEvaluator.ways(higherRanks, k - c);
+                }
+            }
+        }
+        for (int g = 0; g < HandEvaluator.NUM_RANK_PAIRS; g++) {
+            int low = 2 * g;
+            for (int k = 0; k <= HandEvaluator.MAX_CARDS; k++) {
+                for (int c0 = 0; c0 <= Math.min(HandEvaluator.MAX_PER_RANK, k); c0++) {
+                    int maxHigh = low + 1 < HandEvaluator.NUM_RANKS ? Math.min(HandEvaluator.MAX_PER_RANK, k - c0) : 0;
+                    for (int c1 = 0; c1 <= maxHigh; c1++) {
+                        int offset = HandEvaluator.HASH_OFFSET[HandEvaluator.offsetIndex(low, k, c0)];
+                        if (c1 > 0) {
+                            offset += HandEvaluator.HASH_OFFSET[HandEvaluator.offsetIndex(low + 1, k - c0, c1)];
+                        }
+                        HandEvaluator.HASH_STEP[(g * stride + k) << 6 | c1 << 3 | c0] = offset << 3 | (c0 + c1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Enumerates every way of holding <code>remaining</code> more cards in the ranks from <code>rank</code> up,
+     * and stores the best hand each makes in <code>NON_FLUSH</code> at <code>hash</code>.
+     */
+    private static void fillNonFlush(final int[] counts, final int rank, final int remaining, final int n) {
+        if (rank == HandEvaluator.NUM_RANKS) {
+            if (remaining == 0) {
+                int hash = HandEvaluator.BASE[n];
+                for (int i = 0, k = n; i < HandEvaluator.NUM_RANKS; i++) {
+                    hash += HandEvaluator.HASH_OFFSET[HandEvaluator.offsetIndex(i, k, counts[i])];
+                    k -= counts[i];
+                }
+                HandEvaluator.NON_FLUSH[hash] = HandEvaluator.bestHand(counts, false);
+            }
+            return;
+        }
+        for (int c = 0; c <= Math.min(HandEvaluator.MAX_PER_RANK, remaining); c++) {
+            counts[rank] = c;
+            HandEvaluator.fillNonFlush(counts, rank + 1, remaining - c, n);
+        }
+        counts[rank] = 0;
+    }
+
+    /**
+     * Returns the value of the best five-card hand that can be made from the given number of cards of each poker
+     * rank.  This is only used to build the lookup tables.
+     *
+     * @param counts number of cards of each poker rank
+     * @param suited <tt>true</tt> if all of the cards are of one suit
+     * @return the value of the hand
+     */
+    private static int bestHand(final int[] counts, final boolean suited) {
+        int ranks = 0;
+        int quads = -1;
+        int trips = -1;
+        int secondTrips = -1;
+        int pair = -1;
+        int secondPair = -1;
+        for (int r = HandEvaluator.NUM_RANKS - 1; r >= 0; r--) {
+            if (counts[r] > 0) {
+                ranks |= 1 << r;
+            }
+            if (counts[r] == 4) {
+                quads = r;
+            } else if (counts[r] == 3) {
+                if (trips < 0) {
+                    trips = r;
+                } else if (secondTrips < 0) {
+                    secondTrips = r;
+                }
+            } else if (counts[r] == 2) {
+                if (pair < 0) {
+                    pair = r;
+                } else if (secondPair < 0) {
+                    secondPair = r;
+                }
+            }
+        }
+        int straight = HandEvaluator.straightTop(ranks);
+
+        if (suited) {
+            return straight >= 0
+                    ? HandEvaluator.encode(HandCategory.STRAIGHT_FLUSH, straight, 1)
+                    : HandEvaluator.encode(HandCategory.FLUSH, HandEvaluator.highRanks(ranks, 5), 5);
+        }
+        if (quads >= 0) {
+            return HandEvaluator.encode(HandCategory.FOUR_OF_A_KIND,
+                    quads << 4 | HandEvaluator.highRanks(ranks & ~(1 << quads), 1), 2);
+        }
+        if (trips >= 0 && (secondTrips >= 0 || pair >= 0)) {
+            return HandEvaluator.encode(HandCategory.FULL_HOUSE, trips << 4 | Math.max(secondTrips, pair), 2);
+        }
+        if (straight >= 0) {
+            return HandEvaluator.encode(HandCategory.STRAIGHT, straight, 1);
+        }
+        if (trips >= 0) {
+            return HandEvaluator.encode(HandCategory.THREE_OF_A_KIND,
+                    trips << 8 | HandEvaluator.highRanks(ranks & ~(1 << trips), 2), 3);
+        }
+        if (secondPair >= 0) {
+            return HandEvaluator.encode(HandCategory.TWO_PAIR, pair << 8 | secondPair << 4
+                    | HandEvaluator.highRanks(ranks & ~(1 << pair) & ~(1 << secondPair), 1), 3);
+        }
+        if (pair >= 0) {
+            return HandEvaluator.encode(HandCategory.ONE_PAIR,
+                    pair << 12 | HandEvaluator.highRanks(ranks & ~(1 << pair), 3), 4);
+        }
+        return HandEvaluator.encode(HandCategory.HIGH_CARD, HandEvaluator.highRanks(ranks, 5), 5);
+    }
+
+    /**
+     * Returns the highest card of the best straight in a mask of poker ranks (3 for a five-high straight), or -1.
+     */
+    private static int straightTop(final int ranks) {
+        for (int top = HandEvaluator.NUM_RANKS - 1; top >= 4; top--) {
+            int straight = 0x1F << (top - 4);
+            if ((ranks & straight) == straight) {
+                return top;
+            }
+        }
+        // the ace plays low in a five-high straight (the 'wheel')
+        int wheel = 0xF | 1 << (HandEvaluator.NUM_RANKS - 1);
+        return (ranks & wheel) == wheel ? 3 : -1;
+    }
+
+    /**
+     * Returns the <code>n</code> highest ranks in a mask of poker ranks, packed four bits each with the highest
+     * first.
+     */
+    private static int highRanks(final int ranks, final int n) {
+        int packed = 0;
+        int remaining = ranks;
+        for (int i = 0; i < n; i++) {
+            int r = 31 - Integer.numberOfLeadingZeros(remaining);
+            packed = packed << 4 | r;
+            remaining &= ~(1 << r);
+        }
+        return packed;
+    }
+
+    /**
+     * Packs a category and its <code>n</code> deciding ranks into a hand value, with the ranks left-aligned below
+     * the category.
+     */
+    private static int encode(final HandCategory category, final int packedRanks, final int n) {
+        return category.ordinal() << HandEvaluator.CATEGORY_SHIFT | packedRanks << (4 * (5 - n));
+    }
+}
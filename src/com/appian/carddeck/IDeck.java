@@ -4,8 +4,14 @@
  */
 package com.appian.carddeck;
 
+import java.util.Arrays;
+
 /**
  * Interface specifying operations that a deck of cards must implement.
+ * The bulk deal operations (<code>dealCards()</code>, <code>dealInto()</code>, and <code>dealRound()</code>) have
+ * default implementations in terms of <code>dealOneCard()</code>; implementations should override
+ * <code>dealInto()</code> with a single range operation on their backing storage.  <code>removeAll()</code> has a
+ * default implementation in terms of <code>remove()</code>.
  */
 public interface IDeck {
     /**
@@ -23,4 +29,150 @@ public interface IDeck {
      * @return A single <code>Card</code> from the deck
      */
     Card dealOneCard();
+
+    /**
+     * Empties the deck of any remaining cards and repopulates it with all of its cards, in their original order.
+     */
+    void reset();
+
+    /**
+     * Returns the number of cards currently contained in the deck.
+     *
+     * @return number of cards in the deck
+     */
+    int getSize();
+
+    /**
+     * Deals up to <code>n</code> cards from the deck, in the same order as <code>n</code> successive calls
+     * to <code>dealOneCard()</code>.  If fewer than <code>n</code> cards remain, all of the remaining cards
+     * are dealt, so the returned array may be shorter than <code>n</code> (and is empty if the deck is empty).
+     *
+     * @param n number of cards to deal
+     * @return the dealt cards
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    default Card[] dealCards(final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("number of cards is negative");
+        }
+        int size = this.getSize();
+        if (DeckMetrics.ENABLED && n > size) {
+            DeckMetrics.of(this.getClass()).exhausted();
+        }
+        Card[] hand = new Card[Math.min(n, size)];
+        int dealt = this.dealInto(hand, 0, hand.length);
+        return dealt == hand.length ? hand : Arrays.copyOf(hand, dealt);
+    }
+
+    /**
+     * Shuffles the deck and deals up to <code>n</code> cards from it, as <code>shuffle()</code> followed by
+     * <code>dealCards(n)</code> would.  Implementations may shuffle lazily, so that only the dealt cards cost a
+     * random number (see <code>Deck.shuffleLazily()</code>).
+     *
+     * @param n number of cards to deal
+     * @return the dealt cards
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    default Card[] shuffleAndDeal(final int n) {
+        this.shuffle();
+        return this.dealCards(n);
+    }
+
+    /**
+     * Deals up to <code>n</code> cards from the deck into <code>dst</code>, starting at index <code>off</code>,
+     * in the same order as <code>n</code> successive calls to <code>dealOneCard()</code>.  If fewer than
+     * <code>n</code> cards remain, all of the remaining cards are dealt.
+     *
+     * @param dst array to deal the cards into
+     * @param off index of <code>dst</code> at which to store the first card
+     * @param n   number of cards to deal
+     * @return the number of cards dealt
+     * @throws IndexOutOfBoundsException if <code>off</code> or <code>n</code> is negative, or
+     *                                   <code>off + n</code> is greater than <code>dst.length</code>
+     */
+    default int dealInto(final Card[] dst, final int off, final int n) {
+        if (off < 0 || n < 0 || off > dst.length - n) {
+            throw new IndexOutOfBoundsException("off: " + off + ", n: " + n + ", length: " + dst.length);
+        }
+        for (int i = 0; i < n; i++) {
+            Card c = this.dealOneCard();
+            if (c == null) {
+                return i;
+            }
+            dst[off + i] = c;
+        }
+        return n;
+    }
+
+    /**
+     * Deals a round of <code>cardsEach</code> cards to each of <code>seats</code> players, one card at a time
+     * to each seat in turn (i.e., <code>hands[s][k]</code> is the card that <code>dealOneCard()</code> would
+     * have returned on call number <code>k * seats + s</code>).  If the deck holds fewer than
+     * <code>seats * cardsEach</code> cards, no cards are dealt and <code>null</code> is returned.
+     * Implementations that can be modified concurrently must override this method so that the whole round
+     * is dealt atomically.
+     *
+     * @param seats     number of players
+     * @param cardsEach number of cards dealt to each player
+     * @return the hands, indexed by seat, or <code>null</code> if there are not enough cards
+     * @throws IllegalArgumentException if <code>seats</code> is not positive or <code>cardsEach</code> is negative
+     */
+    default Card[][] dealRound(final int seats, final int cardsEach) {
+        if (seats <= 0 || cardsEach < 0) {
+            throw new IllegalArgumentException("seats: " + seats + ", cards each: " + cardsEach);
+        }
+        // compared by division, since seats * cardsEach may overflow
+        if (cardsEach > this.getSize() / seats) {
+            if (DeckMetrics.ENABLED) {
+                DeckMetrics.of(this.getClass()).exhausted();
+            }
+            return null;
+        }
+        int total = seats * cardsEach;
+        Card[] cards = new Card[total];
+        this.dealInto(cards, 0, total);
+        Card[][] hands = new Card[seats][cardsEach];
+        for (int i = 0; i < total; i++) {
+            hands[i % seats][i / seats] = cards[i];
+        }
+        return hands;
+    }
+
+    /**
+     * Indicates whether the deck holds the given card (any copy of it, if the deck holds several).
+     *
+     * @param c the card
+     * @return <tt>true</tt> if the deck holds the card, <tt>false</tt> otherwise
+     */
+    boolean contains(Card c);
+
+    /**
+     * Removes the given card (one copy of it, if the deck holds several) from the deck, e.g., a card that is known
+     * to be out of play.  The removed card is not dealt.  Implementations may move another of the remaining cards
+     * to take the place of the removed card, so removal may change the order of the remaining cards.
+     *
+     * @param c the card to remove
+     * @return <tt>true</tt> if the card was removed, <tt>false</tt> if the deck did not hold it
+     */
+    boolean remove(Card c);
+
+    /**
+     * Removes each of the given cards (one copy of each, if the deck holds several) from the deck, as
+     * <code>remove()</code> would.
+     *
+     * @param cards the cards to remove
+     * @return the number of cards removed
+     */
+    default int removeAll(final CardSet cards) {
+        if (cards == null) {
+            throw new NullPointerException("cards are null");
+        }
+        int removed = 0;
+        for (long m = cards.getMask(); m != 0; m &= m - 1) {
+            if (this.remove(Card.fromIndex(Long.numberOfTrailingZeros(m)))) {
+                removed++;
+            }
+        }
+        return removed;
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ *    File: IRandomGenerator.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+/**
+ * Interface specifying the source of randomness used to shuffle a deck of cards.
+ * Ready-made implementations are available from <code>com.appian.carddeck.RandomGenerators</code>.
+ * Implementations are not required to be thread safe; a generator should be owned by a single deck
+ * (or table) unless its documentation says otherwise.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public interface IRandomGenerator {
+    /**
+     * Returns a uniformly distributed pseudo-random <code>int</code> between 0 (inclusive) and the
+     * specified bound (exclusive).
+     *
+     * @param bound the upper bound (exclusive); must be positive
+     * @return a pseudo-random value, <code>0 &lt;= value &lt; bound</code>
+     * @throws IllegalArgumentException if <code>bound</code> is not positive
+     */
+    int nextInt(int bound);
+
+    /**
+     * Returns a uniformly distributed pseudo-random <code>long</code> value.
+     *
+     * @return a pseudo-random value
+     */
+    long nextLong();
+}
@@ -0,0 +1,137 @@
+/*
+ *    File: LatencyHistogram.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds, with one bucket per power of two: bucket 0 counts latencies of 0, and
+ * bucket <code>i</code> counts latencies from <code>2<sup>i-1</sup></code> to <code>2<sup>i</sup> - 1</code>.
+ * Recording a latency is a leading-zero count and the increment of a <code>LongAdder</code>, so threads record
+ * without contention; percentiles are reported as the upper bound of their bucket, i.e., to within a factor of 2.
+ * This class is thread safe.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of buckets: one for 0, and one for each bit of a positive <code>long</code>.
+     */
+    static final int NUM_BUCKETS = Long.SIZE;
+
+    private final LongAdder[] _buckets = new LongAdder[LatencyHistogram.NUM_BUCKETS];
+    private final LongAdder _totalNanos = new LongAdder();
+
+
+    /**
+     * Constructs an empty histogram.
+     */
+    LatencyHistogram() {
+        for (int i = 0; i < _buckets.length; i++) {
+            _buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the bucket of the given latency.
+     *
+     * @param nanos latency, in nanoseconds; negative latencies (from a clock adjustment) count as 0
+     * @return the index of the bucket
+     */
+    static int bucketOf(final long nanos) {
+        return nanos <= 0L ? 0 : Long.SIZE - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos latency, in nanoseconds
+     */
+    void record(final long nanos) {
+        _buckets[LatencyHistogram.bucketOf(nanos)].increment();
+        _totalNanos.add(Math.max(nanos, 0L));
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return the number of latencies
+     */
+    public long getCount() {
+        long count = 0L;
+        for (LongAdder bucket : _buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the mean latency.
+     *
+     * @return the mean latency, in nanoseconds; 0 if none has been recorded
+     */
+    public double getMean() {
+        long count = this.getCount();
+        return count == 0L ? 0.0 : (double) _totalNanos.sum() / count;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the latencies: the upper bound of the bucket that holds
+     * it.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the percentile, in nanoseconds; 0 if no latency has been recorded
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100
+     */
+    public long getPercentile(final double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = this.getBucketCounts();
+        long count = 0L;
+        for (long c : counts) {
+            count += c;
+        }
+        if (count == 0L) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == 0 ? 0L : (i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << i) - 1L);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns a snapshot of the count of each bucket.
+     *
+     * @return the counts, indexed by bucket
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[_buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = _buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the histogram's count, mean, and percentiles.
+     *
+     * @return <code>String</code> representation of the histogram
+     */
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + this.getCount() + ", mean=" + this.getMean()
+                + ", p50=" + this.getPercentile(50.0) + ", p99=" + this.getPercentile(99.0)
+                + ", p999=" + this.getPercentile(99.9) + "]";
+    }
+}
@@ -0,0 +1,751 @@
+/*
+ *    File: PackedDeck.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Class representing a traditional deck of cards comprised of 52 cards with four suits and thirteen ranks.
+ * This class implements the <code>com.appian.carddeck.IDeck</code> interface, and behaves the same way as
+ * <code>com.appian.carddeck.Deck</code>, but stores each card as a single byte (the card index, see
+ * <code>Card.getIndex()</code>) in a primitive array rather than as a reference in a <code>List</code>.
+ * The dealt cards are tracked with a top-of-deck cursor, so dealing a card never modifies the array, and
+ * resetting the deck is a single array copy.  This keeps the per-deck footprint small, which matters when
+ * many decks are held in memory at once.
+ * Extending classes can hold several decks (see <code>com.appian.carddeck.Shoe</code>).
+ * <b>NOTE:</b> This class is not thread safe, and is designed only for use in single-threaded applications.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class PackedDeck implements IDeck, Serializable {
+
+    private static final long serialVersionUID = 3962412964786375402L;
+    /**
+     * Card indices of a freshly populated deck.
+     * NOTE: As in <code>Deck</code>, cards are dealt from the end of the array, so the cards are kept in 'reverse'
+     * order (i.e., the highest value card is at position 0, and the lowest value card is at the end of the array).
+     */
+    static final byte[] TEMPLATE = new byte[Card.NUM_CARDS];
+
+    static {
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            TEMPLATE[i] = (byte) (Card.NUM_CARDS - 1 - i);
+        }
+    }
+
+    /**
+     * Array that contains the card indices for the deck.  Only the first <code>_size</code> entries are in the deck.
+     */
+    private final byte[] _cards;
+    /**
+     * Number of cards remaining in the deck (i.e., the top-of-deck cursor).
+     */
+    private int _size;
+    /**
+     * Indicates that the deck has been shuffled lazily (see <code>shuffleLazily()</code>): the remaining cards are
+     * still in their previous order, and each deal draws a random card from them.
+     */
+    private boolean _shufflePending;
+    /**
+     * Number of shuffles since the deck was last reset, or -1 if the deck cannot be rebuilt from a
+     * <code>DeckState</code> (it has been sorted, shuffled after a deal, or had cards removed since it was last
+     * reset).
+     */
+    private int _shufflesSinceReset;
+    /**
+     * Zobrist hash of the order of the cards (see <code>Zobrist</code>), if <code>_hashValid</code> is set.  It is
+     * updated as cards are dealt, and recomputed when it is needed after a shuffle or sort.
+     */
+    private transient long _hash;
+    /**
+     * Indicates that <code>_hash</code> is up to date.
+     */
+    private transient boolean _hashValid;
+    /**
+     * Inverse of <code>_cards</code>: the position of each card index in the array, if
+     * <code>_positionsValid</code> is set (see <code>positionOf()</code>).  It is built when a card is first looked
+     * up after a shuffle or sort, and kept up to date as cards are dealt and removed.
+     */
+    private transient int[] _positions;
+    /**
+     * Indicates that <code>_positions</code> is up to date.
+     */
+    private transient boolean _positionsValid;
+    /**
+     * Pseudo-random number generator.
+     * NOTE: Only the state of <code>SplitMix64</code> and <code>Xoshiro256StarStar</code> generators is part of the
+     * serialized form (see <code>DeckCodec</code>); a deck with any other generator is deserialized with a new
+     * default generator.
+     */
+    private transient IRandomGenerator _rand;
+
+
+    /**
+     * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits.
+     * The card deck is represented as an array of card indices.
+     * The deck is shuffled with the default generator (see <code>RandomGenerators.defaultGenerator()</code>).
+     */
+    public PackedDeck() {
+        this(RandomGenerators.defaultGenerator());
+    }
+
+    /**
+     * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits, that is shuffled
+     * with the given random number generator.  To get repeatable sequences for debugging, use a generator
+     * with a fixed seed (e.g., <code>RandomGenerators.xoshiro256StarStar(0)</code>).
+     * This constructor will throw a <code>NullPointerException</code> if the generator is <code>null</code>.
+     *
+     * @param rand random number generator used by <code>shuffle()</code>
+     */
+    public PackedDeck(final IRandomGenerator rand) {
+        this(1, rand);
+    }
+
+    /**
+     * Constructs a deck of 52 cards, with 13 cards from each of the four standard suits, whose shuffles are
+     * determined by the given seed.  Each shuffle draws from its own stream of a counter-based generator, so the
+     * state of the deck can be captured with <code>getState()</code> and rebuilt with <code>setState()</code>.
+     *
+     * @param seed seed of the shuffles
+     */
+    public PackedDeck(final long seed) {
+        this(1, new SplitMix64(seed));
+    }
+
+    /**
+     * Rebuilds a 52-card deck from its state.
+     *
+     * @param state state of a deck constructed with a seed
+     * @return a new deck in the given state
+     * @throws IllegalArgumentException if more cards have been dealt than the deck holds
+     */
+    public static PackedDeck fromState(final DeckState state) {
+        if (state == null) {
+            throw new NullPointerException("state is null");
+        }
+        PackedDeck deck = new PackedDeck(state.getSeed());
+        deck.setState(state);
+        return deck;
+    }
+
+    /**
+     * Constructs a 'shoe' of <code>deckCount</code> decks of 52 cards each, that is shuffled with the given
+     * random number generator.  This constructor is intended for extending classes, such as <code>Shoe</code>.
+     * This constructor will throw a <code>NullPointerException</code> if the generator is <code>null</code>.
+     *
+     * @param deckCount number of 52-card decks
+     * @param rand      random number generator used by <code>shuffle()</code>
+     * @throws IllegalArgumentException if <code>deckCount</code> is not positive
+     */
+    protected PackedDeck(final int deckCount, final IRandomGenerator rand) {
+        if (deckCount <= 0) {
+            throw new IllegalArgumentException("deck count must be positive");
+        }
+        if (rand == null) {
+            throw new NullPointerException("random number generator is null");
+        }
+        _rand = rand;
+
+        _cards = new byte[deckCount * Card.NUM_CARDS];
+        this.populateDeck();
+    }
+
+    /**
+     * Empties the deck of any remaining cards and repopulates it with 52 cards (for each deck in a 'shoe').
+     */
+    @Override
+    public void reset() {
+        long start = DeckMetrics.ENABLED ? System.nanoTime() : 0L;
+        Object event = DeckMetrics.ENABLED ? DeckMetrics.beginReset() : null;
+        this.populateDeck();
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).reset(start, event, _size);
+        }
+    }
+
+    /**
+     * Fills the deck with 52 cards for each of its decks, in natural order.
+     */
+    private void populateDeck() {
+        for (int i = 0; i < _cards.length; i += Card.NUM_CARDS) {
+            System.arraycopy(PackedDeck.TEMPLATE, 0, _cards, i, Card.NUM_CARDS);
+        }
+        _size = _cards.length;
+        _shufflePending = false;
+        _shufflesSinceReset = 0;
+        // the hash of a 'shoe' is computed when it is needed
+        _hash = Zobrist.FULL_DECK;
+        _hashValid = _cards.length == Card.NUM_CARDS;
+        _positionsValid = false;
+    }
+
+    /**
+     * Sorts the card deck into a conventional 'ordered' representation (grouped by <code>Suit</code>, and
+     * then sorted by <code>Rank</code> within <code>Suit</code>).  Because the card index already follows
+     * this order, the cards are sorted by index, with a counting sort (see <code>sortCards()</code>).
+     */
+    public void sort() {
+        _shufflePending = false;
+        _shufflesSinceReset = -1;
+        _hashValid = false;
+        _positionsValid = false;
+        PackedDeck.sortCards(_cards, _size);
+    }
+
+    /**
+     * Sorts the first <code>size</code> card indices of the given array into 'reverse' natural order (so the
+     * lowest card is dealt first), with a counting sort: the copies of each card are counted, and the array is
+     * then overwritten in order.  The sort takes <i>O(n)</i> time and makes no comparisons, however many decks the
+     * array holds.
+     *
+     * @param cards card indices, bottom card first
+     * @param size  number of cards to sort
+     */
+    static void sortCards(final byte[] cards, final int size) {
+        int[] counts = new int[Card.NUM_CARDS];
+        for (int i = 0; i < size; i++) {
+            counts[cards[i]]++;
+        }
+        int position = 0;
+        for (int i = Card.NUM_CARDS - 1; i >= 0; i--) {
+            byte card = (byte) i;
+            for (int n = counts[i]; n > 0; n--) {
+                cards[position++] = card;
+            }
+        }
+    }
+
+    /**
+     * Shuffles the deck of cards.  Implements the <code>com.appian.carddeck.IDeck.shuffle()</code> method.
+     * Uses the <i>Durstenfeld</i> version of the <i>Fisher-Yates</i> shuffle.  The shuffle occurs in <i>O(n)</i> time,
+     * and because it swaps cards 'in place', it does not require additional memory.
+     */
+    @Override
+    public void shuffle() {
+        long start = DeckMetrics.ENABLED ? System.nanoTime() : 0L;
+        Object event = DeckMetrics.ENABLED ? DeckMetrics.beginShuffle() : null;
+        this.startShuffle();
+        _shufflePending = false;
+        this.shuffleRemaining();
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).shuffled(start, event, _size);
+        }
+    }
+
+    /**
+     * Shuffles the deck lazily: rather than permuting all of the cards now, each subsequent deal draws a random
+     * card from the cards that remain, which is one step of the same <i>Fisher-Yates</i> shuffle that
+     * <code>shuffle()</code> performs.  Only the cards that are actually dealt cost a random number, and the
+     * dealt cards are as uniformly distributed as after a full shuffle.  If the order of the remaining cards is
+     * observed (e.g., by <code>toString()</code> or <code>equals()</code>) before the deck is dealt out, the
+     * shuffle of the remaining cards is completed first.  The lazy shuffle ends when the deck is shuffled,
+     * sorted, or reset.
+     */
+    public void shuffleLazily() {
+        this.startShuffle();
+        _shufflePending = true;
+        if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).shuffledLazily();
+        }
+    }
+
+    /**
+     * Counts a shuffle, and starts the next stream of a seeded generator.
+     */
+    private void startShuffle() {
+        // a shuffle can only be replayed if no card has been dealt, and no lazy shuffle abandoned, before it
+        if (_size != _cards.length || _shufflePending) {
+            _shufflesSinceReset = -1;
+        } else if (_shufflesSinceReset >= 0) {
+            _shufflesSinceReset++;
+        }
+        _hashValid = false;
+        _positionsValid = false;
+        if (_rand instanceof SplitMix64) {
+            ((SplitMix64) _rand).nextStream();
+        }
+    }
+
+    /**
+     * Returns the state of the deck, from which <code>setState()</code> or <code>fromState()</code> rebuild it.
+     * The state is only defined for a deck constructed with a seed that, since it was last reset, has not been
+     * sorted, shuffled after a card was dealt, or had cards removed.
+     *
+     * @return the state of the deck
+     * @throws IllegalStateException if the deck was not constructed with a seed, or cannot be rebuilt
+     */
+    public DeckState getState() {
+        if (!(_rand instanceof SplitMix64)) {
+            throw new IllegalStateException("deck was not constructed with a seed");
+        }
+        if (_shufflesSinceReset < 0) {
+            throw new IllegalStateException("deck has been sorted, reshuffled, or had cards removed since it was "
+                    + "last reset");
+        }
+        SplitMix64 rand = (SplitMix64) _rand;
+        return new DeckState(rand.getSeed(), rand.getStreamCount(), _shufflesSinceReset, _cards.length - _size);
+    }
+
+    /**
+     * Puts the deck in the given state: the generator jumps directly to the first shuffle since the reset, so
+     * only the shuffles since the reset are replayed, and the dealt cards are dealt again.
+     *
+     * @param state state of a deck constructed with a seed
+     * @throws IllegalStateException    if the deck was not constructed with a seed
+     * @throws IllegalArgumentException if more cards have been dealt than the deck holds
+     */
+    public void setState(final DeckState state) {
+        if (state == null) {
+            throw new NullPointerException("state is null");
+        }
+        if (!(_rand instanceof SplitMix64)) {
+            throw new IllegalStateException("deck was not constructed with a seed");
+        }
+        if (state.getCursor() > _cards.length) {
+            throw new IllegalArgumentException("invalid cursor: " + state.getCursor());
+        }
+        this.reset();
+        ((SplitMix64) _rand).jump(state.getSeed(), state.getShuffleCount() - state.getShufflesSinceReset() - 1);
+        for (int i = 0; i < state.getShufflesSinceReset(); i++) {
+            this.shuffle();
+        }
+        for (int i = 0; i < state.getCursor(); i++) {
+            this.dealOneCard();
+        }
+    }
+
+    /**
+     * Shuffles the deck lazily and deals up to <code>n</code> cards from it, drawing exactly one random number
+     * for each card dealt.  Overrides the default <code>com.appian.carddeck.IDeck.shuffleAndDeal()</code> method.
+     *
+     * @param n number of cards to deal
+     * @return the dealt cards
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    @Override
+    public Card[] shuffleAndDeal(final int n) {
+        this.shuffleLazily();
+        return this.dealCards(n);
+    }
+
+    /**
+     * Permutes the remaining cards with the <i>Fisher-Yates</i> shuffle.
+     */
+    private void shuffleRemaining() {
+        for (int i = _size - 1; i > 0; i--) {
+            this.drawInto(i);
+        }
+    }
+
+    /**
+     * Completes a lazy shuffle, so that the order of the remaining cards can be observed.
+     */
+    private void completeShuffle() {
+        if (_shufflePending) {
+            _shufflePending = false;
+            _positionsValid = false;
+            this.shuffleRemaining();
+        }
+    }
+
+    /**
+     * Draws a random card from the first <code>i + 1</code> cards and swaps it into position <code>i</code>
+     * (one step of the shuffle).
+     */
+    private void drawInto(final int i) {
+        // Choose card to swap with index card
+        int j = _rand.nextInt(i + 1); // 0 <= j <= i
+        byte temp = _cards[j];
+        _cards[j] = _cards[i];
+        _cards[i] = temp;
+        if (_positionsValid) {
+            _positions[_cards[j]] = j;
+        }
+    }
+
+    /**
+     * Deals one card from the deck.  Implements the <code>com.appian.carddeck.IDeck.dealOneCard()</code> method.
+     * The card is taken from the 'end'/'back' of the array by moving the top-of-deck cursor, so the
+     * deal operation runs in <i>O(1)</i> time and does not allocate.
+     *
+     * @return A single instance of <code>Card</code>, or <code>null</code> if deck is empty
+     */
+    @Override
+    public Card dealOneCard() {
+        Card c = null;
+        if (_size > 0) {
+            if (_shufflePending) {
+                this.drawInto(_size - 1);
+            }
+            c = Card.fromIndex(_cards[--_size]);
+            if (_hashValid) {
+                _hash ^= Zobrist.key(_size, _cards[_size]);
+            }
+        } else if (DeckMetrics.ENABLED) {
+            DeckMetrics.of(this.getClass()).exhausted();
+        }
+        return c;
+    }
+
+    /**
+     * Deals up to <code>n</code> cards from the deck into <code>dst</code>.  Overrides the default
+     * <code>com.appian.carddeck.IDeck.dealInto()</code> method.  The whole range is dealt by moving the
+     * top-of-deck cursor once.
+     *
+     * @param dst array to deal the cards into
+     * @param off index of <code>dst</code> at which to store the first card
+     * @param n   number of cards to deal
+     * @return the number of cards dealt
+     */
+    @Override
+    public int dealInto(final Card[] dst, final int off, final int n) {
+        if (off < 0 || n < 0 || off > dst.length - n) {
+            throw new IndexOutOfBoundsException("off: " + off + ", n: " + n + ", length: " + dst.length);
+        }
+        int count = Math.min(n, _size);
+        int top = _size;
+        _size -= count;
+        for (int i = 0; i < count; i++) {
+            if (_shufflePending) {
+                this.drawInto(top - 1 - i);
+            }
+            dst[off + i] = Card.fromIndex(_cards[top - 1 - i]);
+            if (_hashValid) {
+                _hash ^= Zobrist.key(top - 1 - i, _cards[top - 1 - i]);
+            }
+        }
+        if (DeckMetrics.ENABLED && count < n) {
+            DeckMetrics.of(this.getClass()).exhausted();
+        }
+        return count;
+    }
+
+    /**
+     * Indicates whether the deck holds the given card.  Implements the
+     * <code>com.appian.carddeck.IDeck.contains()</code> method.  The card is looked up in the inverse position
+     * index (see <code>positionOf()</code>), in <i>O(1)</i> time.
+     *
+     * @param c the card
+     * @return <tt>true</tt> if the deck holds the card, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean contains(final Card c) {
+        if (c == null) {
+            throw new NullPointerException("card is null");
+        }
+        return this.positionOf(c.getIndex()) >= 0;
+    }
+
+    /**
+     * Removes the given card from the deck.  Implements the <code>com.appian.carddeck.IDeck.remove()</code>
+     * method.  The card is found with the inverse position index (see <code>positionOf()</code>), swapped with the
+     * top card, and taken out by moving the top-of-deck cursor, so removal runs in <i>O(1)</i> time: the top card
+     * takes the place of the removed card.  Like a dealt card, the removed card is in <code>getDealtCards()</code>
+     * afterwards.  A pending lazy shuffle is not disturbed.
+     *
+     * @param c the card to remove
+     * @return <tt>true</tt> if the card was removed, <tt>false</tt> if the deck did not hold it
+     */
+    @Override
+    public boolean remove(final Card c) {
+        if (c == null) {
+            throw new NullPointerException("card is null");
+        }
+        int position = this.positionOf(c.getIndex());
+        if (position < 0) {
+            return false;
+        }
+        int top = --_size;
+        byte card = _cards[position];
+        byte topCard = _cards[top];
+        if (_hashValid) {
+            _hash ^= Zobrist.key(position, card);
+            if (position != top) {
+                _hash ^= Zobrist.key(top, topCard) ^ Zobrist.key(position, topCard);
+            }
+        }
+        _cards[position] = topCard;
+        _cards[top] = card;
+        _positions[topCard] = position;
+        _positions[card] = -1;
+        _shufflesSinceReset = -1;
+        return true;
+    }
+
+    /**
+     * Returns the position of a copy of the given card among the remaining cards, or -1 if the deck does not hold
+     * it.  The position is looked up in the inverse position index, which is rebuilt (in <i>O(n)</i> time) if
+     * the deck has been shuffled or sorted since it was last used; a stale entry, e.g. of a dealt card, is
+     * detected by checking the card at the position.  The index records one copy of each card, so if the deck
+     * holds several copies (a 'shoe') and the recorded copy is gone, the remaining cards are searched for
+     * another.
+     */
+    private int positionOf(final int cardIndex) {
+        if (!_positionsValid) {
+            if (_positions == null) {
+                _positions = new int[Card.NUM_CARDS];
+            }
+            Arrays.fill(_positions, -1);
+            for (int i = 0; i < _size; i++) {
+                _positions[_cards[i]] = i;
+            }
+            _positionsValid = true;
+        }
+        int position = _positions[cardIndex];
+        if (position >= 0 && position < _size && _cards[position] == cardIndex) {
+            return position;
+        }
+        if (_cards.length > Card.NUM_CARDS) {
+            for (int i = _size - 1; i >= 0; i--) {
+                if (_cards[i] == cardIndex) {
+                    _positions[cardIndex] = i;
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of 52-card decks that the deck holds when it is full (1, unless this is a 'shoe').
+     *
+     * @return number of decks
+     */
+    public int getDeckCount() {
+        return _cards.length / Card.NUM_CARDS;
+    }
+
+    /**
+     * Returns the set of cards that have been dealt (or removed) since the deck was last reset.  The set is built
+     * from the cards above the top-of-deck cursor, so dealing does not have to track it.  If the deck holds several
+     * copies of a card (see <code>Shoe</code>), the card is in the set once any copy has been dealt.
+     *
+     * @return the dealt cards
+     */
+    public CardSet getDealtCards() {
+        long mask = 0L;
+        for (int i = _size; i < _cards.length; i++) {
+            mask |= 1L << _cards[i];
+        }
+        return CardSet.fromMask(mask);
+    }
+
+    /**
+     * Returns the number of cards currently contained in the deck.
+     *
+     * @return number of cards in the deck
+     */
+    @Override
+    public int getSize() {
+        return _size;
+    }
+
+    /**
+     * Returns a <code>String</code> representation of the cards in the deck.
+     *
+     * @return <code>String</code> representation of the cards in the deck
+     */
+    @Override
+    public String toString() {
+        return this.appendTo(new StringBuilder(_size * Deck.CHARS_PER_CARD)).toString();
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the cards in the deck (see <code>toString()</code>) to
+     * <code>out</code>.  The names of the cards are cached, so nothing is allocated other than by
+     * <code>out</code> itself.
+     *
+     * @param out destination of the characters
+     * @throws IOException if <code>out</code> throws one
+     */
+    public void appendTo(final Appendable out) throws IOException {
+        // Construct the string in 'reverse' order to make it appear the deck is in 'natural' order (i.e.,
+        // cards being dealt from front of deck).  This is done to comply with principle of 'least surprise'.
+        this.completeShuffle();
+        out.append('[');
+        for (int i = _size - 1; i >= 0; i--) {
+            out.append(Card.fromIndex(_cards[i]).toString());
+            if (i != 0) {
+                out.append(", ");
+            }
+        }
+        out.append(']');
+    }
+
+    /**
+     * Appends the <code>String</code> representation of the cards in the deck (see <code>toString()</code>) to the given
+     * <code>StringBuilder</code>.
+     *
+     * @param sb destination of the characters
+     * @return <code>sb</code>
+     */
+    public StringBuilder appendTo(final StringBuilder sb) {
+        try {
+            this.appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // a StringBuilder never throws IOException
+            throw new IllegalStateException(e);
+        }
+        return sb;
+    }
+
+
+    /**
+     * Compares the specified object with this PackedDeck for equality.  Returns
+     * <tt>true</tt> if and only if the specified object is also a PackedDeck, both
+     * decks have the same size, and all corresponding pairs of cards in
+     * the two decks are <i>equal</i>.  In other words, two decks are defined to be
+     * equal if they contain the same cards in the same order.  Decks of different
+     * sizes or hashes are unequal without comparing their cards.
+     *
+     * @param obj the object to be compared for equality with this PackedDeck
+     * @return <tt>true</tt> if the specified object is equal to this PackedDeck, <tt>false</tt> otherwise
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        // short-cut optimization
+        if (this == obj) {
+            return true;
+        }
+
+        // type check, also handles null reference
+        if (!(obj instanceof PackedDeck)) {
+            return false;
+        }
+
+        PackedDeck d = (PackedDeck) obj;
+        if (_size != d._size || this.zobristHash() != d.zobristHash()) {
+            return false;
+        }
+        for (int i = 0; i < _size; i++) {
+            if (_cards[i] != d._cards[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this deck.
+     * The hash code is derived from a Zobrist hash of the order of the cards (see <code>Zobrist</code>), which
+     * is updated in <i>O(1)</i> time as cards are dealt, and only recomputed after the deck has been shuffled or
+     * sorted.  It matches the hash code of a <code>Deck</code> holding the same cards in the same order.
+     *
+     * @return the hash code value for this deck
+     */
+    @Override
+    public int hashCode() {
+        return Zobrist.toHashCode(this.zobristHash());
+    }
+
+    /**
+     * Returns the Zobrist hash of the order of the cards, completing a lazy shuffle and recomputing the hash if
+     * necessary.
+     */
+    private long zobristHash() {
+        this.completeShuffle();
+        if (!_hashValid) {
+            _hash = Zobrist.hash(_cards, _size);
+            _hashValid = true;
+        }
+        return _hash;
+    }
+
+    /**
+     * Returns the random number generator of the deck.
+     *
+     * @return the generator
+     */
+    IRandomGenerator getRandomGenerator() {
+        return _rand;
+    }
+
+    /**
+     * Indicates whether the deck has been shuffled lazily and the shuffle has not yet been completed.
+     *
+     * @return <tt>true</tt> if a lazy shuffle is pending, <tt>false</tt> otherwise
+     */
+    boolean isShufflePending() {
+        return _shufflePending;
+    }
+
+    /**
+     * Returns the number of shuffles since the deck was last reset, or -1 if its state cannot be rebuilt (see
+     * <code>getState()</code>).
+     *
+     * @return the number of shuffles since the last reset
+     */
+    int getShufflesSinceReset() {
+        return _shufflesSinceReset;
+    }
+
+    /**
+     * Returns the index of the card at the given position of the array (the top card is at
+     * <code>getSize() - 1</code>, and the dealt cards are above it).
+     *
+     * @param position position in the array
+     * @return the card index
+     */
+    int cardIndexAt(final int position) {
+        return _cards[position];
+    }
+
+    /**
+     * Writes the card indices of the whole array, bottom card first, including the dealt cards above the
+     * top-of-deck cursor (see <code>DeckCodec</code>).
+     *
+     * @param dst buffer to write the cards to
+     */
+    void writeCards(final ByteBuffer dst) {
+        dst.put(_cards);
+    }
+
+    /**
+     * Replaces the cards of the deck with cards written by <code>writeCards()</code>.  The card indices must
+     * already have been validated.
+     *
+     * @param src                buffer to read the cards from
+     * @param size               number of remaining cards
+     * @param pending            <tt>true</tt> if a lazy shuffle is pending
+     * @param shufflesSinceReset number of shuffles since the last reset, or -1 if unknown
+     */
+    void readCards(final ByteBuffer src, final int size, final boolean pending, final int shufflesSinceReset) {
+        src.get(_cards);
+        _size = size;
+        _shufflePending = pending;
+        _shufflesSinceReset = shufflesSinceReset;
+        _hashValid = false;
+        _positionsValid = false;
+    }
+
+    /**
+     * Replaces the deck with its compact serialized form (see <code>DeckCodec</code>) when it is serialized.
+     * Extending classes other than <code>Shoe</code> are serialized with the default mechanism.
+     *
+     * @return the serialized form of the deck
+     * @throws ObjectStreamException never
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return DeckCodec.serializedForm(this);
+    }
+
+    /**
+     * Restores the transient state of a deserialized deck.
+     *
+     * @param in stream to read the deck from
+     * @throws IOException if the deck cannot be read
+     * @throws ClassNotFoundException if a class of a serialized object cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        _rand = RandomGenerators.defaultGenerator();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *    File: RandomGenerators.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Factory for the ready-made <code>IRandomGenerator</code> implementations that can be used to shuffle a deck.
+ * Every generator that can be reproduced takes an explicit seed, so that a sequence of shuffles can be
+ * repeated for debugging or auditing by constructing a new generator with the same seed.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public final class RandomGenerators {
+
+    /**
+     * Algorithm used for seeded <code>SecureRandom</code> generators.  This algorithm is deterministic when
+     * seeded before its first use.
+     */
+    private static final String SECURE_SEEDED_ALGORITHM = "SHA1PRNG";
+
+    /**
+     * Prevents instantiation.
+     */
+    private RandomGenerators() {
+    }
+
+    /**
+     * Returns the generator used by decks that are not given one explicitly.  This is a
+     * <code>SplittableRandom</code> with a unique seed, so decks created at the same time do not
+     * produce the same sequence of shuffles.
+     *
+     * @return a new generator
+     */
+    public static IRandomGenerator defaultGenerator() {
+        return new SplittableRandomGenerator(new SplittableRandom());
+    }
+
+    /**
+     * Returns a generator backed by a <code>java.util.SplittableRandom</code> with the given seed.
+     *
+     * @param seed initial seed
+     * @return a new generator
+     */
+    public static IRandomGenerator splittable(final long seed) {
+        return new SplittableRandomGenerator(new SplittableRandom(seed));
+    }
+
+    /**
+     * Returns a generator that delegates to <code>java.util.concurrent.ThreadLocalRandom</code>.
+     * The generator has no state of its own, so a single instance may be shared between threads,
+     * but its sequence cannot be seeded or reproduced.
+     *
+     * @return the thread-local generator
+     */
+    public static IRandomGenerator threadLocal() {
+        return ThreadLocalRandomGenerator.INSTANCE;
+    }
+
+    /**
+     * Returns a <i>xoshiro256**</i> generator with the given seed.
+     *
+     * @param seed initial seed
+     * @return a new generator
+     */
+    public static IRandomGenerator xoshiro256StarStar(final long seed) {
+        return new Xoshiro256StarStar(seed);
+    }
+
+    /**
+     * Returns a generator backed by a self-seeded, cryptographically strong <code>java.security.SecureRandom</code>,
+     * for games where the shuffle must not be predictable.  Its sequence cannot be reproduced.
+     *
+     * @return a new generator
+     */
+    public static IRandomGenerator secure() {
+        return new SecureRandomGenerator(new SecureRandom());
+    }
+
+    /**
+     * Returns a generator backed by a <code>java.security.SecureRandom</code> (SHA1PRNG) with the given seed.
+     * Because the seed is supplied before the first use, the sequence is reproducible.
+     *
+     * @param seed initial seed
+     * @return a new generator
+     * @throws IllegalStateException if the SHA1PRNG algorithm is not available
+     */
+    public static IRandomGenerator secure(final long seed) {
+        try {
+            SecureRandom rand = SecureRandom.getInstance(RandomGenerators.SECURE_SEEDED_ALGORITHM);
+            rand.setSeed(seed);
+            return new SecureRandomGenerator(rand);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(RandomGenerators.SECURE_SEEDED_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Adapter for <code>java.util.SplittableRandom</code>.
+     */
+    private static final class SplittableRandomGenerator implements IRandomGenerator {
+        private final SplittableRandom _rand;
+
+        private SplittableRandomGenerator(final SplittableRandom rand) {
+            _rand = rand;
+        }
+
+        @Override
+        public int nextInt(final int bound) {
+            return _rand.nextInt(bound);
+        }
+
+        @Override
+        public long nextLong() {
+            return _rand.nextLong();
+        }
+    }
+
+    /**
+     * Adapter for <code>java.util.concurrent.ThreadLocalRandom</code>.
+     */
+    private static final class ThreadLocalRandomGenerator implements IRandomGenerator {
+        private static final ThreadLocalRandomGenerator INSTANCE = new ThreadLocalRandomGenerator();
+
+        @Override
+        public int nextInt(final int bound) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+    }
+
+    /**
+     * Adapter for <code>java.security.SecureRandom</code>.
+     */
+    private static final class SecureRandomGenerator implements IRandomGenerator {
+        private final SecureRandom _rand;
+
+        private SecureRandomGenerator(final SecureRandom rand) {
+            _rand = rand;
+        }
+
+        @Override
+        public int nextInt(final int bound) {
+            return _rand.nextInt(bound);
+        }
+
+        @Override
+        public long nextLong() {
+            return _rand.nextLong();
+        }
+    }
+}
@@ -11,22 +11,45 @@ package com.appian.carddeck;
  * @version 1.0
  */
 public enum Rank {
-    ACE,
-    TWO,
-    THREE,
-    FOUR,
-    FIVE,
-    SIX,
-    SEVEN,
-    EIGHT,
-    NINE,
-    TEN,
-    JACK,
-    QUEEN,
-    KING;
+    ACE('A'),
+    TWO('2'),
+    THREE('3'),
+    FOUR('4'),
+    FIVE('5'),
+    SIX('6'),
+    SEVEN('7'),
+    EIGHT('8'),
+    NINE('9'),
+    TEN('T'),
+    JACK('J'),
+    QUEEN('Q'),
+    KING('K');
 
     // TODO: i18n
 
+    /**
+     * One-character symbol of the rank, as used in short card codes (e.g., 'T' in "Td").
+     */
+    private final char _symbol;
+    /**
+     * String representation of the rank, computed once.
+     */
+    private final String _displayName;
+
+    Rank(final char symbol) {
+        _symbol = symbol;
+        _displayName = Character.toUpperCase(this.name().charAt(0)) + this.name().substring(1).toLowerCase();
+    }
+
+    /**
+     * Returns the one-character symbol of the rank: 'A', '2' to '9', 'T', 'J', 'Q', or 'K'.
+     *
+     * @return symbol of the Rank
+     */
+    public char getSymbol() {
+        return _symbol;
+    }
+
     /**
      * Returns a string representation of the Rank, in capitalized form.
      *
@@ -34,6 +57,6 @@ public enum Rank {
      */
     @Override
     public String toString() {
-        return Character.toUpperCase(this.name().charAt(0)) + this.name().substring(1).toLowerCase();
+        return _displayName;
     }
 }
@@ -0,0 +1,246 @@
+/*
+ *    File: Shoe.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Class representing a dealing 'shoe' that holds several 52-card decks, as used in blackjack and baccarat.
+ * The cards of all decks are stored as card indices in a single primitive array (see <code>PackedDeck</code>),
+ * so an 8-deck shoe of 416 cards needs no per-card objects.
+ * <p>
+ * A shoe has a cut card, placed so that a given fraction of the cards (the <i>penetration</i>) is dealt before
+ * the shoe must be reshuffled; <code>isCutCardReached()</code> tells whether that point has been passed.
+ * The shoe also keeps a running count of the cards left of each <code>Rank</code>, which is updated as cards
+ * are dealt or burned, so that <code>getRemaining(Rank)</code> runs in <i>O(1)</i> time.
+ * <b>NOTE:</b> This class is not thread safe, and is designed only for use in single-threaded applications.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class Shoe extends PackedDeck {
+
+    private static final long serialVersionUID = 7442470218346569171L;
+    /**
+     * Penetration used when none is given: three quarters of the shoe is dealt before reshuffling.
+     */
+    public static final double DEFAULT_PENETRATION = 0.75;
+
+    /**
+     * Fraction of the shoe that is dealt before the cut card is reached.
+     */
+    private final double _penetration;
+    /**
+     * Number of cards remaining in the shoe when the cut card is reached.
+     */
+    private final int _cutSize;
+    /**
+     * Number of cards remaining in the shoe for each rank, indexed by <code>Rank.ordinal()</code>.
+     */
+    private final int[] _rankCounts;
+
+
+    /**
+     * Constructs a shoe of <code>deckCount</code> decks with the default penetration, that is shuffled with
+     * the default generator (see <code>RandomGenerators.defaultGenerator()</code>).
+     *
+     * @param deckCount number of 52-card decks
+     */
+    public Shoe(final int deckCount) {
+        this(deckCount, Shoe.DEFAULT_PENETRATION, RandomGenerators.defaultGenerator());
+    }
+
+    /**
+     * Constructs a shoe of <code>deckCount</code> decks, with the cut card placed so that the given fraction of
+     * the cards is dealt before the shoe must be reshuffled.  The shoe is shuffled with the given random number
+     * generator.  This constructor will throw a <code>NullPointerException</code> if the generator is
+     * <code>null</code>.
+     *
+     * @param deckCount   number of 52-card decks
+     * @param penetration fraction of the cards dealt before the cut card, <code>0 &lt; penetration &lt;= 1</code>
+     * @param rand        random number generator used by <code>shuffle()</code>
+     * @throws IllegalArgumentException if <code>deckCount</code> is not positive or <code>penetration</code>
+     *                                  is out of range
+     */
+    public Shoe(final int deckCount, final double penetration, final IRandomGenerator rand) {
+        super(deckCount, rand);
+        if (!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("penetration must be greater than 0 and at most 1");
+        }
+        _penetration = penetration;
+        int total = deckCount * Card.NUM_CARDS;
+        _cutSize = total - (int) Math.round(total * penetration);
+        _rankCounts = new int[Rank.values().length];
+        this.resetRankCounts();
+    }
+
+    /**
+     * Constructs a shoe of <code>deckCount</code> decks, with the cut card placed by the given penetration, whose
+     * shuffles are determined by the given seed (see <code>PackedDeck(long)</code>), so that its state can be
+     * captured with <code>getState()</code> and rebuilt with <code>setState()</code>.
+     *
+     * @param deckCount   number of 52-card decks
+     * @param penetration fraction of the cards dealt before the cut card, <code>0 &lt; penetration &lt;= 1</code>
+     * @param seed        seed of the shuffles
+     * @throws IllegalArgumentException if <code>deckCount</code> is not positive or <code>penetration</code>
+     *                                  is out of range
+     */
+    public Shoe(final int deckCount, final double penetration, final long seed) {
+        this(deckCount, penetration, new SplitMix64(seed));
+    }
+
+    /**
+     * Sets the count of every rank to the number of cards of that rank in a full shoe.
+     */
+    private void resetRankCounts() {
+        int perRank = this.getDeckCount() * Suit.values().length;
+        for (int r = 0; r < _rankCounts.length; r++) {
+            _rankCounts[r] = perRank;
+        }
+    }
+
+    /**
+     * Empties the shoe of any remaining cards and repopulates it with all of its decks.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.resetRankCounts();
+    }
+
+    /**
+     * Refills the shoe with all of its decks and shuffles it, as is done when the cut card has been reached.
+     */
+    public void reshuffle() {
+        this.reset();
+        this.shuffle();
+    }
+
+    /**
+     * Deals one card from the shoe, and updates the count of cards left of its rank.
+     *
+     * @return A single instance of <code>Card</code>, or <code>null</code> if the shoe is empty
+     */
+    @Override
+    public Card dealOneCard() {
+        Card c = super.dealOneCard();
+        if (c != null) {
+            _rankCounts[c.getRank().ordinal()]--;
+        }
+        return c;
+    }
+
+    /**
+     * Deals up to <code>n</code> cards from the shoe into <code>dst</code>, and updates the counts of cards left
+     * of their ranks.
+     *
+     * @param dst array to deal the cards into
+     * @param off index of <code>dst</code> at which to store the first card
+     * @param n   number of cards to deal
+     * @return the number of cards dealt
+     */
+    @Override
+    public int dealInto(final Card[] dst, final int off, final int n) {
+        int count = super.dealInto(dst, off, n);
+        for (int i = off; i < off + count; i++) {
+            _rankCounts[dst[i].getRank().ordinal()]--;
+        }
+        return count;
+    }
+
+    /**
+     * Removes one copy of the given card from the shoe (see <code>PackedDeck.remove()</code>), and updates the
+     * count of cards left of its rank.
+     *
+     * @param c the card to remove
+     * @return <tt>true</tt> if the card was removed, <tt>false</tt> if the shoe did not hold it
+     */
+    @Override
+    public boolean remove(final Card c) {
+        boolean removed = super.remove(c);
+        if (removed) {
+            _rankCounts[c.getRank().ordinal()]--;
+        }
+        return removed;
+    }
+
+    /**
+     * Removes up to <code>n</code> cards from the top of the shoe without showing them to the players
+     * (i.e., 'burns' them).  The burned cards are counted as no longer remaining in the shoe.
+     *
+     * @param n number of cards to burn
+     * @return the number of cards burned, which is less than <code>n</code> only if the shoe runs out of cards
+     * @throws IllegalArgumentException if <code>n</code> is negative
+     */
+    public int burn(final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("number of cards is negative");
+        }
+        int burned = 0;
+        while (burned < n && this.dealOneCard() != null) {
+            burned++;
+        }
+        return burned;
+    }
+
+    /**
+     * Indicates whether the cut card has been reached (i.e., the shoe should be reshuffled before the next game).
+     *
+     * @return <tt>true</tt> if the cut card has been reached, <tt>false</tt> otherwise
+     */
+    public boolean isCutCardReached() {
+        return this.getSize() <= _cutSize;
+    }
+
+    /**
+     * Returns the fraction of the shoe that is dealt before the cut card is reached.
+     *
+     * @return the penetration
+     */
+    public double getPenetration() {
+        return _penetration;
+    }
+
+    /**
+     * Returns the number of cards of the given <code>Rank</code> remaining in the shoe, in <i>O(1)</i> time.
+     *
+     * @param r card Rank
+     * @return number of cards of that rank remaining
+     */
+    public int getRemaining(final Rank r) {
+        return _rankCounts[r.ordinal()];
+    }
+
+    /**
+     * Replaces the cards of the shoe with cards written by <code>writeCards()</code>, and recounts the cards left
+     * of each rank.
+     *
+     * @param src                buffer to read the cards from
+     * @param size               number of remaining cards
+     * @param pending            <tt>true</tt> if a lazy shuffle is pending
+     * @param shufflesSinceReset number of shuffles since the last reset, or -1 if unknown
+     */
+    @Override
+    void readCards(final ByteBuffer src, final int size, final boolean pending, final int shufflesSinceReset) {
+        super.readCards(src, size, pending, shufflesSinceReset);
+        Arrays.fill(_rankCounts, 0);
+        for (int i = 0; i < size; i++) {
+            _rankCounts[Card.fromIndex(this.cardIndexAt(i)).getRank().ordinal()]++;
+        }
+    }
+
+    /**
+     * Replaces the shoe with its compact serialized form (see <code>DeckCodec</code>) when it is serialized.
+     * Extending classes are serialized with the default mechanism.
+     *
+     * @return the serialized form of the shoe
+     * @throws ObjectStreamException never
+     */
+    private Object writeReplace() throws ObjectStreamException {
+        return DeckCodec.serializedForm(this);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *    File: SplitMix64.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Counter-based pseudo-random number generator used by decks constructed with a seed.  Each shuffle draws from
+ * its own <i>stream</i>: a <i>SplitMix64</i> sequence whose starting state is a hash of the seed and the stream
+ * number.  Because a stream depends only on the seed and its number, the generator can jump directly to any
+ * stream, so the deck after <code>n</code> shuffles can be rebuilt without replaying the first <code>n - 1</code>
+ * shuffles (see <code>DeckState</code>).
+ * <b>NOTE:</b> This class is not thread safe; each deck owns its own generator.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+final class SplitMix64 implements IRandomGenerator {
+
+    /**
+     * Increment of the <i>SplitMix64</i> state (the golden ratio, as a 64-bit fraction).
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Seed of the streams.
+     */
+    private long _seed;
+    /**
+     * Number of streams started, i.e., the number of the next stream.
+     */
+    private long _streamCount;
+    /**
+     * State of the current stream.
+     */
+    private long _state;
+
+
+    /**
+     * Constructs a generator with the given seed.  Values drawn before the first stream is started come from
+     * stream -1.
+     *
+     * @param seed seed of the streams
+     */
+    SplitMix64(final long seed) {
+        this.jump(seed, -1L);
+    }
+
+    /**
+     * Returns the seed of the streams.
+     *
+     * @return the seed
+     */
+    long getSeed() {
+        return _seed;
+    }
+
+    /**
+     * Returns the number of streams started (by <code>nextStream()</code> or <code>jump()</code>).
+     *
+     * @return the number of streams started
+     */
+    long getStreamCount() {
+        return _streamCount;
+    }
+
+    /**
+     * Starts the next stream.
+     */
+    void nextStream() {
+        this.jump(_seed, _streamCount);
+    }
+
+    /**
+     * Starts the given stream of the given seed directly, as if it had been reached by <code>nextStream()</code>.
+     *
+     * @param seed   seed of the streams
+     * @param stream number of the stream
+     */
+    void jump(final long seed, final long stream) {
+        _seed = seed;
+        _state = Xoshiro256StarStar.mix64(seed ^ Xoshiro256StarStar.mix64((stream + 1) * SplitMix64.GOLDEN_GAMMA));
+        _streamCount = stream + 1;
+    }
+
+    /**
+     * Writes the seed, the number of streams started, and the state of the current stream to <code>dst</code>
+     * (see <code>DeckCodec</code>).
+     *
+     * @param dst buffer to write the state to
+     */
+    void writeState(final ByteBuffer dst) {
+        dst.putLong(_seed).putLong(_streamCount).putLong(_state);
+    }
+
+    /**
+     * Reads a generator state written by <code>writeState()</code>.
+     *
+     * @param src buffer to read the state from
+     * @return a generator with the state
+     */
+    static SplitMix64 readState(final ByteBuffer src) {
+        SplitMix64 rand = new SplitMix64(src.getLong());
+        rand._streamCount = src.getLong();
+        rand._state = src.getLong();
+        return rand;
+    }
+
+    /**
+     * Returns the next pseudo-random <code>long</code> value of the current stream.
+     *
+     * @return a pseudo-random value
+     */
+    @Override
+    public long nextLong() {
+        _state += SplitMix64.GOLDEN_GAMMA;
+        return Xoshiro256StarStar.mix64(_state);
+    }
+
+    /**
+     * Returns a uniformly distributed pseudo-random <code>int</code> between 0 (inclusive) and the
+     * specified bound (exclusive), with Lemire's multiply-and-shift method (see
+     * <code>Xoshiro256StarStar.nextInt()</code>).
+     *
+     * @param bound the upper bound (exclusive); must be positive
+     * @return a pseudo-random value, <code>0 &lt;= value &lt; bound</code>
+     */
+    @Override
+    public int nextInt(final int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        long m = (this.nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (this.nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+}
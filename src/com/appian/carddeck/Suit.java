@@ -12,14 +12,36 @@ package com.appian.carddeck;
  * @version 1.0
  */
 public enum Suit {
-    CLUBS,
-    DIAMONDS,
-    HEARTS,
-    SPADES;
+    CLUBS('c'),
+    DIAMONDS('d'),
+    HEARTS('h'),
+    SPADES('s');
 
-    // TODO: add trump suit
     // TODO: i18n
 
+    /**
+     * One-character symbol of the suit, as used in short card codes (e.g., 'd' in "Td").
+     */
+    private final char _symbol;
+    /**
+     * String representation of the suit, computed once.
+     */
+    private final String _displayName;
+
+    Suit(final char symbol) {
+        _symbol = symbol;
+        _displayName = Character.toUpperCase(this.name().charAt(0)) + this.name().substring(1).toLowerCase();
+    }
+
+    /**
+     * Returns the one-character symbol of the suit: 'c', 'd', 'h', or 's'.
+     *
+     * @return symbol of the Suit
+     */
+    public char getSymbol() {
+        return _symbol;
+    }
+
     /**
      * Returns a string representation of the Suit, in capitalized form.
      *
@@ -27,6 +49,6 @@ public enum Suit {
      */
     @Override
     public String toString() {
-        return Character.toUpperCase(this.name().charAt(0)) + this.name().substring(1).toLowerCase();
+        return _displayName;
     }
 }
@@ -0,0 +1,144 @@
+/*
+ *    File: Xoshiro256StarStar.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+/**
+ * Pseudo-random number generator implementing the <i>xoshiro256**</i> algorithm by David Blackman and
+ * Sebastiano Vigna.  The generator has 256 bits of state, a period of 2<sup>256</sup> - 1, and is considerably
+ * faster than <code>java.util.Random</code> because its state is not shared through an atomic variable.
+ * The 256-bit state is initialized from a 64-bit seed with the <i>SplitMix64</i> generator, as recommended
+ * by the authors, so the same seed always produces the same sequence.
+ * <b>NOTE:</b> This class is not thread safe; each thread (or deck) should own its own generator.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class Xoshiro256StarStar implements IRandomGenerator, Serializable {
+
+    private static final long serialVersionUID = -2268913917465402213L;
+
+    /**
+     * Generator state.
+     */
+    private long _s0;
+    private long _s1;
+    private long _s2;
+    private long _s3;
+
+
+    /**
+     * Constructs a generator whose state is derived from the given seed.
+     *
+     * @param seed initial seed
+     */
+    public Xoshiro256StarStar(final long seed) {
+        long x = seed;
+        x += 0x9E3779B97F4A7C15L;
+        _s0 = Xoshiro256StarStar.mix64(x);
+        x += 0x9E3779B97F4A7C15L;
+        _s1 = Xoshiro256StarStar.mix64(x);
+        x += 0x9E3779B97F4A7C15L;
+        _s2 = Xoshiro256StarStar.mix64(x);
+        x += 0x9E3779B97F4A7C15L;
+        _s3 = Xoshiro256StarStar.mix64(x);
+    }
+
+    /**
+     * Constructs a generator with the given raw state.  The state must not be all zeroes.
+     *
+     * @param s0 state word 0
+     * @param s1 state word 1
+     * @param s2 state word 2
+     * @param s3 state word 3
+     */
+    Xoshiro256StarStar(final long s0, final long s1, final long s2, final long s3) {
+        if ((s0 | s1 | s2 | s3) == 0) {
+            throw new IllegalArgumentException("state is all zeroes");
+        }
+        _s0 = s0;
+        _s1 = s1;
+        _s2 = s2;
+        _s3 = s3;
+    }
+
+    /**
+     * Writes the 256-bit state of the generator to <code>dst</code> (see <code>DeckCodec</code>).
+     *
+     * @param dst buffer to write the state to
+     */
+    void writeState(final ByteBuffer dst) {
+        dst.putLong(_s0).putLong(_s1).putLong(_s2).putLong(_s3);
+    }
+
+    /**
+     * Reads a generator state written by <code>writeState()</code>.
+     *
+     * @param src buffer to read the state from
+     * @return a generator with the state
+     * @throws IllegalArgumentException if the state is all zeroes
+     */
+    static Xoshiro256StarStar readState(final ByteBuffer src) {
+        return new Xoshiro256StarStar(src.getLong(), src.getLong(), src.getLong(), src.getLong());
+    }
+
+    /**
+     * The <i>SplitMix64</i> finalizer (a variant of the MurmurHash3 64-bit finalizer).
+     *
+     * @param z value to mix
+     * @return mixed value
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the next pseudo-random <code>long</code> value and advances the state.
+     *
+     * @return a pseudo-random value
+     */
+    @Override
+    public long nextLong() {
+        final long result = Long.rotateLeft(_s1 * 5, 7) * 9;
+        final long t = _s1 << 17;
+        _s2 ^= _s0;
+        _s3 ^= _s1;
+        _s1 ^= _s2;
+        _s0 ^= _s3;
+        _s2 ^= t;
+        _s3 = Long.rotateLeft(_s3, 45);
+        return result;
+    }
+
+    /**
+     * Returns a uniformly distributed pseudo-random <code>int</code> between 0 (inclusive) and the
+     * specified bound (exclusive).  Uses Lemire's multiply-and-shift method, which only needs a
+     * division in the rare case that a sample has to be rejected to avoid bias.
+     *
+     * @param bound the upper bound (exclusive); must be positive
+     * @return a pseudo-random value, <code>0 &lt;= value &lt; bound</code>
+     */
+    @Override
+    public int nextInt(final int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            // reject samples that fall into the (2^32 mod bound) over-represented values
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+}
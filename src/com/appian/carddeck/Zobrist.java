@@ -0,0 +1,84 @@
+/*
+ *    File: Zobrist.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+/**
+ * Zobrist hashing of the order of the cards in a deck, shared by the deck implementations so that decks holding
+ * the same cards in the same order have the same hash code.  The hash of a deck is the exclusive or of a random
+ * 64-bit key for each (position, card) pair in it, where position 0 is the bottom of the deck.  Because a key can
+ * be removed by applying it again, dealing the top card updates the hash in <i>O(1)</i> time.
+ * <p>
+ * The keys of the first 52 positions are held in a table; the keys of deeper positions (in a 'shoe') are computed
+ * with the same formula when needed.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+final class Zobrist {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    /**
+     * Keys of the first <code>Card.NUM_CARDS</code> positions, indexed by <code>position * 52 + card index</code>.
+     */
+    private static final long[] KEYS = new long[Card.NUM_CARDS * Card.NUM_CARDS];
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEYS[i] = Zobrist.computeKey(i);
+        }
+    }
+
+    /**
+     * Hash of a full, unshuffled 52-card deck.
+     */
+    static final long FULL_DECK = Zobrist.hash(PackedDeck.TEMPLATE, Card.NUM_CARDS);
+
+    /**
+     * Prevents instantiation.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of the given card at the given position.
+     *
+     * @param position  position in the deck, counted from the bottom
+     * @param cardIndex index of the card (see <code>Card.getIndex()</code>)
+     * @return the key
+     */
+    static long key(final int position, final int cardIndex) {
+        int i = position * Card.NUM_CARDS + cardIndex;
+        return position < Card.NUM_CARDS ? KEYS[i] : Zobrist.computeKey(i);
+    }
+
+    /**
+     * Returns the hash of the first <code>size</code> card indices of the given array.
+     *
+     * @param cards card indices, bottom card first
+     * @param size  number of cards
+     * @return the hash
+     */
+    static long hash(final byte[] cards, final int size) {
+        long hash = 0L;
+        for (int i = 0; i < size; i++) {
+            hash ^= Zobrist.key(i, cards[i]);
+        }
+        return hash;
+    }
+
+    /**
+     * Folds a 64-bit hash into a hash code.
+     *
+     * @param hash the hash
+     * @return the hash code
+     */
+    static int toHashCode(final long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static long computeKey(final long i) {
+        return Xoshiro256StarStar.mix64((i + 1) * Zobrist.GOLDEN_GAMMA);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *    File: CardOrderingTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for CardOrdering
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class CardOrderingTest {
+
+    @Test
+    public void test_ace_high() throws Exception {
+        CardOrdering o = CardOrdering.ACE_HIGH;
+        assertTrue("ace is not above king",
+                o.compare(Card.parse("Ac"), Card.parse("Kc")) > 0);
+        assertTrue("two is not below three",
+                o.compare(Card.parse("2c"), Card.parse("3c")) < 0);
+        assertEquals("equal ranks of different suits are not equal",
+                0, o.compare(Card.parse("Td"), Card.parse("Ts")));
+        assertEquals("ace is not the strongest card", 12, o.strength(Card.parse("As")));
+        assertEquals("two is not the weakest card", 0, o.strength(Card.parse("2h")));
+    }
+
+    @Test
+    public void test_ace_low() throws Exception {
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            for (int j = 0; j < Card.NUM_CARDS; j++) {
+                Card c1 = Card.fromIndex(i);
+                Card c2 = Card.fromIndex(j);
+                assertEquals("ace-low ordering does not match compareTo for " + c1 + " and " + c2,
+                        Integer.signum(c1.compareTo(c2)), Integer.signum(CardOrdering.ACE_LOW.compare(c1, c2)));
+            }
+        }
+    }
+
+    @Test
+    public void test_trump() throws Exception {
+        CardOrdering o = CardOrdering.withTrump(Suit.HEARTS).withLed(Suit.CLUBS);
+        assertEquals("trump is incorrect", Suit.HEARTS, o.getTrump());
+        assertEquals("led suit is incorrect", Suit.CLUBS, o.getLed());
+        assertTrue("ordering is not ace-high", o.isAceHigh());
+        assertTrue("trump two does not beat led ace", o.compare(Card.parse("2h"), Card.parse("Ac")) > 0);
+        assertTrue("led two does not beat off-suit ace", o.compare(Card.parse("2c"), Card.parse("As")) > 0);
+        assertTrue("off-suit ace does not beat off-suit king", o.compare(Card.parse("As"), Card.parse("Kd")) > 0);
+        assertEquals("strongest trump is incorrect", 38, o.strength(Card.parse("Ah")));
+        Card queen = Card.parse("Qc");
+        assertEquals("strength by index is incorrect", o.strength(queen), o.strength(queen.getIndex()));
+    }
+
+    @Test
+    public void test_cached() throws Exception {
+        assertSame("orderings are not cached", CardOrdering.of(Suit.SPADES, null, true), CardOrdering.SPADES);
+        assertSame("withLed(null) does not return the trump ordering",
+                CardOrdering.SPADES, CardOrdering.SPADES.withLed(Suit.DIAMONDS).withLed(null));
+        assertSame("no-trump ordering is not ace-high", CardOrdering.ACE_HIGH, CardOrdering.withTrump(null));
+        for (Suit t : Suit.values()) {
+            for (Suit l : Suit.values()) {
+                CardOrdering o = CardOrdering.of(t, l, false);
+                assertEquals("trump is incorrect", t, o.getTrump());
+                assertEquals("led suit is incorrect", l, o.getLed());
+                assertFalse("ordering is not ace-low", o.isAceHigh());
+            }
+        }
+    }
+
+    @Test
+    public void test_trickWinner() throws Exception {
+        CardOrdering noTrump = CardOrdering.NO_TRUMP;
+        assertEquals("highest card of the led suit does not win",
+                2, noTrump.trickWinner(Card.parse("Td"), Card.parse("As"), Card.parse("Kd"), Card.parse("2d")));
+        assertEquals("lead does not win when no one follows suit",
+                0, noTrump.trickWinner(Card.parse("3c"), Card.parse("As"), Card.parse("Kd"), Card.parse("Ah")));
+        assertEquals("trump does not win",
+                3, CardOrdering.SPADES.trickWinner(Card.parse("Ah"), Card.parse("Kh"), Card.parse("Qh"),
+                        Card.parse("2s")));
+        assertEquals("highest trump does not win",
+                1, CardOrdering.SPADES.trickWinner(Card.parse("Ah"), Card.parse("3s"), Card.parse("2s"),
+                        Card.parse("Kh")));
+        assertEquals("lead of trumps does not win",
+                0, CardOrdering.SPADES.trickWinner(Card.parse("5s"), Card.parse("Ah"), Card.parse("4s")));
+        assertEquals("ace-low ordering is incorrect",
+                1, CardOrdering.ACE_LOW.trickWinner(Card.parse("Ac"), Card.parse("2c")));
+        assertEquals("single card does not win", 0, CardOrdering.SPADES.trickWinner(Card.parse("9d")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_trickWinner_empty() throws Exception {
+        CardOrdering.ACE_HIGH.trickWinner();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_trickWinner_null() throws Exception {
+        CardOrdering.ACE_HIGH.trickWinner((Card[]) null);
+    }
+
+    @Test
+    public void test_readResolve() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(CardOrdering.SPADES.withLed(Suit.HEARTS));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame("deserialized ordering is not cached", CardOrdering.of(Suit.SPADES, Suit.HEARTS, true),
+                    in.readObject());
+        }
+    }
+}
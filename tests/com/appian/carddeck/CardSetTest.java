@@ -0,0 +1,128 @@
+/*
+ *    File: CardSetTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for CardSet
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class CardSetTest {
+    private static final Card ACE_OF_SPADES = Card.of(Rank.ACE, Suit.SPADES);
+    private static final Card KING_OF_HEARTS = Card.of(Rank.KING, Suit.HEARTS);
+    private static final Card TWO_OF_CLUBS = Card.of(Rank.TWO, Suit.CLUBS);
+
+    @Test
+    public void test_cardSet() throws Exception {
+        CardSet s = CardSet.of(ACE_OF_SPADES, KING_OF_HEARTS);
+        assertTrue("set is not Iterable", s instanceof Iterable);
+        assertTrue("set is not Serializable", s instanceof Serializable);
+        assertEquals("set has incorrect size", 2, s.size());
+        assertTrue("empty set is not empty", CardSet.EMPTY.isEmpty());
+        assertEquals("full set has incorrect size", Card.NUM_CARDS, CardSet.FULL.size());
+    }
+
+    @Test
+    public void test_fromMask() throws Exception {
+        CardSet s = CardSet.of(ACE_OF_SPADES, TWO_OF_CLUBS);
+        assertEquals("mask is incorrect", (1L << ACE_OF_SPADES.getIndex()) | (1L << TWO_OF_CLUBS.getIndex()), s.getMask());
+        assertEquals("sets are not equal", s, CardSet.fromMask(s.getMask()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_fromMask_out_of_range() throws Exception {
+        CardSet.fromMask(1L << Card.NUM_CARDS);
+    }
+
+    @Test
+    public void test_add_remove_contains() throws Exception {
+        CardSet s = CardSet.EMPTY.add(ACE_OF_SPADES).add(KING_OF_HEARTS).add(ACE_OF_SPADES);
+        assertEquals("set has incorrect size", 2, s.size());
+        assertTrue("set should contain card", s.contains(ACE_OF_SPADES));
+        assertFalse("set should not contain card", s.contains(TWO_OF_CLUBS));
+        s = s.remove(ACE_OF_SPADES);
+        assertFalse("set should not contain card", s.contains(ACE_OF_SPADES));
+        assertEquals("set has incorrect size", 1, s.size());
+    }
+
+    @Test
+    public void test_set_operations() throws Exception {
+        CardSet s1 = CardSet.of(ACE_OF_SPADES, KING_OF_HEARTS);
+        CardSet s2 = CardSet.of(KING_OF_HEARTS, TWO_OF_CLUBS);
+        assertEquals(CardSet.of(ACE_OF_SPADES, KING_OF_HEARTS, TWO_OF_CLUBS), s1.union(s2));
+        assertEquals(CardSet.of(KING_OF_HEARTS), s1.intersection(s2));
+        assertEquals(CardSet.of(ACE_OF_SPADES), s1.difference(s2));
+        assertEquals(Card.NUM_CARDS - 2, s1.complement().size());
+        assertEquals(CardSet.FULL, s1.union(s1.complement()));
+        assertTrue("set should contain subset", s1.containsAll(CardSet.of(ACE_OF_SPADES)));
+        assertFalse("set should not contain other set", s1.containsAll(s2));
+    }
+
+    @Test
+    public void test_iterator() throws Exception {
+        // iteration is in 'natural' order, i.e., the order in which an unshuffled deck is dealt
+        Deck d = new Deck();
+        Iterator<Card> it = CardSet.FULL.iterator();
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            assertTrue("iterator is exhausted", it.hasNext());
+            assertSame("card is incorrect", d.dealOneCard(), it.next());
+        }
+        assertFalse("iterator is not exhausted", it.hasNext());
+
+        List<Card> cards = new ArrayList<>();
+        CardSet.of(KING_OF_HEARTS, TWO_OF_CLUBS, ACE_OF_SPADES).forEach(cards::add);
+        assertArrayEquals(new Card[]{TWO_OF_CLUBS, KING_OF_HEARTS, ACE_OF_SPADES}, cards.toArray());
+        assertArrayEquals(cards.toArray(), CardSet.of(ACE_OF_SPADES, KING_OF_HEARTS, TWO_OF_CLUBS).toArray());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void test_iterator_exhausted() throws Exception {
+        CardSet.EMPTY.iterator().next();
+    }
+
+    @Test
+    public void test_toString() throws Exception {
+        assertEquals("[Two of Clubs, Ace of Spades]", CardSet.of(ACE_OF_SPADES, TWO_OF_CLUBS).toString());
+        assertEquals("[]", CardSet.EMPTY.toString());
+    }
+
+    @Test
+    public void test_equals_hashCode() throws Exception {
+        CardSet s1 = CardSet.of(ACE_OF_SPADES, KING_OF_HEARTS);
+        CardSet s2 = CardSet.of(KING_OF_HEARTS, ACE_OF_SPADES);
+        assertEquals("sets are not equal", s1, s2);
+        assertEquals("hash codes are not equal", s1.hashCode(), s2.hashCode());
+        assertNotEquals("sets should not be equal", s1, CardSet.of(ACE_OF_SPADES));
+        assertFalse("set failed equality test", s1.equals(null));
+    }
+
+    @Test
+    public void test_getDealtCards() throws Exception {
+        Deck d = new Deck();
+        PackedDeck pd = new PackedDeck();
+        d.shuffle();
+        pd.shuffle();
+        assertTrue("no cards have been dealt", d.getDealtCards().isEmpty());
+        CardSet dealt = CardSet.of(d.dealOneCard()).union(CardSet.of(d.dealCards(4)));
+        CardSet packedDealt = CardSet.of(pd.dealCards(5));
+        assertEquals("dealt cards are incorrect", dealt, d.getDealtCards());
+        assertEquals("dealt cards are incorrect", packedDealt, pd.getDealtCards());
+        d.reset();
+        pd.reset();
+        assertTrue("no cards have been dealt", d.getDealtCards().isEmpty());
+        assertTrue("no cards have been dealt", pd.getDealtCards().isEmpty());
+    }
+}
@@ -8,6 +8,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -75,6 +79,37 @@ public class CardTest {
         assertEquals("Ace of Spades", c.toString());
     }
 
+    @Test
+    public void test_getShortCode() throws Exception {
+        assertEquals("As", Card.of(Rank.ACE, Suit.SPADES).getShortCode());
+        assertEquals("Td", Card.of(Rank.TEN, Suit.DIAMONDS).getShortCode());
+        assertEquals("2c", Card.of(Rank.TWO, Suit.CLUBS).getShortCode());
+        assertEquals("Kh", Card.of(Rank.KING, Suit.HEARTS).getShortCode());
+        assertSame("string is not cached", Card.of(Rank.ACE, Suit.SPADES).toString(),
+                new Card(Rank.ACE, Suit.SPADES).toString());
+    }
+
+    @Test
+    public void test_parse() throws Exception {
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            Card c = Card.fromIndex(i);
+            assertSame("parsed card is incorrect", c, Card.parse(c.getShortCode()));
+        }
+        assertSame("parse is not case insensitive", Card.of(Rank.TEN, Suit.DIAMONDS), Card.parse("tD"));
+    }
+
+    @Test
+    public void test_parse_invalid() throws Exception {
+        for (String code : new String[]{"", "A", "Asx", "1s", "Ax", "10h", "A\u00e9"}) {
+            try {
+                Card.parse(code);
+                fail("invalid code was parsed: " + code);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
     @Test
     public void test_equals() throws Exception {
         Card c1 = new Card(Rank.ACE, Suit.SPADES);
@@ -124,4 +159,52 @@ public class CardTest {
         assertTrue("comparing card to higher rank failed", c1.compareTo(c4) < 0);
         assertTrue("comparing card to lower rank failed", c4.compareTo(c1) > 0);
     }
+
+    @Test
+    public void test_of() throws Exception {
+        Card c = Card.of(Rank.ACE, Suit.SPADES);
+        assertEquals("card is incorrect", new Card(Rank.ACE, Suit.SPADES), c);
+        assertSame("card is not cached", c, Card.of(Rank.ACE, Suit.SPADES));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_of_null_rank() throws Exception {
+        Card.of(null, Suit.SPADES);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_of_null_suit() throws Exception {
+        Card.of(Rank.ACE, null);
+    }
+
+    @Test
+    public void test_fromIndex() throws Exception {
+        assertEquals(Rank.values().length * Suit.values().length, Card.NUM_CARDS);
+        int i = 0;
+        for (Suit s : Suit.values()) {
+            for (Rank r : Rank.values()) {
+                Card c = Card.fromIndex(i);
+                assertSame("card index is incorrect", Card.of(r, s), c);
+                assertEquals("card index is incorrect", i, c.getIndex());
+                assertEquals("card index is incorrect", i, new Card(r, s).getIndex());
+                i++;
+            }
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void test_fromIndex_out_of_range() throws Exception {
+        Card.fromIndex(Card.NUM_CARDS);
+    }
+
+    @Test
+    public void test_readResolve() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new Card(Rank.QUEEN, Suit.HEARTS));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame("deserialized card is not cached", Card.of(Rank.QUEEN, Suit.HEARTS), in.readObject());
+        }
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ *    File: CombinationEnumeratorTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for CombinationEnumerator
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class CombinationEnumeratorTest {
+
+    /**
+     * Visitor that counts the subsets.
+     */
+    private static final class Counter implements CombinationEnumerator.Visitor {
+        private long _count;
+
+        @Override
+        public void visit(final long mask) {
+            _count++;
+        }
+    }
+
+    @Test
+    public void test_forEach() throws Exception {
+        // ten cards spread over all four suits
+        CardSet cards = CardSet.EMPTY;
+        for (int i = 0; i < 50; i += 5) {
+            cards = cards.add(Card.fromIndex(i));
+        }
+        CombinationEnumerator e = new CombinationEnumerator(cards, 3);
+        assertEquals("enumerator has incorrect size", 120L, e.size());
+        List<Long> masks = new ArrayList<>();
+        e.forEach(masks::add);
+        assertEquals("enumerator visited incorrect number of subsets", 120, masks.size());
+        assertEquals("enumerator visited a subset twice", 120, new HashSet<>(masks).size());
+        long previous = 0L;
+        for (long mask : masks) {
+            assertEquals("subset has incorrect size", 3, Long.bitCount(mask));
+            assertEquals("subset holds a card outside the set", mask, mask & cards.getMask());
+            assertTrue("subsets are not in colexicographic order", mask > previous);
+            previous = mask;
+        }
+    }
+
+    @Test
+    public void test_forEach_ranges() throws Exception {
+        CombinationEnumerator e = new CombinationEnumerator(CardSet.FULL, 4);
+        List<Long> all = new ArrayList<>();
+        e.forEach(all::add);
+        List<Long> ranges = new ArrayList<>();
+        long[] bounds = {0L, 1L, 999L, 12345L, 200000L, e.size()};
+        for (int i = 1; i < bounds.length; i++) {
+            e.forEach(bounds[i - 1], bounds[i], ranges::add);
+        }
+        assertEquals("ranges do not add up to the whole enumeration", all, ranges);
+    }
+
+    @Test
+    public void test_forEachParallel() throws Exception {
+        // every board of a heads-up matchup
+        CardSet cards = CardSet.FULL.difference(CardSet.of(Card.of(Rank.ACE, Suit.SPADES),
+                Card.of(Rank.ACE, Suit.HEARTS), Card.of(Rank.KING, Suit.CLUBS), Card.of(Rank.KING, Suit.DIAMONDS)));
+        CombinationEnumerator e = new CombinationEnumerator(cards, 5);
+        assertEquals("enumerator has incorrect size", 1712304L, e.size());
+
+        Counter sequential = new Counter();
+        e.forEach(sequential);
+        assertEquals("sequential enumeration visited incorrect number of subsets", e.size(), sequential._count);
+        long count = 0L;
+        List<Counter> counters = e.forEachParallel(Counter::new);
+        assertTrue("enumeration was not split", counters.size() > 1);
+        for (Counter c : counters) {
+            count += c._count;
+        }
+        assertEquals("parallel enumeration visited incorrect number of subsets", e.size(), count);
+
+        Set<Long> boards = new HashSet<>();
+        e.forEachParallel(() -> mask -> {
+            synchronized (boards) {
+                boards.add(mask);
+            }
+        });
+        assertEquals("parallel enumeration visited a subset twice", e.size(), boards.size());
+    }
+
+    @Test
+    public void test_edge_cases() throws Exception {
+        List<Long> masks = new ArrayList<>();
+        new CombinationEnumerator(CardSet.FULL, 0).forEach(masks::add);
+        assertEquals("empty subset was not visited once", 1, masks.size());
+        assertEquals("empty subset holds cards", 0L, (long) masks.get(0));
+
+        masks.clear();
+        new CombinationEnumerator(CardSet.FULL, Card.NUM_CARDS).forEach(masks::add);
+        assertEquals("full set was not visited once", 1, masks.size());
+        assertEquals("full set holds incorrect cards", CardSet.FULL.getMask(), (long) masks.get(0));
+
+        masks.clear();
+        new CombinationEnumerator(CardSet.EMPTY, 0).forEach(masks::add);
+        assertEquals("empty subset of empty set was not visited once", 1, masks.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_too_many_cards() throws Exception {
+        new CombinationEnumerator(CardSet.of(Card.of(Rank.TWO, Suit.CLUBS)), 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalid_range() throws Exception {
+        CombinationEnumerator e = new CombinationEnumerator(CardSet.FULL, 2);
+        e.forEach(0L, e.size() + 1, mask -> { });
+    }
+}
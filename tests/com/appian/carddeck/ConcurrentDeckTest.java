@@ -0,0 +1,291 @@
+/*
+ *    File: ConcurrentDeckTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for ConcurrentDeck
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class ConcurrentDeckTest {
+    private static final int TOTAL_NUM_CARDS = Rank.values().length * Suit.values().length;
+    private static final int NUM_THREADS = 8;
+    private static final int NUM_ROUNDS = 200;
+    private ConcurrentDeck _referenceDeck;
+    private ExecutorService _executor;
+
+    @Before
+    public void setUp() throws Exception {
+        _referenceDeck = new ConcurrentDeck();
+        _executor = Executors.newFixedThreadPool(ConcurrentDeckTest.NUM_THREADS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _referenceDeck = null;
+        _executor.shutdownNow();
+    }
+
+    @Test
+    public void test_deck() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        assertNotNull("deck is null", d);
+        // check contract
+        assertTrue("deck is not an IDeck", d instanceof IDeck);
+        assertTrue("deck is not Serializable", d instanceof Serializable);
+        assertEquals("deck has incorrect length", ConcurrentDeckTest.TOTAL_NUM_CARDS, d.getSize());
+    }
+
+    @Test
+    public void test_reset() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        d.shuffle();
+        d.dealOneCard();
+
+        d.reset();
+        assertEquals("deck is not equal to reference deck", _referenceDeck, d);
+    }
+
+    @Test
+    public void test_sort() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        d.shuffle();
+        d.sort();
+        assertEquals("deck is not equal to reference deck", _referenceDeck, d);
+    }
+
+    @Test
+    public void test_remove() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        Card c = Card.of(Rank.FIVE, Suit.SPADES);
+        assertTrue("deck does not contain a card", d.contains(c));
+        assertTrue("card was not removed", d.remove(c));
+        assertFalse("deck contains a removed card", d.contains(c));
+        assertFalse("card was removed twice", d.remove(c));
+        assertEquals("incorrect number of cards removed", 1,
+                d.removeAll(CardSet.of(c, Card.of(Rank.SIX, Suit.SPADES))));
+        assertEquals("deck has incorrect length", ConcurrentDeckTest.TOTAL_NUM_CARDS - 2, d.getSize());
+        // the order of the other cards is unchanged
+        Card previous = d.dealOneCard();
+        while (d.getSize() > 0) {
+            Card next = d.dealOneCard();
+            assertTrue("removal changed the order of the cards", previous.getIndex() < next.getIndex());
+            previous = next;
+        }
+    }
+
+    @Test
+    public void test_shuffle() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        d.shuffle();
+        assertEquals("deck has incorrect length", ConcurrentDeckTest.TOTAL_NUM_CARDS, d.getSize());
+        assertNotEquals("deck is equal to reference deck but should not be", _referenceDeck, d);
+    }
+
+    @Test
+    public void test_dealOneCard() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        Deck reference = new Deck();
+        for (int i = ConcurrentDeckTest.TOTAL_NUM_CARDS - 1; i >= 0; i--) {
+            Card c = d.dealOneCard();
+            assertSame("card is incorrect", reference.dealOneCard(), c);
+            assertEquals("deck has incorrect size", i, d.getSize());
+        }
+
+        // check that there are no more cards left
+        assertNull("card should be null but is not", d.dealOneCard());
+        assertEquals("deck has incorrect size", 0, d.getSize());
+    }
+
+    @Test
+    public void test_toString() throws Exception {
+        assertEquals("string does not match Deck", new Deck().toString(), new ConcurrentDeck().toString());
+    }
+
+    @Test
+    public void test_equals() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        assertFalse("deck failed equality test", d.equals(null));
+        assertFalse("deck failed equality test", d.equals(new Object()));
+        assertTrue("deck failed equality test", d.equals(d));
+        assertTrue("deck failed equality test", d.equals(_referenceDeck));
+        assertTrue("deck failed equality test", _referenceDeck.equals(d));
+        d.shuffle();
+        assertFalse("deck failed equality test", d.equals(_referenceDeck));
+        assertFalse("deck failed equality test", _referenceDeck.equals(d));
+    }
+
+    @Test
+    public void test_hashCode() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        assertEquals("hash code does not match Deck", new Deck().hashCode(), d.hashCode());
+        d.shuffle();
+        assertNotEquals("hash codes are the same but should be different",
+                _referenceDeck.hashCode(), d.hashCode());
+    }
+
+    /**
+     * Several threads deal from one deck until it is empty; every card must be dealt exactly once.
+     */
+    @Test
+    public void test_dealOneCard_concurrent() throws Exception {
+        for (int round = 0; round < ConcurrentDeckTest.NUM_ROUNDS; round++) {
+            final ConcurrentDeck d = new ConcurrentDeck();
+            d.shuffle();
+            assertAllCardsDealtOnce(this.dealConcurrently(d, null));
+        }
+    }
+
+    /**
+     * Several threads deal from one deck while another thread keeps shuffling it; since a shuffle only
+     * permutes the remaining cards, every card must still be dealt exactly once.
+     */
+    @Test
+    public void test_dealOneCard_concurrent_shuffle() throws Exception {
+        for (int round = 0; round < ConcurrentDeckTest.NUM_ROUNDS; round++) {
+            final ConcurrentDeck d = new ConcurrentDeck();
+            assertAllCardsDealtOnce(this.dealConcurrently(d, () -> {
+                while (d.getSize() > 0) {
+                    d.shuffle();
+                }
+                return new ArrayList<>();
+            }));
+        }
+    }
+
+    private List<Card> dealConcurrently(final ConcurrentDeck d, final Callable<List<Card>> other) throws Exception {
+        List<Callable<List<Card>>> tasks = new ArrayList<>();
+        for (int t = 0; t < ConcurrentDeckTest.NUM_THREADS - 1; t++) {
+            tasks.add(() -> {
+                List<Card> dealt = new ArrayList<>();
+                Card c;
+                while ((c = d.dealOneCard()) != null) {
+                    dealt.add(c);
+                }
+                return dealt;
+            });
+        }
+        if (other != null) {
+            tasks.add(other);
+        }
+        List<Card> all = new ArrayList<>();
+        for (Future<List<Card>> f : _executor.invokeAll(tasks)) {
+            all.addAll(f.get());
+        }
+        return all;
+    }
+
+    private static void assertAllCardsDealtOnce(final List<Card> dealt) {
+        assertEquals("incorrect number of cards dealt", ConcurrentDeckTest.TOTAL_NUM_CARDS, dealt.size());
+        Set<Card> unique = new HashSet<>(dealt);
+        assertEquals("a card was dealt more than once", ConcurrentDeckTest.TOTAL_NUM_CARDS, unique.size());
+    }
+
+    @Test
+    public void test_dealCards() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck(RandomGenerators.xoshiro256StarStar(1));
+        ConcurrentDeck twin = new ConcurrentDeck(RandomGenerators.xoshiro256StarStar(1));
+        d.shuffle();
+        twin.shuffle();
+        Card[] hand = d.dealCards(5);
+        assertEquals("hand has incorrect size", 5, hand.length);
+        for (Card c : hand) {
+            assertSame("card is incorrect", twin.dealOneCard(), c);
+        }
+        assertEquals("deck has incorrect size", ConcurrentDeckTest.TOTAL_NUM_CARDS - 5, d.getSize());
+
+        // ask for more cards than remain
+        Card[] rest = d.dealCards(ConcurrentDeckTest.TOTAL_NUM_CARDS);
+        assertEquals("hand has incorrect size", ConcurrentDeckTest.TOTAL_NUM_CARDS - 5, rest.length);
+        assertEquals("deck has incorrect size", 0, d.getSize());
+        assertEquals("hand should be empty", 0, d.dealCards(1).length);
+    }
+
+    @Test
+    public void test_dealInto() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        ConcurrentDeck twin = new ConcurrentDeck();
+        Card[] dst = new Card[10];
+        assertEquals("incorrect number of cards dealt", 7, d.dealInto(dst, 2, 7));
+        assertNull("card should be null but is not", dst[0]);
+        assertNull("card should be null but is not", dst[1]);
+        for (int i = 2; i < 9; i++) {
+            assertSame("card is incorrect", twin.dealOneCard(), dst[i]);
+        }
+        assertNull("card should be null but is not", dst[9]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_dealInto_out_of_bounds() throws Exception {
+        new ConcurrentDeck().dealInto(new Card[5], 1, 5);
+    }
+
+    @Test
+    public void test_dealRound() throws Exception {
+        ConcurrentDeck d = new ConcurrentDeck();
+        ConcurrentDeck twin = new ConcurrentDeck();
+        Card[][] hands = d.dealRound(4, 13);
+        assertEquals("incorrect number of hands", 4, hands.length);
+        for (int k = 0; k < 13; k++) {
+            for (int seat = 0; seat < 4; seat++) {
+                assertSame("card is incorrect", twin.dealOneCard(), hands[seat][k]);
+            }
+        }
+        assertEquals("deck has incorrect size", 0, d.getSize());
+        assertNull("round should be null", d.dealRound(1, 1));
+
+        // a round that does not fit leaves the deck untouched
+        d.reset();
+        assertNull("round should be null", d.dealRound(9, 6));
+        assertEquals("deck has incorrect size", ConcurrentDeckTest.TOTAL_NUM_CARDS, d.getSize());
+
+        // seats * cardsEach overflows an int
+        assertNull("round should be null", d.dealRound(2, Integer.MAX_VALUE));
+        assertNull("round should be null", d.dealRound(Integer.MAX_VALUE, 2));
+        assertEquals("deck has incorrect size", ConcurrentDeckTest.TOTAL_NUM_CARDS, d.getSize());
+    }
+
+    /**
+     * Several threads deal hands from one deck until it is empty; every card must be dealt exactly once.
+     */
+    @Test
+    public void test_dealCards_concurrent() throws Exception {
+        for (int round = 0; round < ConcurrentDeckTest.NUM_ROUNDS; round++) {
+            final ConcurrentDeck d = new ConcurrentDeck();
+            List<Callable<List<Card>>> tasks = new ArrayList<>();
+            for (int t = 0; t < ConcurrentDeckTest.NUM_THREADS; t++) {
+                tasks.add(() -> {
+                    List<Card> dealt = new ArrayList<>();
+                    Card[] hand;
+                    while ((hand = d.dealCards(5)).length > 0) {
+                        dealt.addAll(Arrays.asList(hand));
+                    }
+                    return dealt;
+                });
+            }
+            List<Card> all = new ArrayList<>();
+            for (Future<List<Card>> f : _executor.invokeAll(tasks)) {
+                all.addAll(f.get());
+            }
+            assertAllCardsDealtOnce(all);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ *    File: CountingGenerator.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+/**
+ * Test generator that counts the random numbers drawn from a seeded <i>xoshiro256**</i> generator.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+class CountingGenerator implements IRandomGenerator {
+    private final IRandomGenerator _rand;
+    private int _draws;
+
+    CountingGenerator(final long seed) {
+        _rand = RandomGenerators.xoshiro256StarStar(seed);
+    }
+
+    @Override
+    public int nextInt(final int bound) {
+        _draws++;
+        return _rand.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        _draws++;
+        return _rand.nextLong();
+    }
+
+    int getDraws() {
+        return _draws;
+    }
+}
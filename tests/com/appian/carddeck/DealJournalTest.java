@@ -0,0 +1,177 @@
+/*
+ *    File: DealJournalTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for DealJournal and DealJournalReader
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DealJournalTest {
+
+    @Rule
+    public TemporaryFolder _folder = new TemporaryFolder();
+
+    @Test
+    public void test_replay() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        Deck table1;
+        Deck table2;
+        try (DealJournal journal = new DealJournal(dir, "deals")) {
+            table1 = journal.shuffle(1, 0, 11L);
+            table2 = journal.shuffle(2, 0, 22L);
+            for (int i = 0; i < 5; i++) {
+                journal.deal(1, 0, table1);
+                journal.deal(2, 0, table2);
+            }
+            journal.deal(2, 0, table2);
+        }
+        Map<Integer, Deck> decks = new DealJournalReader(dir, "deals").replay();
+        assertEquals("incorrect number of tables", 2, decks.size());
+        assertEquals("replayed deck of table 1 is not equal", table1, decks.get(1));
+        assertEquals("replayed deck of table 2 is not equal", table2, decks.get(2));
+        assertEquals("replayed deck has incorrect dealt cards", table2.getDealtCards(),
+                decks.get(2).getDealtCards());
+    }
+
+    @Test
+    public void test_replay_epoch() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        Deck epoch1 = null;
+        try (DealJournal journal = new DealJournal(dir, "deals")) {
+            for (long epoch = 0; epoch < 3; epoch++) {
+                Deck deck = journal.shuffle(7, epoch, 100 + epoch);
+                for (int i = 0; i < 10 + epoch; i++) {
+                    journal.deal(7, epoch, deck);
+                }
+                if (epoch == 1) {
+                    epoch1 = deck;
+                }
+            }
+        }
+        DealJournalReader reader = new DealJournalReader(dir, "deals");
+        assertEquals("replayed epoch is not equal", epoch1, reader.replay(7, 1));
+        assertEquals("replayed epoch has incorrect size", Card.NUM_CARDS - 12, reader.replay(7, 2).getSize());
+        assertNull("unrecorded epoch was replayed", reader.replay(7, 3));
+        assertNull("unrecorded table was replayed", reader.replay(8, 0));
+    }
+
+    @Test
+    public void test_rotation() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        Deck deck;
+        try (DealJournal journal = new DealJournal(dir, "deals", 10)) {
+            deck = journal.shuffle(1, 0, 5L);
+            for (int i = 0; i < 30; i++) {
+                journal.deal(1, 0, deck);
+            }
+        }
+        assertEquals("incorrect number of segments", 4, DealJournal.segments(dir, "deals").size());
+        assertEquals("segment has incorrect size", DealJournal.HEADER_SIZE + 10 * DealJournal.RECORD_SIZE,
+                Files.size(DealJournal.segmentPath(dir, "deals", 0)));
+        assertEquals("replayed deck is not equal", deck, new DealJournalReader(dir, "deals").replay().get(1));
+    }
+
+    @Test
+    public void test_reopen_appends() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        Deck deck;
+        try (DealJournal journal = new DealJournal(dir, "deals", 8)) {
+            deck = journal.shuffle(3, 0, 9L);
+            for (int i = 0; i < 10; i++) {
+                journal.deal(3, 0, deck);
+            }
+        }
+        try (DealJournal journal = new DealJournal(dir, "deals", 8)) {
+            for (int i = 0; i < 10; i++) {
+                journal.deal(3, 0, deck);
+            }
+        }
+        assertEquals("incorrect number of segments", 3, DealJournal.segments(dir, "deals").size());
+        Deck replayed = new DealJournalReader(dir, "deals").replay(3, 0);
+        assertEquals("replayed deck is not equal", deck, replayed);
+        assertEquals("replayed deck has incorrect size", Card.NUM_CARDS - 20, replayed.getSize());
+    }
+
+    @Test
+    public void test_replay_removals() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        CardSet dead = CardSet.of(Card.of(Rank.ACE, Suit.SPADES), Card.of(Rank.KING, Suit.HEARTS),
+                Card.of(Rank.TWO, Suit.CLUBS));
+        Deck deck;
+        try (DealJournal journal = new DealJournal(dir, "deals")) {
+            deck = journal.shuffle(1, 0, 9L);
+            journal.deal(1, 0, deck);
+            for (Card c : dead) {
+                if (deck.contains(c)) {
+                    assertTrue("card was not removed", journal.remove(1, 0, deck, c));
+                }
+            }
+            assertFalse("removed card was removed again", journal.remove(1, 0, deck, Card.of(Rank.ACE, Suit.SPADES)));
+            for (int i = 0; i < 10; i++) {
+                journal.deal(1, 0, deck);
+            }
+        }
+        Deck replayed = new DealJournalReader(dir, "deals").replay(1, 0);
+        assertEquals("replayed deck is not equal", deck, replayed);
+        assertArrayEquals("replayed deck deals incorrect cards", deck.dealCards(deck.getSize()),
+                replayed.dealCards(replayed.getSize()));
+    }
+
+    @Test(expected = IOException.class)
+    public void test_replay_unrecorded_removal() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        try (DealJournal journal = new DealJournal(dir, "deals")) {
+            Deck deck = journal.shuffle(1, 0, 9L);
+            deck.remove(Card.fromIndex(0));
+            deck.remove(Card.fromIndex(51));
+            for (int i = 0; i < 10; i++) {
+                journal.deal(1, 0, deck);
+            }
+        }
+        new DealJournalReader(dir, "deals").replay();
+    }
+
+    @Test(expected = IOException.class)
+    public void test_replay_mismatched_deal() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        try (DealJournal journal = new DealJournal(dir, "deals")) {
+            Deck deck = journal.shuffle(1, 0, 1L);
+            Card card = deck.dealOneCard();
+            journal.recordDeal(1, 0, card == Card.of(Rank.ACE, Suit.SPADES)
+                    ? Card.of(Rank.TWO, Suit.SPADES) : Card.of(Rank.ACE, Suit.SPADES));
+        }
+        new DealJournalReader(dir, "deals").replay();
+    }
+
+    @Test(expected = IOException.class)
+    public void test_replay_deal_without_shuffle() throws Exception {
+        Path dir = _folder.getRoot().toPath();
+        try (DealJournal journal = new DealJournal(dir, "deals")) {
+            journal.recordShuffle(1, 0, 1L);
+            journal.recordDeal(1, 1, Card.of(Rank.ACE, Suit.SPADES));
+        }
+        new DealJournalReader(dir, "deals").replay();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_closed() throws Exception {
+        DealJournal journal = new DealJournal(_folder.getRoot().toPath(), "deals");
+        journal.close();
+        journal.recordShuffle(1, 0, 1L);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ *    File: DeckCodecTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for DeckCodec
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DeckCodecTest {
+
+    @Test
+    public void test_deck_round_trip() throws Exception {
+        Deck d = new Deck(RandomGenerators.xoshiro256StarStar(1));
+        d.shuffle();
+        d.dealCards(7);
+        Deck copy = (Deck) DeckCodec.decode(ByteBuffer.wrap(DeckCodec.encode(d)));
+        assertEquals("decoded deck is not equal", d, copy);
+        assertEquals("decoded deck has incorrect dealt cards", d.getDealtCards(), copy.getDealtCards());
+        assertEquals("decoded deck deals incorrect card", d.dealOneCard(), copy.dealOneCard());
+    }
+
+    @Test
+    public void test_packedDeck_round_trip() throws Exception {
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(2));
+        d.shuffle();
+        d.dealCards(12);
+        PackedDeck copy = (PackedDeck) DeckCodec.decode(ByteBuffer.wrap(DeckCodec.encode(d)));
+        assertEquals("decoded deck is not equal", d, copy);
+        assertEquals("decoded deck has incorrect dealt cards", d.getDealtCards(), copy.getDealtCards());
+        assertArrayEquals("decoded deck deals incorrect cards", d.dealCards(40), copy.dealCards(40));
+    }
+
+    @Test
+    public void test_shoe_round_trip() throws Exception {
+        Shoe s = new Shoe(6, 0.75, RandomGenerators.xoshiro256StarStar(3));
+        s.shuffle();
+        s.dealCards(100);
+        Shoe copy = (Shoe) DeckCodec.decode(ByteBuffer.wrap(DeckCodec.encode(s)));
+        assertEquals("decoded shoe has incorrect deck count", 6, copy.getDeckCount());
+        assertEquals("decoded shoe has incorrect penetration", 0.75, copy.getPenetration(), 0);
+        assertEquals("decoded shoe has incorrect size", s.getSize(), copy.getSize());
+        assertEquals("decoded shoe has incorrect cut card", s.isCutCardReached(), copy.isCutCardReached());
+        for (Rank r : Rank.values()) {
+            assertEquals("decoded shoe has incorrect count of " + r, s.getRemaining(r), copy.getRemaining(r));
+        }
+        assertArrayEquals("decoded shoe deals incorrect cards", s.dealCards(s.getSize()),
+                copy.dealCards(copy.getSize()));
+    }
+
+    @Test
+    public void test_lazy_shuffle_round_trip() throws Exception {
+        Deck d = new Deck(RandomGenerators.xoshiro256StarStar(4));
+        d.shuffleLazily();
+        d.dealCards(3);
+        Deck copy = (Deck) DeckCodec.decode(ByteBuffer.wrap(DeckCodec.encode(d)));
+        assertTrue("decoded deck should have a pending shuffle", copy.isShufflePending());
+        assertArrayEquals("decoded deck deals incorrect cards", d.dealCards(10), copy.dealCards(10));
+        assertEquals("decoded deck is not equal", d, copy);
+    }
+
+    @Test
+    public void test_generator_state() throws Exception {
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(5));
+        d.shuffle();
+        PackedDeck copy = (PackedDeck) DeckCodec.decode(ByteBuffer.wrap(DeckCodec.encode(d)));
+        for (int i = 0; i < 3; i++) {
+            d.reset();
+            d.shuffle();
+            copy.reset();
+            copy.shuffle();
+            assertEquals("decoded deck shuffles differently", d, copy);
+        }
+    }
+
+    @Test
+    public void test_encodedSize() throws Exception {
+        assertEquals("deck has incorrect encoded size", 10 + 52 + 32,
+                DeckCodec.encodedSize(new Deck(RandomGenerators.xoshiro256StarStar(0))));
+        assertEquals("deck has incorrect encoded size", 10 + 52, DeckCodec.encodedSize(new PackedDeck()));
+        assertEquals("seeded deck has incorrect encoded size", 10 + 28 + 52, DeckCodec.encodedSize(new Deck(1L)));
+        assertEquals("shoe has incorrect encoded size", 10 + 8 + 8 * 52, DeckCodec.encodedSize(new Shoe(8)));
+        Deck d = new Deck();
+        assertEquals("encoded size is incorrect", DeckCodec.encodedSize(d), DeckCodec.encode(d).length);
+    }
+
+    @Test
+    public void test_encodeAll_decodeAll() throws Exception {
+        List<IDeck> decks = Arrays.asList(new Deck(RandomGenerators.xoshiro256StarStar(6)), new PackedDeck(),
+                new Shoe(2));
+        for (IDeck d : decks) {
+            d.shuffle();
+            d.dealCards(5);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(DeckCodec.encodedSize(decks));
+        DeckCodec.encodeAll(decks, buffer);
+        assertFalse("buffer has room left", buffer.hasRemaining());
+        buffer.flip();
+        List<IDeck> copies = DeckCodec.decodeAll(buffer);
+        assertFalse("buffer has bytes left", buffer.hasRemaining());
+        assertEquals("incorrect number of decks decoded", decks.size(), copies.size());
+        for (int i = 0; i < decks.size(); i++) {
+            assertEquals("decoded deck has incorrect class", decks.get(i).getClass(), copies.get(i).getClass());
+            assertEquals("decoded deck is not equal", decks.get(i), copies.get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_decode_bad_magic() throws Exception {
+        byte[] data = DeckCodec.encode(new Deck());
+        data[0] = 0;
+        DeckCodec.decode(ByteBuffer.wrap(data));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_decode_duplicate_card() throws Exception {
+        byte[] data = DeckCodec.encode(new PackedDeck());
+        data[data.length - 1] = data[data.length - 2];
+        DeckCodec.decode(ByteBuffer.wrap(data));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_encode_unsupported_deck() throws Exception {
+        DeckCodec.encode(new ConcurrentDeck());
+    }
+
+    @Test
+    public void test_decode_version_1() throws Exception {
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(3));
+        d.shuffle();
+        d.dealCards(5);
+        byte[] data = DeckCodec.encode(d);
+        data[1] = 1;
+        PackedDeck copy = (PackedDeck) DeckCodec.decode(ByteBuffer.wrap(data));
+        assertEquals("version 1 deck is decoded incorrectly", d, copy);
+    }
+
+    @Test
+    public void test_serialization() throws Exception {
+        Shoe s = new Shoe(2, 0.5, RandomGenerators.xoshiro256StarStar(7));
+        s.shuffle();
+        s.dealCards(20);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(s);
+        }
+        assertTrue("serialized form is not compact", bytes.size() < 300);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Shoe copy = (Shoe) in.readObject();
+            assertEquals("deserialized shoe has incorrect size", s.getSize(), copy.getSize());
+            assertArrayEquals("deserialized shoe deals incorrect cards", s.dealCards(s.getSize()),
+                    copy.dealCards(copy.getSize()));
+        }
+    }
+
+    @Test(expected = InvalidObjectException.class)
+    public void test_serialization_invalid_data() throws Exception {
+        Deck d = new Deck();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(d);
+        }
+        byte[] data = bytes.toByteArray();
+        // the last card index of the encoded deck ends the stream
+        data[data.length - 1] = (byte) Card.NUM_CARDS;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            in.readObject();
+        }
+    }
+}
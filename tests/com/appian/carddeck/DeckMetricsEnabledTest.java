@@ -0,0 +1,117 @@
+/*
+ *    File: DeckMetricsEnabledTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * jUnit test class for the instrumentation of the decks by DeckMetrics.  Because <code>DeckMetrics.ENABLED</code>
+ * is a constant, these tests only run in a JVM started with <code>-Dcom.appian.carddeck.metrics=true</code>;
+ * <code>DeckMetricsTest.test_instrumentation()</code> runs them in such a JVM.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DeckMetricsEnabledTest {
+
+    /**
+     * Deck classes of their own, so that their metrics are not shared with other tests.
+     */
+    private static final class MeteredDeck extends Deck {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class MeteredPackedDeck extends PackedDeck {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class MeteredConcurrentDeck extends ConcurrentDeck {
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue("metrics are not enabled", DeckMetrics.ENABLED);
+    }
+
+    /**
+     * Shuffles, resets, and runs the deck out of cards with <code>dealOneCard()</code>, <code>dealCards()</code>,
+     * and <code>dealRound()</code>, and checks the counters of its class.
+     */
+    private static DeckMetrics checkRecorded(final IDeck deck) {
+        DeckMetrics metrics = DeckMetrics.of(deck.getClass());
+        long shuffles = metrics.getShuffleCount();
+        long resets = metrics.getResetCount();
+        long exhaustions = metrics.getExhaustionCount();
+
+        deck.shuffle();
+        assertEquals("shuffle is not counted", shuffles + 1, metrics.getShuffleCount());
+        assertEquals("shuffle latency is not recorded", shuffles + 1, metrics.getShuffleLatency().getCount());
+        deck.reset();
+        assertEquals("reset is not counted", resets + 1, metrics.getResetCount());
+        assertEquals("reset latency is not recorded", resets + 1, metrics.getResetLatency().getCount());
+
+        deck.dealCards(deck.getSize());
+        assertEquals("deal of the last card is counted as an exhaustion", exhaustions,
+                metrics.getExhaustionCount());
+        assertNull("card dealt from an empty deck", deck.dealOneCard());
+        assertEquals("dealOneCard() exhaustion is not counted", exhaustions + 1, metrics.getExhaustionCount());
+        assertEquals("dealCards() returned cards from an empty deck", 0, deck.dealCards(1).length);
+        assertEquals("dealCards() exhaustion is not counted", exhaustions + 2, metrics.getExhaustionCount());
+        assertNull("round dealt from an empty deck", deck.dealRound(2, 1));
+        assertEquals("dealRound() exhaustion is not counted", exhaustions + 3, metrics.getExhaustionCount());
+        return metrics;
+    }
+
+    @Test
+    public void test_deck() throws Exception {
+        MeteredDeck deck = new MeteredDeck();
+        DeckMetrics metrics = DeckMetricsEnabledTest.checkRecorded(deck);
+        long lazyShuffles = metrics.getLazyShuffleCount();
+        deck.reset();
+        deck.shuffleLazily();
+        assertEquals("lazy shuffle is not counted", lazyShuffles + 1, metrics.getLazyShuffleCount());
+    }
+
+    @Test
+    public void test_packedDeck() throws Exception {
+        MeteredPackedDeck deck = new MeteredPackedDeck();
+        DeckMetrics metrics = DeckMetricsEnabledTest.checkRecorded(deck);
+        long lazyShuffles = metrics.getLazyShuffleCount();
+        deck.reset();
+        deck.shuffleLazily();
+        assertEquals("lazy shuffle is not counted", lazyShuffles + 1, metrics.getLazyShuffleCount());
+    }
+
+    @Test
+    public void test_concurrentDeck() throws Exception {
+        DeckMetricsEnabledTest.checkRecorded(new MeteredConcurrentDeck());
+    }
+
+    @Test
+    public void test_mbean() throws Exception {
+        MeteredPackedDeck deck = new MeteredPackedDeck();
+        deck.shuffle();
+        deck.shuffle();
+        DeckMetrics metrics = DeckMetrics.of(MeteredPackedDeck.class);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(DeckMetrics.JMX_DOMAIN + ":type=DeckMetrics,name="
+                + ObjectName.quote(MeteredPackedDeck.class.getName()));
+        assertTrue("metrics are not registered", server.isRegistered(name));
+        assertEquals("MBean has incorrect name", MeteredPackedDeck.class.getName(),
+                server.getAttribute(name, "Name"));
+        assertEquals("MBean has incorrect shuffle count", metrics.getShuffleCount(),
+                server.getAttribute(name, "ShuffleCount"));
+        assertTrue("MBean has no shuffle latency", (Long) server.getAttribute(name, "ShuffleP50Nanos") > 0L);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ *    File: DeckMetricsTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for DeckMetrics and LatencyHistogram
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DeckMetricsTest {
+
+    /**
+     * Deck class of its own, so that its metrics are not shared with other tests.
+     */
+    private static final class MeteredDeck extends PackedDeck {
+        private static final long serialVersionUID = 1L;
+    }
+
+    @Test
+    public void test_of() throws Exception {
+        DeckMetrics metrics = DeckMetrics.of(MeteredDeck.class);
+        assertSame("metrics are not cached", metrics, DeckMetrics.of(MeteredDeck.class));
+        assertNotSame("subclass shares metrics", metrics, DeckMetrics.of(PackedDeck.class));
+        assertEquals("metrics have incorrect name", MeteredDeck.class.getName(), metrics.getName());
+        assertTrue("metrics are not registered", DeckMetrics.all().contains(metrics));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_of_null() throws Exception {
+        DeckMetrics.of(null);
+    }
+
+    @Test
+    public void test_record() throws Exception {
+        DeckMetrics metrics = DeckMetrics.of(new IDeck() {
+            @Override
+            public void shuffle() {
+            }
+
+            @Override
+            public Card dealOneCard() {
+                return null;
+            }
+
+            @Override
+            public void reset() {
+            }
+
+            @Override
+            public int getSize() {
+                return 0;
+            }
+
+            @Override
+            public boolean contains(final Card c) {
+                return false;
+            }
+
+            @Override
+            public boolean remove(final Card c) {
+                return false;
+            }
+        }.getClass());
+        long start = System.nanoTime();
+        metrics.shuffled(start, null, Card.NUM_CARDS);
+        metrics.shuffled(start, null, Card.NUM_CARDS);
+        metrics.shuffledLazily();
+        metrics.reset(start, null, Card.NUM_CARDS);
+        metrics.exhausted();
+        assertEquals("incorrect shuffle count", 2L, metrics.getShuffleCount());
+        assertEquals("incorrect lazy shuffle count", 1L, metrics.getLazyShuffleCount());
+        assertEquals("incorrect reset count", 1L, metrics.getResetCount());
+        assertEquals("incorrect exhaustion count", 1L, metrics.getExhaustionCount());
+        assertEquals("incorrect shuffle latency count", 2L, metrics.getShuffleLatency().getCount());
+        assertEquals("incorrect reset latency count", 1L, metrics.getResetLatency().getCount());
+        assertTrue("shuffle latency is not positive", metrics.getShuffleMeanNanos() > 0.0);
+        assertTrue("p99 is below p50", metrics.getShuffleP99Nanos() >= metrics.getShuffleP50Nanos());
+    }
+
+    /**
+     * Runs <code>DeckMetricsEnabledTest</code> in a JVM with metrics enabled, since <code>ENABLED</code> is a
+     * constant that is off in this one.
+     */
+    @Test
+    public void test_instrumentation() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-Dcom.appian.carddeck.metrics=true",
+                "-cp", System.getProperty("java.class.path"),
+                "org.junit.runner.JUnitCore", DeckMetricsEnabledTest.class.getName())
+                .redirectErrorStream(true).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            byte[] buffer = new byte[4096];
+            for (int n; (n = in.read(buffer)) >= 0; ) {
+                output.write(buffer, 0, n);
+            }
+        }
+        assertTrue("instrumentation tests did not finish", process.waitFor(60, TimeUnit.SECONDS));
+        assertEquals("instrumentation tests failed:\n" + output, 0, process.exitValue());
+    }
+
+    @Test
+    public void test_bucketOf() throws Exception {
+        assertEquals("incorrect bucket of 0", 0, LatencyHistogram.bucketOf(0L));
+        assertEquals("incorrect bucket of negative latency", 0, LatencyHistogram.bucketOf(-5L));
+        assertEquals("incorrect bucket of 1", 1, LatencyHistogram.bucketOf(1L));
+        assertEquals("incorrect bucket of 3", 2, LatencyHistogram.bucketOf(3L));
+        assertEquals("incorrect bucket of 4", 3, LatencyHistogram.bucketOf(4L));
+        assertEquals("incorrect bucket of largest latency",
+                LatencyHistogram.NUM_BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void test_histogram() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals("empty histogram has a percentile", 0L, h.getPercentile(50.0));
+        assertEquals("empty histogram has a mean", 0.0, h.getMean(), 0.0);
+        for (int i = 0; i < 98; i++) {
+            h.record(100L);
+        }
+        h.record(1000L);
+        h.record(100000L);
+        assertEquals("incorrect count", 100L, h.getCount());
+        assertEquals("incorrect mean", (98 * 100 + 1000 + 100000) / 100.0, h.getMean(), 1e-9);
+        assertEquals("incorrect p50", 127L, h.getPercentile(50.0));
+        assertEquals("incorrect p98", 127L, h.getPercentile(98.0));
+        assertEquals("incorrect p99", 1023L, h.getPercentile(99.0));
+        assertEquals("incorrect p100", 131071L, h.getPercentile(100.0));
+        assertEquals("incorrect p0", 127L, h.getPercentile(0.0));
+        assertEquals("incorrect bucket count", 98L, h.getBucketCounts()[LatencyHistogram.bucketOf(100L)]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_histogram_invalid_percentile() throws Exception {
+        new LatencyHistogram().getPercentile(101.0);
+    }
+}
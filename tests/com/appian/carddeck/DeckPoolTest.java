@@ -0,0 +1,140 @@
+/*
+ *    File: DeckPoolTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for DeckPool
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DeckPoolTest {
+
+    @Test
+    public void test_borrow_release() throws Exception {
+        DeckPool<Deck> pool = new DeckPool<>(Deck::new, 2);
+        Deck d = pool.borrow();
+        assertEquals("pool has incorrect number of decks created", 1L, pool.getCreatedCount());
+        d.shuffle();
+        d.dealCards(9);
+        pool.release(d);
+
+        Deck again = pool.borrow();
+        assertSame("pool did not reuse released deck", d, again);
+        assertEquals("reused deck was not reset", new Deck(), again);
+        assertEquals("pool has incorrect number of borrows", 2L, pool.getBorrowCount());
+        assertEquals("pool has incorrect number of hits", 1L, pool.getHitCount());
+        assertEquals("pool has incorrect hit rate", 0.5, pool.getHitRate(), 0.0);
+        assertTrue("pool has negative borrow latency", pool.getMeanBorrowNanos() >= 0.0);
+    }
+
+    @Test
+    public void test_bounded() throws Exception {
+        DeckPool<PackedDeck> pool = new DeckPool<>(PackedDeck::new, 2, 1);
+        List<PackedDeck> decks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            decks.add(pool.borrow());
+        }
+        for (PackedDeck d : decks) {
+            pool.release(d);
+        }
+        // one deck in this thread's cache, two in the shared queue, and two dropped
+        assertEquals("pool has incorrect size", 2, pool.getSize());
+        assertEquals("pool has incorrect number of decks dropped", 2L, pool.getDroppedCount());
+        for (int i = 0; i < 3; i++) {
+            pool.borrow();
+        }
+        assertEquals("pool has incorrect number of hits", 3L, pool.getHitCount());
+        assertEquals("pool is not empty", 0, pool.getSize());
+    }
+
+    @Test
+    public void test_shared_between_threads() throws Exception {
+        DeckPool<Deck> pool = new DeckPool<>(Deck::new, 8, 0);
+        Deck d = pool.borrow();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> pool.release(d)).get();
+        } finally {
+            executor.shutdown();
+        }
+        assertSame("pool did not share released deck between threads", d, pool.borrow());
+    }
+
+    @Test
+    public void test_releaseThreadCache() throws Exception {
+        DeckPool<Deck> pool = new DeckPool<>(Deck::new, 2, 2);
+        List<Deck> decks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            decks.add(pool.borrow());
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the worker caches two decks and then moves them to the shared queue, which holds only one more
+            int moved = executor.submit(() -> {
+                for (Deck d : decks) {
+                    pool.release(d);
+                }
+                return pool.releaseThreadCache();
+            }).get();
+            assertEquals("incorrect number of decks moved", 1, moved);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals("pool has incorrect size", 2, pool.getSize());
+        assertEquals("pool has incorrect number of decks dropped", 1L, pool.getDroppedCount());
+        pool.borrow();
+        pool.borrow();
+        assertEquals("pool has incorrect number of hits", 2L, pool.getHitCount());
+        assertEquals("pool created a deck instead of sharing a cached one", 3L, pool.getCreatedCount());
+    }
+
+    @Test
+    public void test_concurrent() throws Exception {
+        DeckPool<Deck> pool = new DeckPool<>(Deck::new, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        Deck d = pool.borrow();
+                        assertEquals("borrowed deck is not full", Card.NUM_CARDS, d.getSize());
+                        d.shuffle();
+                        d.dealCards(5);
+                        pool.release(d);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals("pool has incorrect number of borrows", 40000L, pool.getBorrowCount());
+        assertTrue("pool created too many decks", pool.getCreatedCount() <= 4);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_release_null() throws Exception {
+        new DeckPool<>(Deck::new, 1).release(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalid_capacity() throws Exception {
+        new DeckPool<>(Deck::new, 0);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ *    File: DeckStateTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for DeckState and the seeded construction of decks
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class DeckStateTest {
+
+    @Test
+    public void test_seeded_decks_repeat() throws Exception {
+        Deck d1 = new Deck(42L);
+        Deck d2 = new Deck(42L);
+        for (int i = 0; i < 3; i++) {
+            d1.reset();
+            d1.shuffle();
+            d2.reset();
+            d2.shuffle();
+            assertEquals("decks with the same seed shuffle differently", d1, d2);
+        }
+        Deck d3 = new Deck(43L);
+        d3.shuffle();
+        assertNotEquals("decks with different seeds shuffle identically", d1, d3);
+    }
+
+    @Test
+    public void test_deck_state() throws Exception {
+        Deck d = new Deck(7L);
+        for (int i = 0; i < 5; i++) {
+            d.reset();
+            d.shuffle();
+        }
+        d.dealCards(9);
+        DeckState state = d.getState();
+        assertEquals("state has incorrect seed", 7L, state.getSeed());
+        assertEquals("state has incorrect shuffle count", 5L, state.getShuffleCount());
+        assertEquals("state has incorrect shuffles since reset", 1, state.getShufflesSinceReset());
+        assertEquals("state has incorrect cursor", 9, state.getCursor());
+
+        Deck copy = Deck.fromState(state);
+        assertEquals("rebuilt deck is not equal", d, copy);
+        assertEquals("rebuilt deck has incorrect dealt cards", d.getDealtCards(), copy.getDealtCards());
+        assertEquals("rebuilt deck has incorrect state", state, copy.getState());
+        d.reset();
+        d.shuffle();
+        copy.reset();
+        copy.shuffle();
+        assertEquals("rebuilt deck shuffles differently", d, copy);
+    }
+
+    @Test
+    public void test_jump_ahead() throws Exception {
+        PackedDeck d = new PackedDeck(3L);
+        for (int i = 0; i < 1000; i++) {
+            d.reset();
+            d.shuffle();
+        }
+        d.shuffle();
+        d.dealCards(20);
+        DeckState state = new DeckState(3L, 1001L, 2, 20);
+        assertEquals("state is incorrect", state, d.getState());
+        assertEquals("deck rebuilt from state is not equal", d, PackedDeck.fromState(state));
+    }
+
+    @Test
+    public void test_lazy_shuffle_state() throws Exception {
+        Deck d = new Deck(11L);
+        d.shuffleAndDeal(4);
+        DeckState state = d.getState();
+        Deck copy = Deck.fromState(state);
+        assertEquals("rebuilt deck has incorrect dealt cards", d.getDealtCards(), copy.getDealtCards());
+        assertEquals("rebuilt deck is not equal", d, copy);
+    }
+
+    @Test
+    public void test_shoe_state() throws Exception {
+        Shoe s = new Shoe(6, 0.75, 5L);
+        s.reshuffle();
+        s.reshuffle();
+        s.dealCards(150);
+        s.burn(1);
+        Shoe copy = new Shoe(6, 0.75, 0L);
+        copy.setState(s.getState());
+        assertEquals("rebuilt shoe has incorrect size", s.getSize(), copy.getSize());
+        for (Rank r : Rank.values()) {
+            assertEquals("rebuilt shoe has incorrect count of " + r, s.getRemaining(r), copy.getRemaining(r));
+        }
+        assertArrayEquals("rebuilt shoe deals incorrect cards", s.dealCards(s.getSize()),
+                copy.dealCards(copy.getSize()));
+    }
+
+    @Test
+    public void test_serialized_state() throws Exception {
+        Deck d = new Deck(13L);
+        for (int i = 0; i < 4; i++) {
+            d.reset();
+            d.shuffle();
+        }
+        d.dealCards(7);
+        DeckState state = d.getState();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(d);
+        }
+        Deck copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Deck) in.readObject();
+        }
+        assertEquals("deserialized deck has incorrect state", state, copy.getState());
+        copy.setState(state);
+        assertEquals("deserialized deck is not rebuilt by its state", d, copy);
+        d.reset();
+        d.shuffle();
+        copy.reset();
+        copy.shuffle();
+        assertEquals("deserialized deck shuffles differently", d, copy);
+    }
+
+    @Test
+    public void test_decoded_state() throws Exception {
+        PackedDeck d = new PackedDeck(17L);
+        d.shuffle();
+        d.shuffleAndDeal(3);
+        DeckState state = d.getState();
+        PackedDeck copy = (PackedDeck) DeckCodec.decode(ByteBuffer.wrap(DeckCodec.encode(d)));
+        assertEquals("decoded deck has incorrect state", state, copy.getState());
+        assertArrayEquals("decoded deck deals incorrect cards", d.dealCards(10), copy.dealCards(10));
+        copy.setState(state);
+        assertEquals("decoded deck has incorrect size after setState", Card.NUM_CARDS - 3, copy.getSize());
+        assertEquals("decoded deck is not rebuilt by its state", PackedDeck.fromState(state), copy);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_getState_unseeded() throws Exception {
+        new Deck(RandomGenerators.xoshiro256StarStar(1)).getState();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_getState_reshuffled_after_deal() throws Exception {
+        PackedDeck d = new PackedDeck(1L);
+        d.shuffle();
+        d.dealOneCard();
+        d.shuffle();
+        d.getState();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_getState_sorted() throws Exception {
+        Deck d = new Deck(1L);
+        d.shuffle();
+        d.sort();
+        d.getState();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_getState_removed() throws Exception {
+        PackedDeck d = new PackedDeck(1L);
+        d.shuffle();
+        d.remove(Card.of(Rank.TWO, Suit.CLUBS));
+        d.getState();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_setState_invalid_cursor() throws Exception {
+        new PackedDeck(1L).setState(new DeckState(1L, 1L, 1, Card.NUM_CARDS + 1));
+    }
+
+    @Test
+    public void test_bytes() throws Exception {
+        DeckState state = new DeckState(-5L, 123456789L, 3, 17);
+        ByteBuffer buffer = ByteBuffer.allocate(DeckState.BYTES);
+        state.writeTo(buffer);
+        assertFalse("state has incorrect size", buffer.hasRemaining());
+        buffer.flip();
+        assertEquals("state read is not equal", state, DeckState.readFrom(buffer));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalid_state() throws Exception {
+        new DeckState(0L, 1L, 2, 0);
+    }
+}
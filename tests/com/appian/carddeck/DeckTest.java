@@ -7,6 +7,7 @@ package com.appian.carddeck;
 import org.junit.*;
 
 import java.io.Serializable;
+import java.io.StringWriter;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -74,6 +75,42 @@ public class DeckTest {
         assertEquals("deck is not equal to reference deck", _referenceDeck, d);
     }
 
+    @Test
+    public void test_sort_dealt() throws Exception {
+        Deck d = new Deck();
+        d.shuffle();
+        d.dealCards(10);
+        d.sort();
+        assertEquals("sorted deck has incorrect length", DeckTest.TOTAL_NUM_CARDS - 10, d.getSize());
+        Card previous = d.dealOneCard();
+        while (d.getSize() > 0) {
+            Card c = d.dealOneCard();
+            assertTrue("deck is not sorted", previous.getIndex() < c.getIndex());
+            previous = c;
+        }
+    }
+
+    @Test
+    public void test_sort_shoe() throws Exception {
+        // a 'shoe' of two decks, built by the extension point
+        Deck d = new Deck() {
+            @Override
+            public void reset() {
+                super.reset();
+                this.populateDeck();
+            }
+        };
+        d.reset();
+        d.shuffle();
+        d.sort();
+        // sorting groups the copies of each card together, in 'natural' order
+        for (int i = 0; i < Card.NUM_CARDS; i++) {
+            Card expected = Card.fromIndex(i);
+            assertEquals("shoe is not sorted", expected, d.dealOneCard());
+            assertEquals("shoe is not sorted", expected, d.dealOneCard());
+        }
+    }
+
     @Test
     public void test_shuffle() throws Exception {
         // TODO: determine better measure of randomness to test the correctness of shuffle
@@ -120,6 +157,19 @@ public class DeckTest {
         assertTrue("string has zero length", s.length() > 0);
     }
 
+    @Test
+    public void test_appendTo() throws Exception {
+        Deck d = new Deck();
+        d.shuffle();
+        d.dealCards(5);
+        StringBuilder sb = new StringBuilder("deck: ");
+        assertSame("appendTo() did not return the builder", sb, d.appendTo(sb));
+        assertEquals("appended string is incorrect", "deck: " + d.toString(), sb.toString());
+        StringWriter w = new StringWriter();
+        d.appendTo((Appendable) w);
+        assertEquals("appended string is incorrect", d.toString(), w.toString());
+    }
+
     @Test
     public void test_equals() throws Exception {
         Deck d = new Deck();
@@ -149,4 +199,250 @@ public class DeckTest {
         assertNotEquals("hash codes are the same but should be different",
                 _referenceDeck.hashCode(), d.hashCode());
     }
+
+    @Test
+    public void test_hashCode_incremental() throws Exception {
+        Deck d = new Deck(5L);
+        Deck twin = new Deck(5L);
+        d.shuffle();
+        twin.shuffle();
+        d.hashCode();
+        d.dealCards(3);
+        twin.dealCards(3);
+        while (d.getSize() > 0) {
+            // getCards() makes the twin recompute its hash from scratch
+            twin.getCards();
+            assertEquals("incremental hash code is incorrect", twin.hashCode(), d.hashCode());
+            d.dealOneCard();
+            twin.dealOneCard();
+        }
+        assertEquals("hash code of empty decks differ", twin.hashCode(), d.hashCode());
+
+        PackedDeck packed = new PackedDeck(5L);
+        Deck lazy = new Deck(5L);
+        packed.shuffleAndDeal(7);
+        lazy.shuffleAndDeal(7);
+        assertEquals("hash code does not match PackedDeck", packed.hashCode(), lazy.hashCode());
+    }
+
+    @Test
+    public void test_contains_remove() throws Exception {
+        Deck d = new Deck(9L);
+        d.shuffle();
+        Card[] dealt = d.dealCards(3);
+        for (Card c : dealt) {
+            assertFalse("deck contains a dealt card", d.contains(c));
+            assertFalse("dealt card was removed", d.remove(c));
+        }
+        Card dead = Card.of(Rank.QUEEN, Suit.HEARTS);
+        if (!d.contains(dead)) {
+            dead = Card.of(Rank.JACK, Suit.HEARTS);
+        }
+        assertTrue("deck does not contain a remaining card", d.contains(dead));
+        assertTrue("card was not removed", d.remove(dead));
+        assertFalse("deck contains a removed card", d.contains(dead));
+        assertFalse("card was removed twice", d.remove(dead));
+        assertEquals("deck has incorrect length", DeckTest.TOTAL_NUM_CARDS - 4, d.getSize());
+        assertTrue("removed card is not out of the deck", d.getDealtCards().contains(dead));
+
+        CardSet seen = CardSet.of(dealt).add(dead);
+        while (d.getSize() > 0) {
+            Card c = d.dealOneCard();
+            assertFalse("card dealt twice or after removal", seen.contains(c));
+            seen = seen.add(c);
+        }
+        assertEquals("cards are missing", CardSet.FULL, seen);
+    }
+
+    @Test
+    public void test_contains_remove_lazy_shuffle() throws Exception {
+        for (long seed = 0L; seed < 50L; seed++) {
+            Deck d = new Deck(seed);
+            d.shuffleLazily();
+            // builds the position index before the lazy deals move cards
+            d.contains(Card.of(Rank.ACE, Suit.SPADES));
+            CardSet dealt = CardSet.of(d.dealCards(5));
+            for (int i = 0; i < Card.NUM_CARDS; i++) {
+                Card c = Card.fromIndex(i);
+                assertEquals("deck contains incorrect card " + c + " (seed " + seed + ")",
+                        !dealt.contains(c), d.contains(c));
+            }
+            for (int i = 0; i < Card.NUM_CARDS; i++) {
+                Card c = Card.fromIndex(i);
+                assertEquals("card " + c + " was removed incorrectly (seed " + seed + ")",
+                        !dealt.contains(c), d.remove(c));
+            }
+            assertEquals("deck is not empty", 0, d.getSize());
+        }
+    }
+
+    @Test
+    public void test_remove_hashCode() throws Exception {
+        Deck d = new Deck(5L);
+        Deck twin = new Deck(5L);
+        PackedDeck packed = new PackedDeck(5L);
+        d.shuffle();
+        twin.shuffle();
+        packed.shuffle();
+        d.hashCode();
+        CardSet dead = CardSet.of(Card.of(Rank.ACE, Suit.SPADES), Card.of(Rank.TWO, Suit.CLUBS),
+                Card.of(Rank.TEN, Suit.DIAMONDS));
+        assertEquals("incorrect number of cards removed", 3, d.removeAll(dead));
+        twin.removeAll(dead);
+        packed.removeAll(dead);
+        // getCards() makes the twin recompute its hash from scratch
+        twin.getCards();
+        assertEquals("incremental hash code is incorrect", twin.hashCode(), d.hashCode());
+        assertEquals("hash code does not match PackedDeck", packed.hashCode(), d.hashCode());
+        assertEquals("removal does not match PackedDeck", packed.toString(), d.toString());
+    }
+
+    @Test
+    public void test_remove_lazy() throws Exception {
+        Deck d = new Deck(3L);
+        d.shuffleLazily();
+        d.dealCards(2);
+        CardSet dead = CardSet.of(Card.of(Rank.KING, Suit.SPADES), Card.of(Rank.FOUR, Suit.HEARTS));
+        int removed = d.removeAll(dead);
+        assertEquals("deck has incorrect length", DeckTest.TOTAL_NUM_CARDS - 2 - removed, d.getSize());
+        for (Card c : d.dealCards(d.getSize())) {
+            assertFalse("removed card was dealt", dead.contains(c));
+        }
+    }
+
+    @Test
+    public void test_remove_shoe() throws Exception {
+        // a 'shoe' of two decks, built by the extension point
+        Deck d = new Deck() {
+            @Override
+            public void reset() {
+                super.reset();
+                this.populateDeck();
+            }
+        };
+        d.reset();
+        d.shuffle();
+        Card c = Card.of(Rank.SEVEN, Suit.CLUBS);
+        assertTrue("first copy was not removed", d.remove(c));
+        assertTrue("deck does not contain the second copy", d.contains(c));
+        assertTrue("second copy was not removed", d.remove(c));
+        assertFalse("deck contains a third copy", d.contains(c));
+        assertEquals("deck has incorrect length", 2 * DeckTest.TOTAL_NUM_CARDS - 2, d.getSize());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_remove_null() throws Exception {
+        new Deck().remove(null);
+    }
+
+    @Test
+    public void test_hashCode_getCards() throws Exception {
+        Deck d = new Deck();
+        int hashCode = d.hashCode();
+        List<Card> cards = d.getCards();
+        Card c = cards.set(0, cards.get(1));
+        cards.set(1, c);
+        assertNotEquals("hash code was not recomputed", hashCode, d.hashCode());
+        assertFalse("deck failed equality test", d.equals(_referenceDeck));
+    }
+
+    @Test
+    public void test_dealCards() throws Exception {
+        Deck d = new Deck(RandomGenerators.xoshiro256StarStar(1));
+        Deck twin = new Deck(RandomGenerators.xoshiro256StarStar(1));
+        d.shuffle();
+        twin.shuffle();
+        Card[] hand = d.dealCards(5);
+        assertEquals("hand has incorrect size", 5, hand.length);
+        for (Card c : hand) {
+            assertSame("card is incorrect", twin.dealOneCard(), c);
+        }
+        assertEquals("deck has incorrect size", DeckTest.TOTAL_NUM_CARDS - 5, d.getSize());
+
+        // ask for more cards than remain
+        Card[] rest = d.dealCards(DeckTest.TOTAL_NUM_CARDS);
+        assertEquals("hand has incorrect size", DeckTest.TOTAL_NUM_CARDS - 5, rest.length);
+        assertEquals("deck has incorrect size", 0, d.getSize());
+        assertEquals("hand should be empty", 0, d.dealCards(1).length);
+    }
+
+    @Test
+    public void test_dealInto() throws Exception {
+        Deck d = new Deck();
+        Deck twin = new Deck();
+        Card[] dst = new Card[10];
+        assertEquals("incorrect number of cards dealt", 7, d.dealInto(dst, 2, 7));
+        assertNull("card should be null but is not", dst[0]);
+        assertNull("card should be null but is not", dst[1]);
+        for (int i = 2; i < 9; i++) {
+            assertSame("card is incorrect", twin.dealOneCard(), dst[i]);
+        }
+        assertNull("card should be null but is not", dst[9]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_dealInto_out_of_bounds() throws Exception {
+        new Deck().dealInto(new Card[5], 1, 5);
+    }
+
+    @Test
+    public void test_dealRound() throws Exception {
+        Deck d = new Deck();
+        Deck twin = new Deck();
+        Card[][] hands = d.dealRound(4, 13);
+        assertEquals("incorrect number of hands", 4, hands.length);
+        for (int k = 0; k < 13; k++) {
+            for (int seat = 0; seat < 4; seat++) {
+                assertSame("card is incorrect", twin.dealOneCard(), hands[seat][k]);
+            }
+        }
+        assertEquals("deck has incorrect size", 0, d.getSize());
+        assertNull("round should be null", d.dealRound(1, 1));
+
+        // a round that does not fit leaves the deck untouched
+        d.reset();
+        assertNull("round should be null", d.dealRound(9, 6));
+        assertEquals("deck has incorrect size", DeckTest.TOTAL_NUM_CARDS, d.getSize());
+
+        // seats * cardsEach overflows an int
+        assertNull("round should be null", d.dealRound(2, Integer.MAX_VALUE));
+        assertNull("round should be null", d.dealRound(Integer.MAX_VALUE, 2));
+        assertEquals("deck has incorrect size", DeckTest.TOTAL_NUM_CARDS, d.getSize());
+    }
+
+    @Test
+    public void test_shuffleAndDeal() throws Exception {
+        CountingGenerator rand = new CountingGenerator(1);
+        Deck d = new Deck(rand);
+        Card[] hand = d.shuffleAndDeal(5);
+        assertEquals("hand has incorrect size", 5, hand.length);
+        assertEquals("incorrect number of random numbers drawn", 5, rand.getDraws());
+        assertEquals("deck has incorrect size", DeckTest.TOTAL_NUM_CARDS - 5, d.getSize());
+        assertEquals("incorrect dealt cards", CardSet.of(hand), d.getDealtCards());
+
+        // dealing on from a lazily shuffled deck draws one random number per card
+        d.dealInto(new Card[3], 0, 3);
+        d.dealOneCard();
+        assertEquals("incorrect number of random numbers drawn", 9, rand.getDraws());
+    }
+
+    @Test
+    public void test_shuffleLazily() throws Exception {
+        Deck d = new Deck();
+        d.shuffleLazily();
+        d.dealCards(10);
+        // observing the order completes the shuffle, after which the order no longer changes
+        CardSet remaining = d.getDealtCards().complement();
+        String order = d.toString();
+        assertEquals("deck order changed", order, d.toString());
+        assertEquals("deck has incorrect size", DeckTest.TOTAL_NUM_CARDS - 10, d.getSize());
+        assertEquals("incorrect remaining cards", remaining, CardSet.of(d.dealCards(DeckTest.TOTAL_NUM_CARDS)));
+        assertEquals("deck has incorrect size", 0, d.getSize());
+
+        // reset ends the lazy shuffle
+        d.shuffleLazily();
+        d.reset();
+        assertEquals("deck is not equal to reference deck", _referenceDeck, d);
+        assertSame("card is incorrect", Card.of(Rank.ACE, Suit.CLUBS), d.dealOneCard());
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ *    File: EquitySimulatorTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for EquitySimulator
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class EquitySimulatorTest {
+    private static final CardSet ACES = CardSet.of(Card.of(Rank.ACE, Suit.SPADES), Card.of(Rank.ACE, Suit.HEARTS));
+    private static final CardSet KINGS = CardSet.of(Card.of(Rank.KING, Suit.CLUBS), Card.of(Rank.KING, Suit.DIAMONDS));
+    /**
+     * Equity of the aces against the kings, found by evaluating all 1,712,304 boards.
+     */
+    private static final double ACES_EQUITY = 0.812555;
+    private static final int NUM_TRIALS = 200000;
+
+    @Test
+    public void test_run() throws Exception {
+        EquitySimulator sim = new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                CardSet.EMPTY);
+        EquityResult r = sim.run(EquitySimulatorTest.NUM_TRIALS, 1);
+        assertEquals("incorrect number of players", 2, r.getPlayerCount());
+        assertEquals("incorrect number of trials", EquitySimulatorTest.NUM_TRIALS, r.getTrials());
+        for (int p = 0; p < 2; p++) {
+            assertEquals("outcomes do not add up to the trials", r.getTrials(),
+                    r.getWins(p) + r.getTies(p) + r.getLosses(p));
+        }
+        assertEquals("players do not tie equally often", r.getTies(0), r.getTies(1));
+        assertEquals("equities do not add up to 1", 1.0, r.getEquity(0) + r.getEquity(1), 1e-9);
+
+        assertEquals("equity of aces is incorrect", EquitySimulatorTest.ACES_EQUITY, r.getEquity(0), 0.01);
+        assertTrue("equity is outside of its confidence interval",
+                Math.abs(r.getEquity(0) - EquitySimulatorTest.ACES_EQUITY) < r.getHalfWidth(0, 0.999));
+    }
+
+    @Test
+    public void test_run_reproducible() throws Exception {
+        EquitySimulator sim = new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                CardSet.of(Card.of(Rank.KING, Suit.SPADES)));
+        EquityResult r1 = sim.run(55555, 7);
+        EquityResult r2 = sim.run(55555, 7);
+        EquityResult r3 = sim.run(55555, 8);
+        assertEquals("results with the same seed differ", r1.toString(), r2.toString());
+        assertNotEquals("results with different seeds are equal", r1.toString(), r3.toString());
+    }
+
+    @Test
+    public void test_run_complete_board() throws Exception {
+        // kings make four of a kind on this board
+        CardSet board = CardSet.of(Card.of(Rank.KING, Suit.HEARTS), Card.of(Rank.KING, Suit.SPADES),
+                Card.of(Rank.TWO, Suit.CLUBS), Card.of(Rank.SEVEN, Suit.DIAMONDS), Card.of(Rank.NINE, Suit.HEARTS));
+        EquitySimulator sim = new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                board);
+        EquityResult r = sim.run(100, 1);
+        assertEquals("kings should lose every trial", 100, r.getLosses(0));
+        assertEquals("kings should win every trial", 100, r.getWins(1));
+        assertEquals("equity is incorrect", 1.0, r.getEquity(1), 0);
+    }
+
+    @Test
+    public void test_run_split_pot() throws Exception {
+        // both players play the straight flush on the board
+        CardSet board = CardSet.of(Card.of(Rank.NINE, Suit.CLUBS), Card.of(Rank.EIGHT, Suit.CLUBS),
+                Card.of(Rank.SEVEN, Suit.CLUBS), Card.of(Rank.SIX, Suit.CLUBS), Card.of(Rank.FIVE, Suit.CLUBS));
+        EquitySimulator sim = new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                board);
+        EquityResult r = sim.run(10, 1);
+        assertEquals("players should tie every trial", 10, r.getTies(0));
+        assertEquals("equity is incorrect", 0.5, r.getEquity(1), 0);
+    }
+
+    @Test
+    public void test_runUntil() throws Exception {
+        EquitySimulator sim = new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                CardSet.EMPTY);
+        EquityResult r = sim.runUntil(0.005, 0.95, 10000000, 1);
+        assertTrue("simulation did not stop early", r.getTrials() < 10000000);
+        assertTrue("confidence interval is too wide", r.getHalfWidth(0, 0.95) <= 0.005);
+        assertEquals("equity of aces is incorrect", EquitySimulatorTest.ACES_EQUITY, r.getEquity(0), 0.01);
+
+        // the simulation stops at the maximum number of trials if the interval is never narrow enough
+        assertEquals("incorrect number of trials", 12345, sim.runUntil(1e-6, 0.95, 12345, 1).getTrials());
+    }
+
+    @Test
+    public void test_enumerate() throws Exception {
+        EquitySimulator sim = new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                CardSet.EMPTY);
+        EquityResult r = sim.enumerate();
+        assertEquals("incorrect number of boards", 1712304, r.getTrials());
+        assertEquals("equity of aces is incorrect", EquitySimulatorTest.ACES_EQUITY, r.getEquity(0), 1e-6);
+        assertEquals("equities do not add up to 1", 1.0, r.getEquity(0) + r.getEquity(1), 1e-9);
+    }
+
+    @Test
+    public void test_enumerate_complete_board() throws Exception {
+        // both players play the straight flush on the board
+        CardSet board = CardSet.of(Card.of(Rank.NINE, Suit.CLUBS), Card.of(Rank.EIGHT, Suit.CLUBS),
+                Card.of(Rank.SEVEN, Suit.CLUBS), Card.of(Rank.SIX, Suit.CLUBS), Card.of(Rank.FIVE, Suit.CLUBS));
+        EquitySimulator sim = new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                board);
+        EquityResult r = sim.enumerate();
+        assertEquals("incorrect number of boards", 1, r.getTrials());
+        assertEquals("players should tie", 1, r.getTies(0));
+    }
+
+    @Test
+    public void test_zScore() throws Exception {
+        assertEquals("z-score is incorrect", 1.959964, EquitySimulator.zScore(0.95), 1e-6);
+        assertEquals("z-score is incorrect", 2.575829, EquitySimulator.zScore(0.99), 1e-6);
+        assertEquals("z-score is incorrect", 3.290527, EquitySimulator.zScore(0.999), 1e-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_one_player() throws Exception {
+        new EquitySimulator(Collections.singletonList(EquitySimulatorTest.ACES), CardSet.EMPTY);
+    }
+
+    @Test
+    public void test_wrong_number_of_hole_cards() throws Exception {
+        CardSet[] hands = {CardSet.EMPTY, CardSet.of(Card.of(Rank.KING, Suit.CLUBS)),
+                CardSet.of(Card.of(Rank.KING, Suit.CLUBS), Card.of(Rank.KING, Suit.DIAMONDS),
+                        Card.of(Rank.KING, Suit.HEARTS))};
+        for (CardSet hand : hands) {
+            try {
+                new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, hand), CardSet.EMPTY);
+                fail("player with " + hand.size() + " hole cards was accepted");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_card_held_twice() throws Exception {
+        new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS),
+                CardSet.of(Card.of(Rank.ACE, Suit.SPADES)));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_null_board() throws Exception {
+        new EquitySimulator(Arrays.asList(EquitySimulatorTest.ACES, EquitySimulatorTest.KINGS), null);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *    File: HandEvaluatorTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for HandEvaluator
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class HandEvaluatorTest {
+    private static final int NUM_RANDOM_HANDS = 100000;
+
+    /**
+     * Number of five-card hands in each category, from high card to straight flush.
+     */
+    private static final long[] FIVE_CARD_COUNTS =
+            {1302540, 1098240, 123552, 54912, 10200, 5108, 3744, 624, 40};
+    /**
+     * Number of seven-card hands in each category, from high card to straight flush.
+     */
+    private static final long[] SEVEN_CARD_COUNTS =
+            {23294460, 58627800, 31433400, 6461620, 6180020, 4047644, 3473184, 224848, 41584};
+
+    private static Card card(final Rank r, final Suit s) {
+        return Card.of(r, s);
+    }
+
+    @Test
+    public void test_evaluate_all_five_card_hands() throws Exception {
+        long[] counts = new long[HandCategory.values().length];
+        Set<Integer> values = new HashSet<>();
+        for (int a = 4; a < Card.NUM_CARDS; a++) {
+            for (int b = 3; b < a; b++) {
+                for (int c = 2; c < b; c++) {
+                    for (int d = 1; d < c; d++) {
+                        for (int e = 0; e < d; e++) {
+                            int value = HandEvaluator.evaluate(1L << a | 1L << b | 1L << c | 1L << d | 1L << e);
+                            counts[HandEvaluator.getCategory(value).ordinal()]++;
+                            values.add(value);
+                        }
+                    }
+                }
+            }
+        }
+        assertArrayEquals("incorrect number of hands in a category", HandEvaluatorTest.FIVE_CARD_COUNTS, counts);
+        assertEquals("incorrect number of distinct hand values", 7462, values.size());
+    }
+
+    /**
+     * Evaluates all 133,784,560 seven-card hands.
+     */
+    @Test
+    public void test_evaluate_all_seven_card_hands() throws Exception {
+        long[] counts = new long[HandCategory.values().length];
+        boolean[] seen = new boolean[HandCategory.values().length << 20];
+        for (int a = 6; a < Card.NUM_CARDS; a++) {
+            long ma = 1L << a;
+            for (int b = 5; b < a; b++) {
+                long mb = ma | 1L << b;
+                for (int c = 4; c < b; c++) {
+                    long mc = mb | 1L << c;
+                    for (int d = 3; d < c; d++) {
+                        long md = mc | 1L << d;
+                        for (int e = 2; e < d; e++) {
+                            long me = md | 1L << e;
+                            for (int f = 1; f < e; f++) {
+                                long mf = me | 1L << f;
+                                for (int g = 0; g < f; g++) {
+                                    int value = HandEvaluator.evaluate(mf | 1L << g);
+                                    counts[value >>> 20]++;
+                                    seen[value] = true;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        assertArrayEquals("incorrect number of hands in a category", HandEvaluatorTest.SEVEN_CARD_COUNTS, counts);
+        int distinct = 0;
+        for (boolean s : seen) {
+            if (s) {
+                distinct++;
+            }
+        }
+        assertEquals("incorrect number of distinct hand values", 4824, distinct);
+    }
+
+    /**
+     * A six- or seven-card hand is worth as much as the best five-card hand that can be made from its cards.
+     */
+    @Test
+    public void test_evaluate_best_five_cards() throws Exception {
+        SplittableRandom rand = new SplittableRandom(42);
+        for (int i = 0; i < HandEvaluatorTest.NUM_RANDOM_HANDS; i++) {
+            int n = 6 + (i & 1);
+            long mask = 0L;
+            while (Long.bitCount(mask) < n) {
+                mask |= 1L << rand.nextInt(Card.NUM_CARDS);
+            }
+            int best = 0;
+            for (long m = mask; m != 0; m &= m - 1) {
+                long six = mask & ~Long.lowestOneBit(m);
+                if (n == 6) {
+                    best = Math.max(best, HandEvaluator.evaluate(six));
+                } else {
+                    for (long m2 = m & (m - 1); m2 != 0; m2 &= m2 - 1) {
+                        best = Math.max(best, HandEvaluator.evaluate(six & ~Long.lowestOneBit(m2)));
+                    }
+                }
+            }
+            assertEquals("hand value is incorrect for " + CardSet.fromMask(mask), best, HandEvaluator.evaluate(mask));
+        }
+    }
+
+    @Test
+    public void test_evaluate_ordering() throws Exception {
+        int wheel = HandEvaluator.evaluate(card(Rank.ACE, Suit.CLUBS), card(Rank.TWO, Suit.HEARTS),
+                card(Rank.THREE, Suit.SPADES), card(Rank.FOUR, Suit.CLUBS), card(Rank.FIVE, Suit.DIAMONDS));
+        int sixHigh = HandEvaluator.evaluate(card(Rank.SIX, Suit.CLUBS), card(Rank.TWO, Suit.HEARTS),
+                card(Rank.THREE, Suit.SPADES), card(Rank.FOUR, Suit.CLUBS), card(Rank.FIVE, Suit.DIAMONDS));
+        int broadway = HandEvaluator.evaluate(card(Rank.ACE, Suit.CLUBS), card(Rank.KING, Suit.HEARTS),
+                card(Rank.QUEEN, Suit.SPADES), card(Rank.JACK, Suit.CLUBS), card(Rank.TEN, Suit.DIAMONDS));
+        assertEquals("hand category is incorrect", HandCategory.STRAIGHT, HandEvaluator.getCategory(wheel));
+        assertTrue("five-high straight should lose to six-high straight", wheel < sixHigh);
+        assertTrue("six-high straight should lose to ace-high straight", sixHigh < broadway);
+
+        // the kicker decides between two hands with the same pair
+        int kingKicker = HandEvaluator.evaluate(card(Rank.ACE, Suit.CLUBS), card(Rank.ACE, Suit.HEARTS),
+                card(Rank.KING, Suit.SPADES), card(Rank.FOUR, Suit.CLUBS), card(Rank.TWO, Suit.DIAMONDS));
+        int queenKicker = HandEvaluator.evaluate(card(Rank.ACE, Suit.DIAMONDS), card(Rank.ACE, Suit.SPADES),
+                card(Rank.QUEEN, Suit.SPADES), card(Rank.JACK, Suit.CLUBS), card(Rank.NINE, Suit.DIAMONDS));
+        assertEquals("hand category is incorrect", HandCategory.ONE_PAIR, HandEvaluator.getCategory(kingKicker));
+        assertTrue("queen kicker should lose to king kicker", queenKicker < kingKicker);
+
+        // the highest of three pairs is the kicker of two pair, not the highest single card
+        int threePairs = HandEvaluator.evaluate(card(Rank.FIVE, Suit.CLUBS), card(Rank.FIVE, Suit.HEARTS),
+                card(Rank.FOUR, Suit.SPADES), card(Rank.FOUR, Suit.CLUBS), card(Rank.THREE, Suit.DIAMONDS),
+                card(Rank.THREE, Suit.HEARTS), card(Rank.TWO, Suit.DIAMONDS));
+        int aceKicker = HandEvaluator.evaluate(card(Rank.FIVE, Suit.CLUBS), card(Rank.FIVE, Suit.HEARTS),
+                card(Rank.FOUR, Suit.SPADES), card(Rank.FOUR, Suit.CLUBS), card(Rank.ACE, Suit.DIAMONDS));
+        assertEquals("hand category is incorrect", HandCategory.TWO_PAIR, HandEvaluator.getCategory(threePairs));
+        assertTrue("three kicker should lose to ace kicker", threePairs < aceKicker);
+
+        int royalFlush = HandEvaluator.evaluate(card(Rank.ACE, Suit.SPADES), card(Rank.KING, Suit.SPADES),
+                card(Rank.QUEEN, Suit.SPADES), card(Rank.JACK, Suit.SPADES), card(Rank.TEN, Suit.SPADES),
+                card(Rank.ACE, Suit.HEARTS), card(Rank.ACE, Suit.CLUBS));
+        assertEquals("hand category is incorrect", HandCategory.STRAIGHT_FLUSH, HandEvaluator.getCategory(royalFlush));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_evaluate_too_few_cards() throws Exception {
+        HandEvaluator.evaluate(CardSet.of(card(Rank.ACE, Suit.SPADES), card(Rank.KING, Suit.SPADES)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_evaluate_too_many_cards() throws Exception {
+        HandEvaluator.evaluate(CardSet.FULL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_evaluate_duplicate_cards() throws Exception {
+        Card c = card(Rank.ACE, Suit.SPADES);
+        HandEvaluator.evaluate(c, c, card(Rank.KING, Suit.SPADES), card(Rank.QUEEN, Suit.SPADES),
+                card(Rank.JACK, Suit.SPADES));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_evaluate_null_card() throws Exception {
+        HandEvaluator.evaluate(card(Rank.ACE, Suit.SPADES), null, card(Rank.KING, Suit.SPADES),
+                card(Rank.QUEEN, Suit.SPADES), card(Rank.JACK, Suit.SPADES));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *    File: HandTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.io.Serializable;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for Hand
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class HandTest {
+    private static final Card[] FULL_HOUSE = {Card.of(Rank.KING, Suit.CLUBS), Card.of(Rank.KING, Suit.HEARTS),
+            Card.of(Rank.KING, Suit.SPADES), Card.of(Rank.TWO, Suit.CLUBS), Card.of(Rank.TWO, Suit.DIAMONDS)};
+    private static final Card[] FLUSH = {Card.of(Rank.ACE, Suit.HEARTS), Card.of(Rank.TEN, Suit.HEARTS),
+            Card.of(Rank.EIGHT, Suit.HEARTS), Card.of(Rank.FIVE, Suit.HEARTS), Card.of(Rank.TWO, Suit.HEARTS),
+            Card.of(Rank.ACE, Suit.CLUBS), Card.of(Rank.ACE, Suit.SPADES)};
+
+    @Test
+    public void test_hand() throws Exception {
+        Hand h = new Hand(HandTest.FULL_HOUSE);
+        assertTrue("hand is not Comparable", h instanceof Comparable);
+        assertTrue("hand is not Serializable", h instanceof Serializable);
+        assertEquals("hand has incorrect cards", CardSet.of(HandTest.FULL_HOUSE), h.getCards());
+        assertEquals("hand has incorrect category", HandCategory.FULL_HOUSE, h.getCategory());
+        assertEquals("hand has incorrect value", HandEvaluator.evaluate(HandTest.FULL_HOUSE), h.getValue());
+        assertEquals("hand has incorrect category", HandCategory.FLUSH, new Hand(HandTest.FLUSH).getCategory());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_hand_too_few_cards() throws Exception {
+        new Hand(Card.of(Rank.KING, Suit.CLUBS));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_hand_null() throws Exception {
+        new Hand((CardSet) null);
+    }
+
+    @Test
+    public void test_compareTo() throws Exception {
+        Hand fullHouse = new Hand(HandTest.FULL_HOUSE);
+        Hand flush = new Hand(HandTest.FLUSH);
+        assertTrue("full house should beat flush", fullHouse.compareTo(flush) > 0);
+        assertTrue("flush should lose to full house", flush.compareTo(fullHouse) < 0);
+        assertEquals("hand should tie with itself", 0, flush.compareTo(new Hand(CardSet.of(HandTest.FLUSH))));
+    }
+
+    @Test
+    public void test_toString() throws Exception {
+        assertEquals("Full house [Two of Clubs, King of Clubs, Two of Diamonds, King of Hearts, King of Spades]",
+                new Hand(HandTest.FULL_HOUSE).toString());
+    }
+
+    @Test
+    public void test_appendTo() throws Exception {
+        Hand h = new Hand(HandTest.FULL_HOUSE);
+        assertEquals("appended string is incorrect", h.toString(), h.appendTo(new StringBuilder()).toString());
+    }
+
+    @Test
+    public void test_equals_hashCode() throws Exception {
+        Hand h = new Hand(HandTest.FULL_HOUSE);
+        Hand same = new Hand(CardSet.of(HandTest.FULL_HOUSE));
+        assertFalse("hand failed equality test", h.equals(null));
+        assertFalse("hand failed equality test", h.equals(new Object()));
+        assertTrue("hand failed equality test", h.equals(h));
+        assertTrue("hand failed equality test", h.equals(same));
+        assertTrue("hand failed equality test", same.equals(h));
+        assertEquals("hash codes are not equal", h.hashCode(), same.hashCode());
+        assertFalse("hand failed equality test", h.equals(new Hand(HandTest.FLUSH)));
+    }
+}
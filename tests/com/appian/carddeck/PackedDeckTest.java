@@ -0,0 +1,292 @@
+/*
+ *    File: PackedDeckTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.*;
+
+import java.io.Serializable;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for PackedDeck
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class PackedDeckTest {
+    private static final int TOTAL_NUM_CARDS = Rank.values().length * Suit.values().length;
+    private PackedDeck _referenceDeck;
+
+    @Before
+    public void setUp() throws Exception {
+        _referenceDeck = new PackedDeck();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        _referenceDeck = null;
+    }
+
+    @Test
+    public void test_deck() throws Exception {
+        PackedDeck d = new PackedDeck();
+        assertNotNull("deck is null", d);
+        // check contract
+        assertTrue("deck is not an IDeck", d instanceof IDeck);
+        assertTrue("deck is not Serializable", d instanceof Serializable);
+        assertTrue("deck has incorrect length", d.getSize() == PackedDeckTest.TOTAL_NUM_CARDS);
+    }
+
+    @Test
+    public void test_reset() throws Exception {
+        PackedDeck d = new PackedDeck();
+        // shuffle deck and deal one card to reduce deck size
+        d.shuffle();
+        d.dealOneCard();
+
+        d.reset();
+        assertEquals("deck is not equal to reference deck", _referenceDeck, d);
+    }
+
+    @Test
+    public void test_sort() throws Exception {
+        PackedDeck d = new PackedDeck();
+        d.shuffle();
+        d.sort();
+        assertEquals("deck is not equal to reference deck", _referenceDeck, d);
+    }
+
+    @Test
+    public void test_contains_remove() throws Exception {
+        PackedDeck d = new PackedDeck(9L);
+        Deck reference = new Deck(9L);
+        d.shuffleLazily();
+        reference.shuffleLazily();
+        Card[] dealt = d.dealCards(5);
+        reference.dealCards(5);
+        for (Card c : dealt) {
+            assertFalse("deck contains a dealt card", d.contains(c));
+        }
+        CardSet dead = CardSet.of(Card.of(Rank.ACE, Suit.CLUBS), Card.of(Rank.NINE, Suit.SPADES),
+                Card.of(Rank.THREE, Suit.HEARTS));
+        int removed = d.removeAll(dead);
+        assertEquals("removal does not match Deck", reference.removeAll(dead), removed);
+        assertEquals("deck has incorrect length", PackedDeckTest.TOTAL_NUM_CARDS - 5 - removed, d.getSize());
+        for (Card c : dead) {
+            assertFalse("deck contains a removed card", d.contains(c));
+        }
+        assertEquals("dealt cards do not match Deck", reference.getDealtCards(), d.getDealtCards());
+        assertArrayEquals("deal after removal does not match Deck", reference.dealCards(52), d.dealCards(52));
+    }
+
+    @Test
+    public void test_shuffle() throws Exception {
+        PackedDeck d = new PackedDeck();
+        d.shuffle();
+        assertTrue("deck has incorrect length", d.getSize() == PackedDeckTest.TOTAL_NUM_CARDS);
+        assertNotEquals("deck is equal to reference deck but should not be", _referenceDeck, d);
+    }
+
+    @Test
+    public void test_dealOneCard() throws Exception {
+        PackedDeck d = new PackedDeck();
+        for (int i = PackedDeckTest.TOTAL_NUM_CARDS - 1; i >= 0; i--) {
+            Card c = d.dealOneCard();
+            assertNotNull("card is null", c);
+            assertEquals("deck has incorrect size", i, d.getSize());
+        }
+
+        // check that there are no more cards left
+        Card c = d.dealOneCard();
+        assertNull("card should be null but is not", c);
+        assertEquals("deck has incorrect size", 0, d.getSize());
+    }
+
+    @Test
+    public void test_dealOneCard_matches_deck() throws Exception {
+        // an unshuffled PackedDeck deals the same cards in the same order as an unshuffled Deck
+        PackedDeck pd = new PackedDeck();
+        Deck d = new Deck();
+        for (int i = 0; i < PackedDeckTest.TOTAL_NUM_CARDS; i++) {
+            assertSame("card is incorrect", d.dealOneCard(), pd.dealOneCard());
+        }
+    }
+
+    @Test
+    public void test_getSize() throws Exception {
+        PackedDeck d = new PackedDeck();
+        assertEquals("deck has incorrect size", PackedDeckTest.TOTAL_NUM_CARDS, d.getSize());
+    }
+
+    @Test
+    public void test_toString() throws Exception {
+        PackedDeck d = new PackedDeck();
+        String s = d.toString();
+        assertNotNull("toString() returned null", s);
+        assertEquals("string does not match Deck", new Deck().toString(), s);
+    }
+
+    @Test
+    public void test_equals() throws Exception {
+        PackedDeck d = new PackedDeck();
+        // test against null
+        assertFalse("deck failed equality test", d.equals(null));
+
+        // test against wrong object type
+        assertFalse("deck failed equality test", d.equals(new Object()));
+
+        // test reflexivity
+        assertTrue("deck failed equality test", d.equals(d));
+
+        // test symmetry
+        assertTrue("deck failed equality test", d.equals(_referenceDeck));
+        assertTrue("deck failed equality test", _referenceDeck.equals(d));
+        d.shuffle();
+        assertFalse("deck failed equality test", d.equals(_referenceDeck));
+        assertFalse("deck failed equality test", _referenceDeck.equals(d));
+    }
+
+    @Test
+    public void test_hashCode() throws Exception {
+        PackedDeck d = new PackedDeck();
+        assertEquals("hash codes are not equal", _referenceDeck.hashCode(), d.hashCode());
+        assertEquals("hash code does not match Deck", new Deck().hashCode(), d.hashCode());
+
+        d.shuffle();
+        assertNotEquals("hash codes are the same but should be different",
+                _referenceDeck.hashCode(), d.hashCode());
+    }
+
+    @Test
+    public void test_hashCode_incremental() throws Exception {
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(3));
+        d.shuffle();
+        d.hashCode();
+        Deck reference = new Deck(RandomGenerators.xoshiro256StarStar(3));
+        reference.shuffle();
+        while (d.getSize() > 0) {
+            assertEquals("incremental hash code does not match Deck", reference.hashCode(), d.hashCode());
+            d.dealOneCard();
+            reference.dealOneCard();
+        }
+
+        Shoe s = new Shoe(2);
+        Shoe twin = new Shoe(2);
+        s.dealCards(60);
+        twin.dealCards(60);
+        assertEquals("hash codes of shoes differ", twin.hashCode(), s.hashCode());
+        s.dealCards(5);
+        assertNotEquals("hash code of shoe was not updated", twin.hashCode(), s.hashCode());
+    }
+
+    @Test
+    public void test_dealCards() throws Exception {
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(1));
+        PackedDeck twin = new PackedDeck(RandomGenerators.xoshiro256StarStar(1));
+        d.shuffle();
+        twin.shuffle();
+        Card[] hand = d.dealCards(5);
+        assertEquals("hand has incorrect size", 5, hand.length);
+        for (Card c : hand) {
+            assertSame("card is incorrect", twin.dealOneCard(), c);
+        }
+        assertEquals("deck has incorrect size", PackedDeckTest.TOTAL_NUM_CARDS - 5, d.getSize());
+
+        // ask for more cards than remain
+        Card[] rest = d.dealCards(PackedDeckTest.TOTAL_NUM_CARDS);
+        assertEquals("hand has incorrect size", PackedDeckTest.TOTAL_NUM_CARDS - 5, rest.length);
+        assertEquals("deck has incorrect size", 0, d.getSize());
+        assertEquals("hand should be empty", 0, d.dealCards(1).length);
+    }
+
+    @Test
+    public void test_dealInto() throws Exception {
+        PackedDeck d = new PackedDeck();
+        PackedDeck twin = new PackedDeck();
+        Card[] dst = new Card[10];
+        assertEquals("incorrect number of cards dealt", 7, d.dealInto(dst, 2, 7));
+        assertNull("card should be null but is not", dst[0]);
+        assertNull("card should be null but is not", dst[1]);
+        for (int i = 2; i < 9; i++) {
+            assertSame("card is incorrect", twin.dealOneCard(), dst[i]);
+        }
+        assertNull("card should be null but is not", dst[9]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void test_dealInto_out_of_bounds() throws Exception {
+        new PackedDeck().dealInto(new Card[5], 1, 5);
+    }
+
+    @Test
+    public void test_dealRound() throws Exception {
+        PackedDeck d = new PackedDeck();
+        PackedDeck twin = new PackedDeck();
+        Card[][] hands = d.dealRound(4, 13);
+        assertEquals("incorrect number of hands", 4, hands.length);
+        for (int k = 0; k < 13; k++) {
+            for (int seat = 0; seat < 4; seat++) {
+                assertSame("card is incorrect", twin.dealOneCard(), hands[seat][k]);
+            }
+        }
+        assertEquals("deck has incorrect size", 0, d.getSize());
+        assertNull("round should be null", d.dealRound(1, 1));
+
+        // a round that does not fit leaves the deck untouched
+        d.reset();
+        assertNull("round should be null", d.dealRound(9, 6));
+        assertEquals("deck has incorrect size", PackedDeckTest.TOTAL_NUM_CARDS, d.getSize());
+    }
+
+    @Test
+    public void test_shuffleAndDeal() throws Exception {
+        CountingGenerator rand = new CountingGenerator(1);
+        PackedDeck d = new PackedDeck(rand);
+        Card[] hand = d.shuffleAndDeal(5);
+        assertEquals("hand has incorrect size", 5, hand.length);
+        assertEquals("incorrect number of random numbers drawn", 5, rand.getDraws());
+        assertEquals("deck has incorrect size", PackedDeckTest.TOTAL_NUM_CARDS - 5, d.getSize());
+        assertEquals("incorrect dealt cards", CardSet.of(hand), d.getDealtCards());
+
+        // dealing on from a lazily shuffled deck draws one random number per card
+        d.dealInto(new Card[3], 0, 3);
+        d.dealOneCard();
+        assertEquals("incorrect number of random numbers drawn", 9, rand.getDraws());
+    }
+
+    @Test
+    public void test_shuffleLazily() throws Exception {
+        PackedDeck d = new PackedDeck();
+        d.shuffleLazily();
+        d.dealCards(10);
+        // observing the order completes the shuffle, after which the order no longer changes
+        CardSet remaining = d.getDealtCards().complement();
+        String order = d.toString();
+        assertEquals("deck order changed", order, d.toString());
+        assertEquals("deck has incorrect size", PackedDeckTest.TOTAL_NUM_CARDS - 10, d.getSize());
+        assertEquals("incorrect remaining cards", remaining, CardSet.of(d.dealCards(PackedDeckTest.TOTAL_NUM_CARDS)));
+        assertEquals("deck has incorrect size", 0, d.getSize());
+
+        // reset ends the lazy shuffle
+        d.shuffleLazily();
+        d.reset();
+        assertEquals("deck is not equal to reference deck", _referenceDeck, d);
+        assertSame("card is incorrect", Card.of(Rank.ACE, Suit.CLUBS), d.dealOneCard());
+    }
+
+    @Test
+    public void test_shuffleLazily_matches_shuffle() throws Exception {
+        // a lazy shuffle draws the same random numbers, in the same order, as a full shuffle
+        PackedDeck d = new PackedDeck(RandomGenerators.xoshiro256StarStar(3));
+        PackedDeck lazy = new PackedDeck(RandomGenerators.xoshiro256StarStar(3));
+        d.shuffle();
+        lazy.shuffleLazily();
+        for (int i = 0; i < 10; i++) {
+            assertSame("card is incorrect", d.dealOneCard(), lazy.dealOneCard());
+        }
+        assertEquals("deck is not equal to fully shuffled deck", d, lazy);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *    File: RandomGeneratorsTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for RandomGenerators and Xoshiro256StarStar
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class RandomGeneratorsTest {
+    private static final long SEED = 0x5EEDL;
+    private static final int NUM_DRAWS = 1000;
+
+    private static void assertSameSequence(final IRandomGenerator r1, final IRandomGenerator r2) {
+        for (int i = 0; i < RandomGeneratorsTest.NUM_DRAWS; i++) {
+            assertEquals("sequences differ", r1.nextLong(), r2.nextLong());
+            assertEquals("sequences differ", r1.nextInt(i + 1), r2.nextInt(i + 1));
+        }
+    }
+
+    private static void assertInBounds(final IRandomGenerator r) {
+        for (int bound = 1; bound <= Card.NUM_CARDS; bound++) {
+            for (int i = 0; i < RandomGeneratorsTest.NUM_DRAWS; i++) {
+                int value = r.nextInt(bound);
+                assertTrue("value is out of bounds", value >= 0 && value < bound);
+            }
+        }
+    }
+
+    @Test
+    public void test_splittable() throws Exception {
+        assertSameSequence(RandomGenerators.splittable(SEED), RandomGenerators.splittable(SEED));
+        assertInBounds(RandomGenerators.splittable(SEED));
+    }
+
+    @Test
+    public void test_xoshiro256StarStar() throws Exception {
+        assertSameSequence(RandomGenerators.xoshiro256StarStar(SEED), RandomGenerators.xoshiro256StarStar(SEED));
+        assertInBounds(RandomGenerators.xoshiro256StarStar(SEED));
+        assertNotEquals("different seeds produced the same value",
+                RandomGenerators.xoshiro256StarStar(1).nextLong(), RandomGenerators.xoshiro256StarStar(2).nextLong());
+    }
+
+    @Test
+    public void test_xoshiro256StarStar_reference() throws Exception {
+        // reference output of xoshiro256** for state {1, 2, 3, 4}
+        Xoshiro256StarStar r = new Xoshiro256StarStar(1, 2, 3, 4);
+        assertEquals(11520L, r.nextLong());
+        assertEquals(0L, r.nextLong());
+        assertEquals(1509978240L, r.nextLong());
+        assertEquals(1215971899390074240L, r.nextLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_xoshiro256StarStar_zero_state() throws Exception {
+        new Xoshiro256StarStar(0, 0, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_xoshiro256StarStar_bad_bound() throws Exception {
+        RandomGenerators.xoshiro256StarStar(SEED).nextInt(0);
+    }
+
+    @Test
+    public void test_secure() throws Exception {
+        assertSameSequence(RandomGenerators.secure(SEED), RandomGenerators.secure(SEED));
+        assertInBounds(RandomGenerators.secure());
+    }
+
+    @Test
+    public void test_threadLocal() throws Exception {
+        assertSame("thread-local generator is not shared", RandomGenerators.threadLocal(), RandomGenerators.threadLocal());
+        assertInBounds(RandomGenerators.threadLocal());
+    }
+
+    @Test
+    public void test_seeded_decks() throws Exception {
+        Deck d1 = new Deck(RandomGenerators.xoshiro256StarStar(SEED));
+        Deck d2 = new Deck(RandomGenerators.xoshiro256StarStar(SEED));
+        PackedDeck pd1 = new PackedDeck(RandomGenerators.splittable(SEED));
+        PackedDeck pd2 = new PackedDeck(RandomGenerators.splittable(SEED));
+        for (int i = 0; i < 10; i++) {
+            d1.shuffle();
+            d2.shuffle();
+            assertEquals("seeded decks differ", d1, d2);
+            pd1.shuffle();
+            pd2.shuffle();
+            assertEquals("seeded decks differ", pd1, pd2);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_deck_null_generator() throws Exception {
+        new Deck(null);
+    }
+}
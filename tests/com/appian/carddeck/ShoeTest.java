@@ -0,0 +1,141 @@
+/*
+ *    File: ShoeTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class for Shoe
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class ShoeTest {
+    private static final int TOTAL_NUM_CARDS = Rank.values().length * Suit.values().length;
+    private static final int NUM_DECKS = 6;
+
+    @Test
+    public void test_shoe() throws Exception {
+        Shoe s = new Shoe(ShoeTest.NUM_DECKS);
+        assertTrue("shoe is not an IDeck", s instanceof IDeck);
+        assertEquals("shoe has incorrect deck count", ShoeTest.NUM_DECKS, s.getDeckCount());
+        assertEquals("shoe has incorrect size", ShoeTest.NUM_DECKS * ShoeTest.TOTAL_NUM_CARDS, s.getSize());
+        assertEquals("shoe has incorrect penetration", Shoe.DEFAULT_PENETRATION, s.getPenetration(), 0.0);
+        for (Rank r : Rank.values()) {
+            assertEquals("incorrect count for rank " + r, ShoeTest.NUM_DECKS * 4, s.getRemaining(r));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_shoe_bad_deck_count() throws Exception {
+        new Shoe(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_shoe_bad_penetration() throws Exception {
+        new Shoe(ShoeTest.NUM_DECKS, 0.0, RandomGenerators.defaultGenerator());
+    }
+
+    @Test
+    public void test_remove() throws Exception {
+        Shoe s = new Shoe(2, 1.0, RandomGenerators.xoshiro256StarStar(4));
+        s.shuffle();
+        Card c = Card.of(Rank.ACE, Suit.DIAMONDS);
+        assertTrue("first copy was not removed", s.remove(c));
+        assertTrue("second copy was not removed", s.remove(c));
+        assertFalse("shoe contains a third copy", s.contains(c));
+        assertEquals("shoe has incorrect count of aces", 6, s.getRemaining(Rank.ACE));
+        assertEquals("shoe has incorrect size", 2 * Card.NUM_CARDS - 2, s.getSize());
+    }
+
+    @Test
+    public void test_dealOneCard() throws Exception {
+        Shoe s = new Shoe(8, 1.0, RandomGenerators.xoshiro256StarStar(3));
+        s.shuffle();
+        Map<Card, Integer> counts = new HashMap<>();
+        Card c;
+        while ((c = s.dealOneCard()) != null) {
+            counts.merge(c, 1, Integer::sum);
+            assertTrue("rank count is negative", s.getRemaining(c.getRank()) >= 0);
+        }
+        // every card appears once per deck
+        assertEquals("incorrect number of distinct cards", ShoeTest.TOTAL_NUM_CARDS, counts.size());
+        for (int count : counts.values()) {
+            assertEquals("incorrect number of copies", 8, count);
+        }
+        for (Rank r : Rank.values()) {
+            assertEquals("incorrect count for rank " + r, 0, s.getRemaining(r));
+        }
+    }
+
+    @Test
+    public void test_getRemaining() throws Exception {
+        Shoe s = new Shoe(ShoeTest.NUM_DECKS, Shoe.DEFAULT_PENETRATION, RandomGenerators.xoshiro256StarStar(5));
+        s.shuffle();
+        int[] expected = new int[Rank.values().length];
+        for (Rank r : Rank.values()) {
+            expected[r.ordinal()] = ShoeTest.NUM_DECKS * 4;
+        }
+        for (Card c : s.dealCards(20)) {
+            expected[c.getRank().ordinal()]--;
+        }
+        for (Card[] hand : s.dealRound(7, 2)) {
+            for (Card c : hand) {
+                expected[c.getRank().ordinal()]--;
+            }
+        }
+        for (Rank r : Rank.values()) {
+            assertEquals("incorrect count for rank " + r, expected[r.ordinal()], s.getRemaining(r));
+        }
+
+        s.reset();
+        for (Rank r : Rank.values()) {
+            assertEquals("incorrect count for rank " + r, ShoeTest.NUM_DECKS * 4, s.getRemaining(r));
+        }
+    }
+
+    @Test
+    public void test_burn() throws Exception {
+        Shoe s = new Shoe(1);
+        // the first card of an unshuffled shoe is the Ace of Clubs
+        assertEquals("incorrect number of cards burned", 1, s.burn(1));
+        assertEquals("incorrect count for rank", 3, s.getRemaining(Rank.ACE));
+        assertEquals("shoe has incorrect size", ShoeTest.TOTAL_NUM_CARDS - 1, s.getSize());
+        assertEquals("incorrect number of cards burned", ShoeTest.TOTAL_NUM_CARDS - 1, s.burn(100));
+        assertEquals("shoe has incorrect size", 0, s.getSize());
+    }
+
+    @Test
+    public void test_isCutCardReached() throws Exception {
+        Shoe s = new Shoe(ShoeTest.NUM_DECKS, 0.5, RandomGenerators.defaultGenerator());
+        int half = ShoeTest.NUM_DECKS * ShoeTest.TOTAL_NUM_CARDS / 2;
+        s.dealCards(half - 1);
+        assertFalse("cut card should not have been reached", s.isCutCardReached());
+        s.dealOneCard();
+        assertTrue("cut card should have been reached", s.isCutCardReached());
+        s.reshuffle();
+        assertFalse("cut card should not have been reached", s.isCutCardReached());
+        assertEquals("shoe has incorrect size", ShoeTest.NUM_DECKS * ShoeTest.TOTAL_NUM_CARDS, s.getSize());
+    }
+
+    @Test
+    public void test_sort() throws Exception {
+        Shoe s = new Shoe(2);
+        s.shuffle();
+        s.sort();
+        // sorting groups the copies of each card together, in 'natural' order
+        Card previous = s.dealOneCard();
+        Card c;
+        while ((c = s.dealOneCard()) != null) {
+            assertTrue("shoe is not sorted", previous.getIndex() <= c.getIndex());
+            previous = c;
+        }
+    }
+}
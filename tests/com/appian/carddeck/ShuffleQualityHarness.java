@@ -0,0 +1,289 @@
+/*
+ *    File: ShuffleQualityHarness.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Statistical harness that measures how uniformly a deck is shuffled.  The deck is reset, shuffled, and dealt out
+ * many times, in parallel chunks that each own a deck with their own seed, and three chi-square tests are run on
+ * the combined counts:
+ * <ul>
+ * <li><b>position by card</b>: how often each card is dealt at each position, which should be <code>1/52</code>
+ * for every pair (2,601 degrees of freedom);</li>
+ * <li><b>fixed points</b>: how many cards are dealt at the same position as from an unshuffled deck, which should
+ * follow the distribution of fixed points of a random permutation (close to Poisson with mean 1).  A shuffle that
+ * only produces cyclic permutations (e.g., Sattolo's algorithm) never leaves a fixed point;</li>
+ * <li><b>pair adjacency</b>: how often each card is dealt immediately after each other card, which should be
+ * <code>1/52</code> per deal for every ordered pair.</li>
+ * </ul>
+ * Each statistic is compared with the critical value of the chi-square distribution at significance
+ * <code>ALPHA</code>, using the Wilson-Hilferty approximation.  Any new or faster shuffle should pass this harness
+ * before it is used.  Run <code>main()</code> to report on every deck with ten million shuffles.
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+final class ShuffleQualityHarness {
+
+    /**
+     * Significance level of the tests.  It is small so that a correct shuffle practically never fails.
+     */
+    static final double ALPHA = 1e-6;
+    /**
+     * Number of standard normal deviations that corresponds to <code>ALPHA</code> (one-sided).
+     */
+    private static final double Z_ALPHA = 4.753424;
+    /**
+     * Number of chunks that the shuffles are split into.  This is a constant so that results are reproducible.
+     */
+    private static final int NUM_CHUNKS = 64;
+    /**
+     * Largest number of fixed points counted separately; larger counts are pooled.
+     */
+    private static final int MAX_FIXED_POINTS = 5;
+    private static final int N = Card.NUM_CARDS;
+
+    /**
+     * Creates a deck with the given seed.
+     */
+    private final LongFunction<IDeck> _factory;
+    /**
+     * Shuffles a reset deck (e.g., <code>IDeck::shuffle</code>).
+     */
+    private final Consumer<IDeck> _shuffle;
+
+    /**
+     * Constructs a harness for the decks created by <code>factory</code>, shuffled by <code>shuffle</code>.
+     *
+     * @param factory creates a 52-card deck whose shuffles are driven by the given seed
+     * @param shuffle shuffles a reset deck
+     */
+    ShuffleQualityHarness(final LongFunction<IDeck> factory, final Consumer<IDeck> shuffle) {
+        _factory = factory;
+        _shuffle = shuffle;
+    }
+
+    /**
+     * Shuffles and deals out the deck <code>trials</code> times, and runs the chi-square tests on the results.
+     *
+     * @param trials number of shuffles
+     * @param seed   seed from which the seeds of the chunks are split
+     * @return the results of the tests
+     */
+    Report run(final long trials, final long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        long[] chunkSeeds = new long[ShuffleQualityHarness.NUM_CHUNKS];
+        for (int c = 0; c < chunkSeeds.length; c++) {
+            chunkSeeds[c] = seeds.nextLong();
+        }
+        List<Counts> results = IntStream.range(0, ShuffleQualityHarness.NUM_CHUNKS).parallel()
+                .mapToObj(c -> this.runChunk(chunkSeeds[c], trials / ShuffleQualityHarness.NUM_CHUNKS
+                        + (c < trials % ShuffleQualityHarness.NUM_CHUNKS ? 1 : 0)))
+                .collect(Collectors.toList());
+        Counts total = new Counts();
+        for (Counts c : results) {
+            total.add(c);
+        }
+        return total.toReport(trials);
+    }
+
+    private Counts runChunk(final long seed, final long trials) {
+        IDeck deck = _factory.apply(seed);
+        if (deck.getSize() != ShuffleQualityHarness.N) {
+            throw new IllegalArgumentException("deck must hold " + ShuffleQualityHarness.N + " cards");
+        }
+        deck.reset();
+        Card[] reference = deck.dealCards(ShuffleQualityHarness.N);
+        Card[] dealt = new Card[ShuffleQualityHarness.N];
+        Counts counts = new Counts();
+        for (long t = 0; t < trials; t++) {
+            deck.reset();
+            _shuffle.accept(deck);
+            deck.dealInto(dealt, 0, ShuffleQualityHarness.N);
+            int fixed = 0;
+            for (int p = 0; p < ShuffleQualityHarness.N; p++) {
+                int card = dealt[p].getIndex();
+                counts._positions[p * ShuffleQualityHarness.N + card]++;
+                if (dealt[p] == reference[p]) {
+                    fixed++;
+                }
+                if (p > 0) {
+                    counts._pairs[dealt[p - 1].getIndex() * ShuffleQualityHarness.N + card]++;
+                }
+            }
+            counts._fixedPoints[Math.min(fixed, ShuffleQualityHarness.MAX_FIXED_POINTS)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the critical value of the chi-square distribution with <code>df</code> degrees of freedom at
+     * significance <code>ALPHA</code>, by the Wilson-Hilferty approximation.
+     */
+    static double criticalValue(final int df) {
+        double v = 2.0 / (9.0 * df);
+        double root = 1 - v + ShuffleQualityHarness.Z_ALPHA * Math.sqrt(v);
+        return df * root * root * root;
+    }
+
+    /**
+     * Returns the probability that a random permutation of <code>n</code> items has exactly <code>k</code> fixed
+     * points: <code>(1/k!) * sum(j = 0..n-k) (-1)^j / j!</code>.
+     */
+    static double fixedPointProbability(final int n, final int k) {
+        double sum = 0;
+        double term = 1;
+        for (int j = 0; j <= n - k; j++) {
+            sum += term;
+            term /= -(j + 1);
+        }
+        double kFactorial = 1;
+        for (int i = 2; i <= k; i++) {
+            kFactorial *= i;
+        }
+        return sum / kFactorial;
+    }
+
+    /**
+     * Counts accumulated by one chunk, or by all of them.
+     */
+    private static final class Counts {
+        private final long[] _positions = new long[ShuffleQualityHarness.N * ShuffleQualityHarness.N];
+        private final long[] _pairs = new long[ShuffleQualityHarness.N * ShuffleQualityHarness.N];
+        private final long[] _fixedPoints = new long[ShuffleQualityHarness.MAX_FIXED_POINTS + 1];
+
+        private void add(final Counts other) {
+            for (int i = 0; i < _positions.length; i++) {
+                _positions[i] += other._positions[i];
+                _pairs[i] += other._pairs[i];
+            }
+            for (int i = 0; i < _fixedPoints.length; i++) {
+                _fixedPoints[i] += other._fixedPoints[i];
+            }
+        }
+
+        private Report toReport(final long trials) {
+            int n = ShuffleQualityHarness.N;
+            double positions = 0;
+            double expected = (double) trials / n;
+            for (long observed : _positions) {
+                positions += (observed - expected) * (observed - expected) / expected;
+            }
+
+            double pairs = 0;
+            for (int a = 0; a < n; a++) {
+                for (int b = 0; b < n; b++) {
+                    if (a != b) {
+                        long observed = _pairs[a * n + b];
+                        pairs += (observed - expected) * (observed - expected) / expected;
+                    }
+                }
+            }
+
+            double fixedPoints = 0;
+            double pooled = 1;
+            for (int k = 0; k <= ShuffleQualityHarness.MAX_FIXED_POINTS; k++) {
+                double p = k < ShuffleQualityHarness.MAX_FIXED_POINTS
+                        ? ShuffleQualityHarness.fixedPointProbability(n, k) : pooled;
+                pooled -= p;
+                double e = trials * p;
+                fixedPoints += (_fixedPoints[k] - e) * (_fixedPoints[k] - e) / e;
+            }
+
+            List<Statistic> statistics = new ArrayList<>();
+            statistics.add(new Statistic("position by card", positions, (n - 1) * (n - 1)));
+            statistics.add(new Statistic("fixed points", fixedPoints, ShuffleQualityHarness.MAX_FIXED_POINTS));
+            statistics.add(new Statistic("pair adjacency", pairs, n * (n - 1) - 1));
+            return new Report(trials, statistics);
+        }
+    }
+
+    /**
+     * A chi-square statistic and its degrees of freedom.
+     */
+    static final class Statistic {
+        private final String _name;
+        private final double _value;
+        private final int _degreesOfFreedom;
+
+        private Statistic(final String name, final double value, final int degreesOfFreedom) {
+            _name = name;
+            _value = value;
+            _degreesOfFreedom = degreesOfFreedom;
+        }
+
+        String getName() {
+            return _name;
+        }
+
+        double getValue() {
+            return _value;
+        }
+
+        double getCriticalValue() {
+            return ShuffleQualityHarness.criticalValue(_degreesOfFreedom);
+        }
+
+        boolean isPassed() {
+            return _value <= this.getCriticalValue();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s chi2 = %12.1f  df = %4d  critical = %8.1f  %s", _name, _value,
+                    _degreesOfFreedom, this.getCriticalValue(), this.isPassed() ? "pass" : "FAIL");
+        }
+    }
+
+    /**
+     * The results of the tests of one run.
+     */
+    static final class Report {
+        private final long _trials;
+        private final List<Statistic> _statistics;
+
+        private Report(final long trials, final List<Statistic> statistics) {
+            _trials = trials;
+            _statistics = statistics;
+        }
+
+        List<Statistic> getStatistics() {
+            return _statistics;
+        }
+
+        boolean isPassed() {
+            return _statistics.stream().allMatch(Statistic::isPassed);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(_trials).append(" shuffles");
+            for (Statistic s : _statistics) {
+                sb.append(System.lineSeparator()).append("  ").append(s);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Reports on the shuffles of every deck.
+     *
+     * @param args optional number of shuffles (default 10,000,000)
+     */
+    public static void main(final String[] args) {
+        long trials = args.length > 0 ? Long.parseLong(args[0]) : 10000000L;
+        for (ShuffleQualityTest.Engine engine : ShuffleQualityTest.ENGINES) {
+            System.out.println(engine.getName() + ": " + engine.harness().run(trials, 0));
+        }
+    }
+}
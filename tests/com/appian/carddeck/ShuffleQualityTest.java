@@ -0,0 +1,133 @@
+/*
+ *    File: ShuffleQualityTest.java
+ *  Author: Robert J. Orr
+ */
+package com.appian.carddeck;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * jUnit test class that validates the shuffle of every deck with <code>ShuffleQualityHarness</code>
+ *
+ * @author Robert Orr
+ * @version 1.0
+ */
+public class ShuffleQualityTest {
+    private static final long NUM_SHUFFLES = 500000;
+
+    /**
+     * Every shuffle that the decks provide.
+     */
+    static final List<Engine> ENGINES = Arrays.asList(
+            new Engine("Deck", seed -> new Deck(RandomGenerators.xoshiro256StarStar(seed)), IDeck::shuffle),
+            new Engine("Deck (lazy)", seed -> new Deck(RandomGenerators.xoshiro256StarStar(seed)),
+                    d -> ((Deck) d).shuffleLazily()),
+            new Engine("PackedDeck", seed -> new PackedDeck(RandomGenerators.xoshiro256StarStar(seed)),
+                    IDeck::shuffle),
+            new Engine("PackedDeck (lazy)", seed -> new PackedDeck(RandomGenerators.xoshiro256StarStar(seed)),
+                    d -> ((PackedDeck) d).shuffleLazily()),
+            new Engine("PackedDeck (seeded)", PackedDeck::new, IDeck::shuffle),
+            new Engine("ConcurrentDeck", seed -> new ConcurrentDeck(RandomGenerators.xoshiro256StarStar(seed)),
+                    IDeck::shuffle),
+            new Engine("Shoe", seed -> new Shoe(1, Shoe.DEFAULT_PENETRATION,
+                    RandomGenerators.xoshiro256StarStar(seed)), IDeck::shuffle));
+
+    @Test
+    public void test_shuffle_quality() throws Exception {
+        for (Engine engine : ShuffleQualityTest.ENGINES) {
+            ShuffleQualityHarness.Report report = engine.harness().run(ShuffleQualityTest.NUM_SHUFFLES, 1);
+            assertTrue(engine.getName() + " is not shuffled uniformly: " + report, report.isPassed());
+        }
+    }
+
+    /**
+     * The harness must detect the bias of Sattolo's algorithm, which only produces cyclic permutations.
+     */
+    @Test
+    public void test_harness_detects_sattolo() throws Exception {
+        ShuffleQualityHarness.Report report = new ShuffleQualityHarness(SattoloDeck::new, IDeck::shuffle)
+                .run(ShuffleQualityTest.NUM_SHUFFLES / 10, 1);
+        assertFalse("biased shuffle passed", report.isPassed());
+        for (ShuffleQualityHarness.Statistic s : report.getStatistics()) {
+            if (s.getName().equals("fixed points") || s.getName().equals("position by card")) {
+                assertFalse(s.getName() + " test passed for biased shuffle", s.isPassed());
+            }
+        }
+    }
+
+    @Test
+    public void test_criticalValue() throws Exception {
+        // the exact value of the chi-square distribution with 2,601 degrees of freedom at significance 1e-6
+        assertEquals("critical value is incorrect", 2958.35, ShuffleQualityHarness.criticalValue(2601), 1);
+        // with few degrees of freedom the approximation is a little high (exact value 35.89), i.e., conservative
+        double fixedPoints = ShuffleQualityHarness.criticalValue(5);
+        assertTrue("critical value is incorrect", fixedPoints > 35.89 && fixedPoints < 38);
+    }
+
+    @Test
+    public void test_fixedPointProbability() throws Exception {
+        double total = 0;
+        for (int k = 0; k <= 5; k++) {
+            total += ShuffleQualityHarness.fixedPointProbability(5, k);
+        }
+        assertEquals("probabilities do not add up to 1", 1.0, total, 1e-12);
+        // 44 of the 120 permutations of 5 items are derangements
+        assertEquals("probability is incorrect", 44.0 / 120, ShuffleQualityHarness.fixedPointProbability(5, 0), 1e-12);
+        assertEquals("probability is incorrect", 1 / Math.E, ShuffleQualityHarness.fixedPointProbability(52, 0), 1e-12);
+    }
+
+    /**
+     * A deck and one of its shuffles.
+     */
+    static final class Engine {
+        private final String _name;
+        private final LongFunction<IDeck> _factory;
+        private final Consumer<IDeck> _shuffle;
+
+        Engine(final String name, final LongFunction<IDeck> factory, final Consumer<IDeck> shuffle) {
+            _name = name;
+            _factory = factory;
+            _shuffle = shuffle;
+        }
+
+        String getName() {
+            return _name;
+        }
+
+        ShuffleQualityHarness harness() {
+            return new ShuffleQualityHarness(_factory, _shuffle);
+        }
+    }
+
+    /**
+     * Deck with the shuffle that <code>Deck</code> used to have, which picks the card to swap from the cards below
+     * the index card only (Sattolo's algorithm).
+     */
+    private static final class SattoloDeck extends Deck {
+        private static final long serialVersionUID = 1L;
+        private final SplittableRandom _sattoloRand;
+
+        private SattoloDeck(final long seed) {
+            _sattoloRand = new SplittableRandom(seed);
+        }
+
+        @Override
+        public void shuffle() {
+            List<Card> cards = this.getCards();
+            for (int i = cards.size() - 1; i > 0; i--) {
+                int j = _sattoloRand.nextInt(i); // 0 <= j < i
+                Card temp = cards.get(j);
+                cards.set(j, cards.get(i));
+                cards.set(i, temp);
+            }
+        }
+    }
+}
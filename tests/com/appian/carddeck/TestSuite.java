@@ -14,5 +14,12 @@ import org.junit.runner.RunWith;
  * @version 1.0
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({CardTest.class, DeckTest.class})
+@Suite.SuiteClasses({CardTest.class, DeckTest.class, PackedDeckTest.class,
+        RandomGeneratorsTest.class, ConcurrentDeckTest.class,
+        ShoeTest.class, CardSetTest.class,
+        HandEvaluatorTest.class, HandTest.class,
+        EquitySimulatorTest.class, ShuffleQualityTest.class,
+        DeckCodecTest.class, DealJournalTest.class, DeckStateTest.class,
+        DeckPoolTest.class, CombinationEnumeratorTest.class, CardOrderingTest.class,
+        DeckMetricsTest.class, DeckMetricsEnabledTest.class})
 public class TestSuite { }